@@ -7,7 +7,6 @@ import parseTree.ParseNode;
 import parseTree.ParseTreePrinter;
 import parser.JuncoParser;
 
-import lexicalAnalyzer.JuncoScanner;
 import lexicalAnalyzer.Scanner;
 import tokens.Tokens;
 
@@ -30,9 +29,9 @@ public class JuncoAbstractSyntaxTree extends JuncoApplication {
 	 * @throws FileNotFoundException 
 	 */
 	public static void parseFileToAST(String filename, PrintStream out) throws FileNotFoundException {
-		Scanner scanner     = JuncoScanner.make(filename);
+		Scanner scanner     = scannerFor(sourceFor(filename));
 		ParseNode syntaxTree    = JuncoParser.parse(scanner);
 		
-		out.print(syntaxTree);
+		printTree(syntaxTree, out);
 	}
 }
@@ -1,10 +1,29 @@
 package applications;
 
+import inputHandler.CharBufferInputHandler;
+import inputHandler.InputHandler;
+import lexicalAnalyzer.JuncoScanner;
+import lexicalAnalyzer.TableDrivenScanner;
+
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+
+import parseTree.ParseNode;
+import parseTree.ParseTreePrinter;
 
 public class JuncoApplication {
+	/** The system property choosing the scanner.  If it is TABLE_DRIVEN_SCANNER, the
+	 *  applications scan with a TableDrivenScanner; otherwise with a JuncoScanner.
+	 */
+	public static final String SCANNER_PROPERTY = "junco.scanner";
+	public static final String TABLE_DRIVEN_SCANNER = "table";
 	private static final int EXIT_CODE_FOR_ERROR = 1;
 	private static String outputDirectory = "output/";
+	// the filename argument that means "read the program from standard input".
+	protected static final String STANDARD_INPUT = "-";
+	private static final String STANDARD_INPUT_NAME = "stdin";
 
 	public JuncoApplication() {
 		super();
@@ -24,7 +43,7 @@ public class JuncoApplication {
 		return  1 <= args.length && args.length <= 2;
 	}
 	protected static void ensureSourceFileExists(String[] args, String applicationName) {
-		if(!fileExists(args[0])) {
+		if(!isStandardInput(args[0]) && !fileExists(args[0])) {
 			printUsageMessage(applicationName, "Source file does not exist.");
 		}
 	}	
@@ -41,6 +60,25 @@ public class JuncoApplication {
 
 
 	
+	protected static boolean isStandardInput(String filename) {
+		return filename.equals(STANDARD_INPUT);
+	}
+	/** The source named by a filename argument: the file, or standard input if the name is STANDARD_INPUT. */
+	protected static CharBufferInputHandler sourceFor(String filename) {
+		if(isStandardInput(filename)) {
+			return InputHandler.fromReader(STANDARD_INPUT_NAME, new InputStreamReader(System.in));
+		}
+		return InputHandler.fromMappedFile(filename);
+	}
+	/** A scanner of the source, of the kind chosen by SCANNER_PROPERTY. */
+	protected static JuncoScanner scannerFor(CharBufferInputHandler source) {
+		if(TABLE_DRIVEN_SCANNER.equals(System.getProperty(SCANNER_PROPERTY))) {
+			return TableDrivenScanner.make(source);
+		}
+		return JuncoScanner.make(source);
+	}
+
+
 	protected static String ensureEndsWithSeparator(String string) {
 		return string + 
 			   (endsWithSeparator(string) ? File.separator : "");
@@ -66,6 +104,17 @@ public class JuncoApplication {
 	}
 	
 
+	/** Prints the whole tree to out, a line at a time. */
+	protected static void printTree(ParseNode tree, PrintStream out) {
+		try {
+			ParseTreePrinter.print(tree, out);
+		}
+		catch (IOException e) {
+			throw new IllegalStateException(e);		// a PrintStream does not throw
+		}
+	}
+
+
 	protected static boolean makeDirectoryIfNecessary(String directoryName) {
 		return directoryExists(directoryName) || createDirectory(directoryName);
 	}
@@ -82,7 +131,8 @@ public class JuncoApplication {
 
 	protected static void printUsageMessage(String applicationName, String errorMessage) {
 		System.err.println("usage: " + applicationName + " filename" + " [target output directory]");
+		System.err.println("       (a filename of " + STANDARD_INPUT + " reads standard input)");
 		System.err.println(errorMessage);
 		System.exit(EXIT_CODE_FOR_ERROR);
 	}
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -2,45 +2,86 @@ package applications;
 
 
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.PrintStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 
 import asmCodeGenerator.ASMCodeFragment;
 import asmCodeGenerator.ASMCodeGenerator;
 
-import lexicalAnalyzer.JuncoScanner;
-import lexicalAnalyzer.Scanner;
+import inputHandler.CharBufferInputHandler;
+import inputHandler.InputHandler;
 import parseTree.ParseNode;
 import parser.JuncoParser;
+import parser.ParseCache;
 import semanticAnalyzer.JuncoSemanticAnalyzer;
 import tokens.Tokens;
 
 public class JuncoCompiler extends JuncoApplication {
-	/** Compiles a Junco file.
+	/** The system property naming the ParseCache directory.  If it is not set, every
+	 *  program is scanned and parsed.
+	 */
+	public static final String PARSE_CACHE_PROPERTY = "junco.parseCache";
+
+	/** Compiles a Junco file.  If the filename is STANDARD_INPUT, compiles
+	 *  standard input and prints the code to standard output.
 	 * @param args
-	 * @throws FileNotFoundException 
+	 * @throws IOException 
 	 */
-	public static void main(String[] args) throws FileNotFoundException {
+	public static void main(String[] args) throws IOException {
 		checkArguments(args, "JuncoCompiler");
 		
 		Tokens.setPrintLevel(Tokens.Level.FULL);
-		compile(args[0]);
+		if(isStandardInput(args[0])) {
+			compile(sourceFor(args[0]), System.out);
+			System.out.flush();
+		}
+		else {
+			compile(args[0]);
+		}
 	}
 	
 	/** analyzes a file specified by filename.
 	 * @param filename the name of the file to be analyzed.
-	 * @throws FileNotFoundException 
+	 * @throws IOException 
 	 */
-	public static void compile(String filename) throws FileNotFoundException {
-		Scanner scanner         = JuncoScanner.make(filename);
-		ParseNode syntaxTree    = JuncoParser.parse(scanner);
-		ParseNode decoratedTree = JuncoSemanticAnalyzer.analyze(syntaxTree);
+	public static void compile(String filename) throws IOException {
+		ParseNode decoratedTree = analyze(InputHandler.fromMappedFile(filename));
 
 		generateCodeIfNoErrors(filename, decoratedTree);
 	}
+	
+	/** compiles a program held in memory, touching no files.
+	 * @param source the program, from InputHandler.fromCharSequence or fromReader.
+	 * @param out where to append the code.  Nothing is appended if the program has errors.
+	 * @return true if code was generated.
+	 * @throws IOException if out throws one.
+	 */
+	public static boolean compile(CharBufferInputHandler source, Appendable out) throws IOException {
+		ParseNode decoratedTree = analyze(source);
+		
+		if(thereAreErrors()) {
+			informUserNoCodeGenerated();
+			return false;
+		}
+		ASMCodeGenerator.generate(decoratedTree).appendTo(out);
+		return true;
+	}
+	
+	private static ParseNode analyze(CharBufferInputHandler source) {
+		ParseNode syntaxTree    = parse(source);
+		return JuncoSemanticAnalyzer.analyze(syntaxTree);
+	}
+	private static ParseNode parse(CharBufferInputHandler source) {
+		String cacheDirectory = System.getProperty(PARSE_CACHE_PROPERTY);
+		if(cacheDirectory == null) {
+			return JuncoParser.parse(scannerFor(source));
+		}
+		return new ParseCache(new File(cacheDirectory)).parse(source);
+	}
 
 	private static void generateCodeIfNoErrors(String filename, ParseNode decoratedTree)
-			throws FileNotFoundException {
+			throws IOException {
 		String outfile = outputFilename(filename);
 		
 		if(thereAreErrors()) {
@@ -68,16 +109,19 @@ public class JuncoCompiler extends JuncoApplication {
 	
 	// normal code generation.
 	private static void generateAndPrintCode(String outfile, ParseNode decoratedTree) 
-			throws FileNotFoundException {
+			throws IOException {
 		ASMCodeFragment code = ASMCodeGenerator.generate(decoratedTree);
 		printCodeToFile(outfile, code);
 	}
 	private static void printCodeToFile(String filename, ASMCodeFragment code)
-			throws FileNotFoundException {
-		File file = new File(filename);
-		PrintStream out = new PrintStream(file);
-		out.print(code);
-		out.close();
+			throws IOException {
+		OutputStream out = new FileOutputStream(filename);
+		try {
+			code.writeTo(out);
+		}
+		finally {
+			out.close();
+		}
 	}
 
 	private static boolean thereAreErrors() {
@@ -3,7 +3,6 @@ package applications;
 import java.io.FileNotFoundException;
 import java.io.PrintStream;
 
-import lexicalAnalyzer.JuncoScanner;
 import lexicalAnalyzer.Scanner;
 import parseTree.ParseNode;
 import parseTree.ParseTreePrinter;
@@ -33,10 +32,10 @@ public class JuncoSemanticChecker extends JuncoApplication {
 	 * @throws FileNotFoundException 
 	 */
 	public static void checkFileSemantics(String filename, PrintStream out) throws FileNotFoundException {
-		Scanner scanner         = JuncoScanner.make(filename);
+		Scanner scanner         = scannerFor(sourceFor(filename));
 		ParseNode syntaxTree    = JuncoParser.parse(scanner);
 		ParseNode decoratedTree = JuncoSemanticAnalyzer.analyze(syntaxTree);
 		
-		out.print(decoratedTree);
+		printTree(decoratedTree, out);
 	}
 }
@@ -6,7 +6,6 @@ import java.io.PrintStream;
 import tokens.Token;
 import tokens.Tokens;
 
-import lexicalAnalyzer.JuncoScanner;
 import lexicalAnalyzer.Scanner;
 
 public class JuncoTokenPrinter extends JuncoApplication {
@@ -28,7 +27,7 @@ public class JuncoTokenPrinter extends JuncoApplication {
 	 * @throws FileNotFoundException 
 	 */
 	public static void scanFile(String filename, PrintStream out) throws FileNotFoundException {
-		Scanner scanner     = JuncoScanner.make(filename);
+		Scanner scanner     = scannerFor(sourceFor(filename));
 		
 		while(scanner.hasNext()) {
 			printNextToken(out, scanner);
@@ -1,5 +1,6 @@
 package asmCodeGenerator;
 
+import java.io.IOException;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -41,11 +42,19 @@ public class ASMCodeChunk {
 	
 	static private String terminator = System.getProperty("line.separator");
 	public String toString() {
-		StringBuffer buffer = new StringBuffer();
+		StringBuilder builder = new StringBuilder();
+		try {
+			appendTo(builder);
+		}
+		catch (IOException e) {
+			throw new AssertionError(e);		// a StringBuilder does not throw.
+		}
+		return builder.toString();
+	}
+	public void appendTo(Appendable out) throws IOException {
 		for(ASMInstruction instruction: instructions) {
-			buffer.append(instruction.toString());
-			buffer.append(terminator);
+			out.append(instruction.toString());
+			out.append(terminator);
 		}
-		return buffer.toString();
 	}
 }
@@ -1,5 +1,10 @@
 package asmCodeGenerator;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -81,11 +86,31 @@ public class ASMCodeFragment {
 	}
 	
 	public String toString() {
-		StringBuffer buffer = new StringBuffer();
+		StringBuilder builder = new StringBuilder();
+		try {
+			appendTo(builder);
+		}
+		catch (IOException e) {
+			throw new AssertionError(e);		// a StringBuilder does not throw.
+		}
+		return builder.toString();
+	}
+	
+	/** Write the instructions of this fragment, one per line, to any Appendable
+	 *  (a StringBuilder, a Writer, a PrintStream...) without first making them one String.
+	 */
+	public void appendTo(Appendable out) throws IOException {
 		for(ASMCodeChunk chunk: chunks) {
-			buffer.append(chunk.toString());
+			chunk.appendTo(out);
 		}
-		return buffer.toString();
+	}
+	/** Write the instructions of this fragment to a byte stream, in the default character set.
+	 *  The stream is flushed but not closed.
+	 */
+	public void writeTo(OutputStream out) throws IOException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out));
+		appendTo(writer);
+		writer.flush();
 	}
 
 }
@@ -0,0 +1,15 @@
+package benchmarks;
+
+/** Where the benchmarks put the results they compute and otherwise ignore, so that
+ *  the JIT cannot find the work that made them dead and drop it.  A result is written
+ *  to a volatile field, which the compiler must assume some other thread reads.
+ */
+public final class Blackhole {
+	private static volatile long sink;
+
+	private Blackhole() {}
+
+	public static void consume(long value) {
+		sink = value;
+	}
+}
@@ -0,0 +1,122 @@
+package benchmarks;
+
+import inputHandler.CharBufferInputHandler;
+import inputHandler.CharCursor;
+import inputHandler.InputHandler;
+import inputHandler.LocatedChar;
+import inputHandler.PushbackCharStream;
+import lexicalAnalyzer.JuncoScanner;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Measures the memory allocated per source character by the character-level input
+ *  of the scanner: the LocatedChar-per-character PushbackCharStream against the
+ *  CharCursor that replaced it, and the whole JuncoScanner (which uses a CharCursor)
+ *  for comparison.
+ *  <p>
+ *  This is a plain timed loop rather than a JMH benchmark, as the project builds without
+ *  JMH.  Each walker reads every file once to warm up, then the measured number of times.
+ *  The bytes allocated are the growth over the measured passes of the running thread's
+ *  allocated-byte count (InputHandlerBenchmark.allocatedBytes), which includes everything
+ *  a walk allocates: the file's decoded text, the walker itself and anything per char.
+ *  They are divided by the total file length (in bytes, which for the ASCII sources here
+ *  is in chars) times the repetitions.  The time is wall
+ *  clock over the same passes, so take it as a rough guide only.
+ *  <p>
+ *  usage: CharCursorBenchmark [file or directory of .junco files] [repetitions]
+ *  <br>The default is the directory input/junco1.
+ */
+public class CharCursorBenchmark {
+	private static final String DEFAULT_INPUT = "input/junco1";
+	private static final int DEFAULT_REPETITIONS = 20;
+
+	public static void main(String[] args) {
+		String inputName = args.length > 0 ? args[0] : DEFAULT_INPUT;
+		int repetitions = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_REPETITIONS;
+		List<String> filenames = new ArrayList<String>();
+		addJuncoFiles(new File(inputName), filenames);
+		long sourceChars = 0;
+		for(String filename: filenames) {
+			sourceChars += new File(filename).length();
+		}
+
+		System.out.format("%s: %d files, %d chars, %d repetitions%n",
+				inputName, filenames.size(), sourceChars, repetitions);
+		for(Walker walker: Walker.values()) {
+			run(walker, filenames, 1);			// warm up
+			long start = System.nanoTime();
+			long allocated = run(walker, filenames, repetitions);
+			long nanos = System.nanoTime() - start;
+			System.out.format("%-32s %8.2f bytes allocated per char  %8.2f ns per char%n",
+					walker.description,
+					(double)allocated / (sourceChars * repetitions),
+					(double)nanos / (sourceChars * repetitions));
+		}
+	}
+	private static void addJuncoFiles(File file, List<String> filenames) {
+		if(file.isDirectory()) {
+			for(File child: file.listFiles()) {
+				addJuncoFiles(child, filenames);
+			}
+		}
+		else if(file.getName().endsWith(".junco")) {
+			filenames.add(file.getPath());
+		}
+	}
+
+	private enum Walker {
+		PUSHBACK_CHAR_STREAM("PushbackCharStream chars") {
+			long walk(String filename) {
+				long sum = 0;
+				PushbackCharStream stream = PushbackCharStream.make(InputHandler.fromFilename(filename));
+				while(stream.hasNext()) {
+					LocatedChar c = stream.next();
+					sum += c.getCharacter() + c.getLocation().getPosition();
+				}
+				return sum;
+			}
+		},
+		CHAR_CURSOR("CharCursor chars") {
+			long walk(String filename) {
+				long sum = 0;
+				CharCursor cursor = new CharCursor(CharBufferInputHandler.fromMappedFile(filename, "\n"));
+				while(cursor.hasNext()) {
+					sum += cursor.offset();
+					sum += cursor.next();
+				}
+				return sum;
+			}
+		},
+		SCANNER("JuncoScanner tokens") {
+			long walk(String filename) {
+				long sum = 0;
+				JuncoScanner scanner = JuncoScanner.make(filename);
+				while(scanner.hasNext()) {
+					sum += scanner.next().getLexeme().length();
+				}
+				return sum;
+			}
+		};
+
+		private String description;
+		private Walker(String description) {
+			this.description = description;
+		}
+		abstract long walk(String filename);
+	}
+
+	private static long run(Walker walker, List<String> filenames, int repetitions) {
+		long checksum = 0;
+		long allocatedBefore = InputHandlerBenchmark.allocatedBytes();
+		for(int i=0; i<repetitions; i++) {
+			for(String filename: filenames) {
+				checksum += walker.walk(filename);
+			}
+		}
+		long allocated = InputHandlerBenchmark.allocatedBytes() - allocatedBefore;
+		Blackhole.consume(checksum);
+		return allocated;
+	}
+}
@@ -0,0 +1,107 @@
+package benchmarks;
+
+import inputHandler.InputHandler;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.Iterator;
+
+/** Measures how much memory each InputHandler factory allocates, per byte of source,
+ *  to deliver every character of a file.  Allocation is the measure of copying here:
+ *  each line String (and each line+terminator String) is a fresh copy of its characters.
+ *  <p>
+ *  usage: InputHandlerBenchmark filename [repetitions]
+ */
+public class InputHandlerBenchmark {
+	private static final int DEFAULT_REPETITIONS = 20;
+
+	public static void main(String[] args) {
+		if(args.length < 1) {
+			System.err.println("usage: InputHandlerBenchmark filename [repetitions]");
+			System.exit(1);
+		}
+		String filename = args[0];
+		int repetitions = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_REPETITIONS;
+		long sourceBytes = new File(filename).length();
+
+		System.out.format("%s: %d bytes, %d repetitions%n", filename, sourceBytes, repetitions);
+		for(Factory factory: Factory.values()) {
+			run(factory, filename, 1);			// warm up
+			Measurement m = run(factory, filename, repetitions);
+			System.out.format("%-28s %8.2f bytes allocated per source byte  %8.2f ms per pass%n",
+					factory.description,
+					(double)m.allocatedBytes / (sourceBytes * repetitions),
+					m.nanos / 1e6 / repetitions);
+		}
+	}
+
+	private enum Factory {
+		LINES_WITH_TERMINATOR("fromFilename, iterator()") {
+			long walk(String filename) {
+				long sum = 0;
+				for(String line: InputHandler.fromFilename(filename)) {
+					sum += sumOf(line);
+				}
+				return sum;
+			}
+		},
+		LINES_WITHOUT_TERMINATOR("fromFilename, lineIterator()") {
+			long walk(String filename) {
+				return sumOfLines(InputHandler.fromFilename(filename));
+			}
+		},
+		MAPPED("fromMappedFile, lineIterator()") {
+			long walk(String filename) {
+				return sumOfLines(InputHandler.fromMappedFile(filename));
+			}
+		};
+
+		private String description;
+		private Factory(String description) {
+			this.description = description;
+		}
+		abstract long walk(String filename);
+	}
+
+	private static long sumOfLines(InputHandler handler) {
+		long sum = 0;
+		Iterator<CharSequence> lines = handler.lineIterator();
+		while(lines.hasNext()) {
+			sum += sumOf(lines.next());
+		}
+		return sum;
+	}
+	// touches every character, so that no factory can skip work.
+	private static long sumOf(CharSequence line) {
+		long sum = 0;
+		for(int i=0; i<line.length(); i++) {
+			sum += line.charAt(i);
+		}
+		return sum;
+	}
+
+
+	private static class Measurement {
+		long allocatedBytes;
+		long nanos;
+	}
+	private static Measurement run(Factory factory, String filename, int repetitions) {
+		Measurement result = new Measurement();
+		long checksum = 0;
+		long allocatedBefore = allocatedBytes();
+		long start = System.nanoTime();
+		for(int i=0; i<repetitions; i++) {
+			checksum += factory.walk(filename);
+		}
+		result.nanos = System.nanoTime() - start;
+		result.allocatedBytes = allocatedBytes() - allocatedBefore;
+		Blackhole.consume(checksum);
+		return result;
+	}
+
+	static long allocatedBytes() {
+		com.sun.management.ThreadMXBean bean =
+				(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+}
@@ -0,0 +1,65 @@
+package benchmarks;
+
+import inputHandler.CharBufferInputHandler;
+import inputHandler.InputHandler;
+import lexicalAnalyzer.JuncoScanner;
+import lexicalAnalyzer.TokenBuffer;
+
+import java.util.concurrent.ForkJoinPool;
+
+/** Times a sequential scan of a file into a TokenBuffer against a parallel scan
+ *  (JuncoScanner.scanInParallel), after checking that the two give the same tokens.
+ *  <p>
+ *  usage: ParallelScanBenchmark filename [repetitions]
+ */
+public class ParallelScanBenchmark {
+	private static final int DEFAULT_REPETITIONS = 10;
+
+	public static void main(String[] args) {
+		if(args.length < 1) {
+			System.err.println("usage: ParallelScanBenchmark filename [repetitions]");
+			System.exit(1);
+		}
+		CharBufferInputHandler handler = InputHandler.fromMappedFile(args[0]);
+		int repetitions = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_REPETITIONS;
+
+		TokenBuffer expected = TokenBuffer.make(JuncoScanner.make(handler));
+		TokenBuffer actual = JuncoScanner.scanInParallel(handler);
+		if(!sameTokens(expected, actual)) {
+			System.out.println("MISMATCH between sequential and parallel scans");
+			System.exit(1);
+		}
+		System.out.format("%s: %d tokens, parallelism %d%n", args[0], expected.size(),
+				ForkJoinPool.commonPool().getParallelism());
+
+		for(boolean parallel: new boolean[] {false, true}) {
+			scan(handler, parallel, 1);			// warm up
+			long nanos = scan(handler, parallel, repetitions);
+			System.out.format("%-12s %8.2f ms per scan%n", parallel ? "parallel" : "sequential", nanos / 1e6 / repetitions);
+		}
+	}
+
+	private static long scan(CharBufferInputHandler handler, boolean parallel, int repetitions) {
+		long start = System.nanoTime();
+		for(int i=0; i<repetitions; i++) {
+			if(parallel) {
+				JuncoScanner.scanInParallel(handler);
+			}
+			else {
+				TokenBuffer.make(JuncoScanner.make(handler));
+			}
+		}
+		return System.nanoTime() - start;
+	}
+	private static boolean sameTokens(TokenBuffer expected, TokenBuffer actual) {
+		if(expected.size() != actual.size()) {
+			return false;
+		}
+		for(int i=0; i<expected.size(); i++) {
+			if(!expected.token(i).fullString().equals(actual.token(i).fullString())) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,60 @@
+package benchmarks;
+
+import inputHandler.CharBufferInputHandler;
+import inputHandler.InputHandler;
+import lexicalAnalyzer.JuncoScanner;
+import parseTree.ParseNode;
+import parser.JuncoParser;
+import parser.ParseCache;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+/** Times getting a syntax tree for a file by scanning and parsing it, and by reading it
+ *  from a ParseCache that already holds it.  Both include mapping the file; the cache
+ *  read includes hashing its text.
+ *  <p>
+ *  usage: ParseCacheBenchmark filename [repetitions]
+ */
+public class ParseCacheBenchmark {
+	private static final int DEFAULT_REPETITIONS = 10;
+
+	public static void main(String[] args) throws IOException {
+		if(args.length < 1) {
+			System.err.println("usage: ParseCacheBenchmark filename [repetitions]");
+			System.exit(1);
+		}
+		int repetitions = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_REPETITIONS;
+		File directory = Files.createTempDirectory("parseCache").toFile();
+		ParseCache cache = new ParseCache(directory);
+		File cached = cache.fileFor(InputHandler.fromMappedFile(args[0]));
+		try {
+			cache.parse(InputHandler.fromMappedFile(args[0]));
+			System.out.format("%s: cache file of %d bytes, %d repetitions%n", args[0], cached.length(), repetitions);
+			int children = 0;
+			for(boolean fromCache: new boolean[] {false, true}) {
+				children += treeOf(args[0], cache, fromCache, 1);		// warm up
+				long start = System.nanoTime();
+				children += treeOf(args[0], cache, fromCache, repetitions);
+				long nanos = System.nanoTime() - start;
+				System.out.format("%-12s %8.2f ms per tree%n", fromCache ? "from cache" : "parsed", nanos / 1e6 / repetitions);
+			}
+			Blackhole.consume(children);
+		}
+		finally {
+			cached.delete();
+			directory.delete();
+		}
+	}
+
+	private static int treeOf(String filename, ParseCache cache, boolean fromCache, int repetitions) {
+		int children = 0;
+		for(int i=0; i<repetitions; i++) {
+			CharBufferInputHandler source = InputHandler.fromMappedFile(filename);
+			ParseNode tree = fromCache ? cache.parse(source) : JuncoParser.parse(JuncoScanner.make(source));
+			children += tree.nChildren();
+		}
+		return children;
+	}
+}
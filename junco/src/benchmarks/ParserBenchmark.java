@@ -0,0 +1,57 @@
+package benchmarks;
+
+import inputHandler.InputHandler;
+import lexicalAnalyzer.JuncoScanner;
+import lexicalAnalyzer.TokenBuffer;
+import parseTree.ParseNode;
+import parser.JuncoParser;
+
+import java.util.concurrent.ForkJoinPool;
+
+/** Times the parser alone: the file is scanned once into a TokenBuffer, and the buffer
+ *  is parsed repeatedly, sequentially and then box-parallel (JuncoParser.parseInParallel).
+ *  Reports time per parse and bytes allocated per token, the latter including the parse
+ *  tree itself.  Allocation is counted on the calling thread only, so it is reported for
+ *  the sequential parse alone.
+ *  <p>
+ *  usage: ParserBenchmark filename [repetitions]
+ */
+public class ParserBenchmark {
+	private static final int DEFAULT_REPETITIONS = 20;
+
+	public static void main(String[] args) {
+		if(args.length < 1) {
+			System.err.println("usage: ParserBenchmark filename [repetitions]");
+			System.exit(1);
+		}
+		int repetitions = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_REPETITIONS;
+		TokenBuffer tokens = TokenBuffer.make(JuncoScanner.make(InputHandler.fromMappedFile(args[0])));
+
+		System.out.format("%s: %d tokens, %d repetitions, parallelism %d%n", args[0], tokens.size(),
+				repetitions, ForkJoinPool.commonPool().getParallelism());
+		int children = 0;
+		for(boolean parallel: new boolean[] {false, true}) {
+			children += parse(tokens, parallel, 1);				// warm up
+			long allocatedBefore = InputHandlerBenchmark.allocatedBytes();
+			long start = System.nanoTime();
+			children += parse(tokens, parallel, repetitions);
+			long nanos = System.nanoTime() - start;
+			long allocated = InputHandlerBenchmark.allocatedBytes() - allocatedBefore;
+			System.out.format("%-12s %8.2f ms per parse", parallel ? "parallel" : "sequential", nanos / 1e6 / repetitions);
+			if(!parallel) {
+				System.out.format("  %8.2f bytes allocated per token", (double)allocated / ((long)tokens.size() * repetitions));
+			}
+			System.out.println();
+		}
+		Blackhole.consume(children);
+	}
+
+	private static int parse(TokenBuffer tokens, boolean parallel, int repetitions) {
+		int children = 0;
+		for(int i=0; i<repetitions; i++) {
+			ParseNode tree = parallel ? JuncoParser.parseInParallel(tokens) : JuncoParser.parse(tokens);
+			children += tree.nChildren();
+		}
+		return children;
+	}
+}
@@ -0,0 +1,88 @@
+package benchmarks;
+
+import lexicalAnalyzer.JuncoScanner;
+import lexicalAnalyzer.ScanTranscript;
+import lexicalAnalyzer.Scanner;
+import lexicalAnalyzer.TableDrivenScanner;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/** Runs JuncoScanner and TableDrivenScanner over every .junco file under a directory,
+ *  checks that they produce the same tokens (with locations) and the same lexical
+ *  error messages in the same order, and reports the time each takes.
+ *  <p>
+ *  usage: ScannerComparison [file or directory of .junco files] [repetitions]
+ *  <br>The default is the directory input.
+ */
+public class ScannerComparison {
+	private static final String DEFAULT_INPUT = "input";
+	private static final int DEFAULT_REPETITIONS = 20;
+
+	public static void main(String[] args) {
+		String inputName = args.length > 0 ? args[0] : DEFAULT_INPUT;
+		int repetitions = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_REPETITIONS;
+		List<String> filenames = new ArrayList<String>();
+		addJuncoFiles(new File(inputName), filenames);
+
+		int mismatches = 0;
+		for(String filename: filenames) {
+			List<String> expected = ScanTranscript.of(JuncoScanner.make(filename));
+			List<String> actual   = ScanTranscript.of(TableDrivenScanner.make(filename));
+			if(!expected.equals(actual)) {
+				System.out.println("MISMATCH " + filename);
+				mismatches++;
+			}
+		}
+		System.out.format("%d files compared, %d mismatches%n", filenames.size(), mismatches);
+
+		for(Mode mode: Mode.values()) {
+			run(mode, filenames, 1);			// warm up
+			long nanos = run(mode, filenames, repetitions);
+			System.out.format("%-20s %8.2f ms per pass over all files%n", mode, nanos / 1e6 / repetitions);
+		}
+		System.exit(mismatches == 0 ? 0 : 1);
+	}
+	static void addJuncoFiles(File file, List<String> filenames) {
+		if(file.isDirectory()) {
+			for(File child: file.listFiles()) {
+				addJuncoFiles(child, filenames);
+			}
+		}
+		else if(file.getName().endsWith(".junco")) {
+			filenames.add(file.getPath());
+		}
+	}
+
+	private enum Mode {
+		JUNCO_SCANNER {
+			Scanner make(String filename) {
+				return JuncoScanner.make(filename);
+			}
+		},
+		TABLE_DRIVEN_SCANNER {
+			Scanner make(String filename) {
+				return TableDrivenScanner.make(filename);
+			}
+		};
+		abstract Scanner make(String filename);
+	}
+	private static long run(Mode mode, List<String> filenames, int repetitions) {
+		Logger.getLogger("compiler.lexicalAnalyzer").setUseParentHandlers(false);
+		long checksum = 0;
+		long start = System.nanoTime();
+		for(int i=0; i<repetitions; i++) {
+			for(String filename: filenames) {
+				Scanner scanner = mode.make(filename);
+				while(scanner.hasNext()) {
+					checksum += scanner.next().getLexeme().length();
+				}
+			}
+		}
+		long nanos = System.nanoTime() - start;
+		Blackhole.consume(checksum);
+		return nanos;
+	}
+}
@@ -0,0 +1,214 @@
+package inputHandler;
+
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/** An InputHandler whose entire input is held in one CharBuffer.
+ *  <p>
+ *  The lines it hands out are a single view on the buffer that is moved from line
+ *  to line, so walking the input with <code>lineIterator()</code> copies no characters
+ *  and allocates nothing per line.
+ *  Line terminators are recognized exactly as <code>BufferedReader.readLine()</code>
+ *  recognizes them ("\n", "\r", or "\r\n"), so line numbers agree with those
+ *  of the file-based InputHandler.
+ */
+public class CharBufferInputHandler extends InputHandler {
+	private CharBuffer text;
+	private GapText editedText;		// what text views, for an input made by edited(); else null
+	private boolean superseded = false;	// true once edited() has made the input that replaces this one
+
+	protected CharBufferInputHandler(String filename, String terminator, CharBuffer text) {
+		super(filename, terminator);
+		this.text = text;
+	}
+	private CharBufferInputHandler(String filename, String terminator, GapText editedText) {
+		this(filename, terminator, CharBuffer.wrap(editedText));
+		this.editedText = editedText;
+	}
+
+	/** Get the whole input.
+	 * @return a read-only view of the input text, positioned at its start.
+	 */
+	public CharBuffer contents() {
+		checkNotSuperseded();
+		return text.asReadOnlyBuffer();
+	}
+	// the buffer itself, which may be backed by an accessible array.  For CharCursor.
+	CharBuffer text() {
+		checkNotSuperseded();
+		return text;
+	}
+
+	@Override
+	protected Iterator<CharSequence> openLines() {
+		checkNotSuperseded();
+		return new BufferLineIterator();
+	}
+	private void checkNotSuperseded() {
+		if(superseded) {
+			throw new IllegalStateException("input " + fileName() + " has been edited, and replaced by the result");
+		}
+	}
+
+
+	private class BufferLineIterator implements Iterator<CharSequence> {
+		private int position = 0;
+		private LineView line = new LineView();
+
+		@Override
+		public boolean hasNext() {
+			return position < text.limit();
+		}
+
+		@Override
+		public CharSequence next() {
+			if(!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			int start = position;
+			int end = endOfLine(start);
+			position = startOfNextLine(end);
+			line.moveTo(start, end);
+			return line;
+		}
+		private int endOfLine(int index) {
+			while(index < text.limit() && !isTerminatorChar(text.get(index))) {
+				index++;
+			}
+			return index;
+		}
+		private int startOfNextLine(int endOfLine) {
+			if(endOfLine == text.limit()) {
+				return endOfLine;
+			}
+			if(text.get(endOfLine) == '\r' && endOfLine+1 < text.limit() && text.get(endOfLine+1) == '\n') {
+				return endOfLine + 2;
+			}
+			return endOfLine + 1;
+		}
+		private boolean isTerminatorChar(char c) {
+			return c == '\n' || c == '\r';
+		}
+
+		/**
+		 * remove is an unsupported operation.  It throws an UnsupportedOperationException.
+		 */
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	// the characters text[start..end), without copying them.
+	private class LineView implements CharSequence {
+		private int start;
+		private int end;
+
+		void moveTo(int start, int end) {
+			this.start = start;
+			this.end = end;
+		}
+		@Override
+		public int length() {
+			return end - start;
+		}
+		@Override
+		public char charAt(int index) {
+			return text.get(start + index);
+		}
+		@Override
+		public CharSequence subSequence(int from, int to) {
+			return text.subSequence(start + from, start + to);
+		}
+		@Override
+		public String toString() {
+			return subSequence(0, length()).toString();
+		}
+	}
+
+
+//////////////////////////////////////////////////////////////////////////////
+// factories
+
+	public static CharBufferInputHandler fromMappedFile(String filename, String terminator) {
+		return new CharBufferInputHandler(filename, terminator, mapFile(filename));
+	}
+	/** @param name the name to use as the filename of the text (in locations, for instance). */
+	public static CharBufferInputHandler fromCharSequence(String name, CharSequence text, String terminator) {
+		return new CharBufferInputHandler(name, terminator, copyOf(text));
+	}
+	/** Reads the reader to its end, but does not close it.
+	 * @param name the name to use as the filename of the text (in locations, for instance).
+	 */
+	public static CharBufferInputHandler fromReader(String name, Reader reader, String terminator) {
+		return new CharBufferInputHandler(name, terminator, readAll(reader));
+	}
+
+	/** Makes the input that results from replacing <code>removedLength</code> characters
+	 *  at <code>offset</code> with <code>inserted</code>.
+	 *  <p>
+	 *  The first edit copies the text into a gap buffer (GapText), which the result and
+	 *  the inputs made by editing it share: so later edits cost about the size of the edit
+	 *  and its distance from the one before.  An input that has been edited shares its
+	 *  text with the result, so it is superseded: using it again throws an
+	 *  IllegalStateException.
+	 */
+	public CharBufferInputHandler edited(int offset, int removedLength, CharSequence inserted) {
+		checkNotSuperseded();
+		GapText result = editedText != null ? editedText : new GapText(text);
+		result.replace(offset, removedLength, inserted);
+		superseded = true;
+		return new CharBufferInputHandler(fileName(), terminator, result);
+	}
+
+	// one bulk decode of the mapped bytes is the only copy made of the file.
+	private static CharBuffer mapFile(String filename) {
+		try {
+			FileInputStream stream = new FileInputStream(filename);
+			try {
+				FileChannel channel = stream.getChannel();
+				MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+				return Charset.defaultCharset().decode(bytes);
+			}
+			finally {
+				stream.close();
+			}
+		}
+		catch (FileNotFoundException e) {
+			throw new IllegalArgumentException(e);
+		}
+		catch (IOException e) {
+			throw new IllegalArgumentException(e);
+		}
+	}
+
+	// copies into an array-backed buffer, which CharCursor reads fastest.
+	private static CharBuffer copyOf(CharSequence text) {
+		CharBuffer result = CharBuffer.allocate(text.length());
+		result.append(text);
+		result.flip();
+		return result;
+	}
+	private static final int READ_BLOCK_SIZE = 8192;
+	private static CharBuffer readAll(Reader reader) {
+		try {
+			StringBuilder text = new StringBuilder();
+			char[] block = new char[READ_BLOCK_SIZE];
+			for(int numRead = reader.read(block); numRead != -1; numRead = reader.read(block)) {
+				text.append(block, 0, numRead);
+			}
+			return copyOf(text);
+		}
+		catch (IOException e) {
+			throw new IllegalArgumentException(e);
+		}
+	}
+}
@@ -0,0 +1,208 @@
+package inputHandler;
+
+import java.nio.CharBuffer;
+
+/** An allocation-free cursor over the text of a CharBufferInputHandler.
+ *  <p>
+ *  Where a PushbackCharStream hands out a LocatedChar (and a TextLocation) per
+ *  character, a CharCursor hands out plain <code>char</code>s and identifies
+ *  positions by an <code>int</code> offset into the text.  Pushback is done by
+ *  returning to an earlier offset with <code>reset(offset)</code>.  A TextLocation
+ *  is made only when one is asked for, by the cursor's <code>locator()</code>.
+ *  <p>
+ *  The characters delivered are those a LocatedCharStream on the default
+ *  InputHandler delivers: each line terminator ("\n", "\r", or "\r\n") reads as a
+ *  single '\n', a final line without a terminator is given one, and
+ *  <code>END_OF_INPUT</code> is returned (repeatedly) once the input is exhausted.
+ */
+public class CharCursor {
+	public static final char END_OF_INPUT = LocatedCharStream.NULL_CHAR;
+	private static final char TERMINATOR = '\n';
+
+	private final CharBufferInputHandler handler;
+	private final CharBuffer text;
+	private final LineStartIndex lines;
+	private final int length;			// number of chars in text
+	private final int end;				// offset of end of input: length, or length+1 if the last terminator is supplied
+	private int offset;
+
+	public CharCursor(CharBufferInputHandler input) {
+		this.handler = input;
+		this.text = input.text();
+		this.lines = new LineStartIndex(input.fileName(), text);
+		this.length = text.limit();
+		this.end = needsFinalTerminator() ? length + 1 : length;
+		this.offset = 0;
+	}
+	private CharCursor(CharBufferInputHandler input, LineStartIndex lines) {
+		this.handler = input;
+		this.text = input.text();
+		this.lines = lines;
+		this.length = text.limit();
+		this.end = needsFinalTerminator() ? length + 1 : length;
+		this.offset = 0;
+	}
+	private CharCursor(CharCursor whole, int start, int end) {
+		this.handler = whole.handler;
+		this.text = whole.text;
+		this.lines = whole.lines;
+		this.length = whole.length;
+		this.end = end;
+		this.offset = start;
+	}
+	private boolean needsFinalTerminator() {
+		return length > 0 && !isTerminatorChar(text.get(length - 1));
+	}
+
+	/** Makes a cursor on the same text that starts at <code>start</code> and reaches the
+	 *  end of input at <code>end</code>.  Offsets and locations are those of this cursor.
+	 *  Both must be offsets at which a line starts (or the end of this cursor's input).
+	 */
+	public CharCursor region(int start, int end) {
+		assert 0 <= start && start <= end;
+		return new CharCursor(this, start, Math.min(end, this.end));
+	}
+	/** Makes a cursor on the input that results from replacing <code>removedLength</code>
+	 *  characters at <code>offset</code> with <code>inserted</code>.  The input and the
+	 *  line index are edited in place (see CharBufferInputHandler.edited), so this cursor,
+	 *  and the locations of offsets in its text, must no longer be used: editing it again
+	 *  throws an IllegalStateException.
+	 */
+	public CharCursor edited(int offset, int removedLength, CharSequence inserted) {
+		CharBufferInputHandler input = handler.edited(offset, removedLength, inserted);
+		lines.edit(offset, removedLength, inserted.length(), input.text());
+		return new CharCursor(input, lines);
+	}
+	/** @return the offset of the start of the line after the one containing the given offset,
+	 *  or the end of input if there is none.
+	 */
+	public int startOfNextLine(int offset) {
+		while(offset < length && !isTerminatorChar(text.get(offset))) {
+			offset++;
+		}
+		return offsetAfter(offset);
+	}
+	/** @return the offset of the end of input. */
+	public int endOffset() {
+		return end;
+	}
+
+
+	//////////////////////////////////////////////////////////////////////////////
+	// reading
+
+	/** @return the offset of the character that <code>next()</code> will return. */
+	public int offset() {
+		return offset;
+	}
+	/** @return true if a character (other than END_OF_INPUT) remains. */
+	public boolean hasNext() {
+		return offset < end;
+	}
+	/** @return the current character, and move past it. */
+	public char next() {
+		char result = charAt(offset);
+		offset = offsetAfter(offset);
+		return result;
+	}
+	/** @return the current character, without moving past it. */
+	public char peek() {
+		return charAt(offset);
+	}
+	/** @return the character k characters past the current one (peek(0) is peek()), without moving. */
+	public char peek(int k) {
+		int lookahead = offset;
+		for(int i=0; i<k; i++) {
+			lookahead = offsetAfter(lookahead);
+		}
+		return charAt(lookahead);
+	}
+	/** Pushback: move back to an offset previously returned by <code>offset()</code>. */
+	public void reset(int offset) {
+		assert offset <= end;
+		this.offset = offset;
+	}
+
+	/** @return true if the given offset is at (or past) the end of input. */
+	public boolean isEndOfInput(int offset) {
+		return offset >= end;
+	}
+	/** @return the untranslated input text, in which offsets index directly. */
+	public CharSequence text() {
+		return text;
+	}
+	/** @return the text from offset <code>start</code> up to (not including) offset <code>end</code>.
+	 *  Line terminators are not translated, so use this only for text within a line.
+	 */
+	public String lexeme(int start, int end) {
+		end = Math.min(end, length);
+		if(text.hasArray()) {
+			return new String(text.array(), text.arrayOffset() + start, end - start);
+		}
+		return text.subSequence(start, end).toString();
+	}
+
+
+	//////////////////////////////////////////////////////////////////////////////
+	// translation of offsets to chars.  These depend only on the offset, so that
+	// reset() needs no more than an assignment.
+
+	private char charAt(int offset) {
+		if(offset >= end) {
+			return END_OF_INPUT;
+		}
+		if(offset < length) {
+			char c = text.get(offset);
+			return c == '\r' ? TERMINATOR : c;
+		}
+		return TERMINATOR;
+	}
+	private int offsetAfter(int offset) {
+		if(offset >= end) {
+			return offset;
+		}
+		if(offset < length) {
+			return isCarriageReturnLinefeed(offset) ? offset + 2 : offset + 1;
+		}
+		return end;
+	}
+	private boolean isCarriageReturnLinefeed(int offset) {
+		return text.get(offset) == '\r' && offset+1 < length && text.get(offset+1) == '\n';
+	}
+	private static boolean isTerminatorChar(char c) {
+		return c == '\n' || c == '\r';
+	}
+
+
+	//////////////////////////////////////////////////////////////////////////////
+	// locations
+
+	/** @return the input this cursor reads. */
+	public CharBufferInputHandler inputHandler() {
+		return handler;
+	}
+	/** @return the locator for offsets of this cursor. */
+	public TextLocator locator() {
+		return lines;
+	}
+	/** Makes the TextLocation of the character at the given offset.
+	 * @return the location, or the location of LocatedCharStream.FLAG_END_OF_INPUT
+	 *  if the offset is at the end of input.
+	 */
+	public TextLocation locationOf(int offset) {
+		if(isEndOfInput(offset)) {
+			return LocatedCharStream.FLAG_END_OF_INPUT.getLocation();
+		}
+		return lines.locate(offset);
+	}
+
+	/** Adapter for code that wants a LocatedChar.  This allocates.
+	 * @return the character at the given offset, with its location.
+	 */
+	public LocatedChar locatedCharAt(int offset) {
+		if(isEndOfInput(offset)) {
+			return LocatedCharStream.FLAG_END_OF_INPUT;
+		}
+		return new LocatedChar(charAt(offset), locationOf(offset));
+	}
+}
@@ -0,0 +1,94 @@
+package inputHandler;
+
+import java.nio.CharBuffer;
+
+/** The text of an input that is being edited, held in a gap buffer.
+ *  <p>
+ *  The characters are kept in one array with a gap in it, at the place of the last edit.
+ *  An edit moves the gap to its offset, copying only the characters between the two
+ *  edits, and then removes characters by widening the gap and inserts them by filling
+ *  it.  So a run of edits near one another costs about the size of the edits, however
+ *  long the text.
+ */
+class GapText implements CharSequence {
+	private static final int MINIMUM_GAP = 64;
+
+	private char[] chars;
+	private int gapStart;
+	private int gapEnd;
+
+	GapText(CharBuffer text) {
+		int length = text.limit();
+		chars = new char[length + MINIMUM_GAP];
+		text.duplicate().get(chars, 0, length);
+		gapStart = length;
+		gapEnd = chars.length;
+	}
+
+	/** Replaces the <code>removedLength</code> characters at <code>offset</code> with <code>inserted</code>. */
+	void replace(int offset, int removedLength, CharSequence inserted) {
+		assert 0 <= offset && 0 <= removedLength && offset + removedLength <= length();
+		moveGap(offset);
+		gapEnd += removedLength;
+		int insertedLength = inserted.length();
+		if(gapEnd - gapStart < insertedLength) {
+			grow(insertedLength);
+		}
+		for(int i = 0; i < insertedLength; i++) {
+			chars[gapStart++] = inserted.charAt(i);
+		}
+	}
+	private void moveGap(int offset) {
+		if(offset < gapStart) {
+			int count = gapStart - offset;
+			System.arraycopy(chars, offset, chars, gapEnd - count, count);
+			gapStart -= count;
+			gapEnd -= count;
+		}
+		else if(offset > gapStart) {
+			int count = offset - gapStart;
+			System.arraycopy(chars, gapEnd, chars, gapStart, count);
+			gapStart += count;
+			gapEnd += count;
+		}
+	}
+	// makes the gap at least minimumGap long, keeping the array at most about twice the text.
+	private void grow(int minimumGap) {
+		int length = length();
+		int tailLength = chars.length - gapEnd;
+		char[] grown = new char[Math.max(2 * chars.length, length + minimumGap + MINIMUM_GAP)];
+		System.arraycopy(chars, 0, grown, 0, gapStart);
+		System.arraycopy(chars, gapEnd, grown, grown.length - tailLength, tailLength);
+		chars = grown;
+		gapEnd = grown.length - tailLength;
+	}
+
+	@Override
+	public int length() {
+		return chars.length - (gapEnd - gapStart);
+	}
+	@Override
+	public char charAt(int index) {
+		return index < gapStart ? chars[index] : chars[index + gapEnd - gapStart];
+	}
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		return toString(start, end);
+	}
+	@Override
+	public String toString() {
+		return toString(0, length());
+	}
+	private String toString(int start, int end) {
+		if(end <= gapStart) {
+			return new String(chars, start, end - start);
+		}
+		if(start >= gapStart) {
+			return new String(chars, start + gapEnd - gapStart, end - start);
+		}
+		StringBuilder result = new StringBuilder(end - start);
+		result.append(chars, start, gapStart - start);
+		result.append(chars, gapEnd, end - gapStart);
+		return result.toString();
+	}
+}
@@ -1,9 +1,12 @@
 package inputHandler;
 
+import java.io.Reader;
 import java.util.Iterator;
 
 /** A line-based file reader that knows the filename and line number.
- *  Use one of the factories <code>fromFilename(...)</code> to construct.
+ *  Use one of the factories <code>fromFilename(...)</code>,
+ *  <code>fromMappedFile(...)</code>, <code>fromCharSequence(...)</code>, or
+ *  <code>fromReader(...)</code> to construct.
  *  <p>
  *  The lines returned by its iterator have their original line terminator
  *  replaced by the terminator given to the factory (or the default of "\n"
@@ -11,27 +14,27 @@ import java.util.Iterator;
  *  <p>
  *  Although InputHandler is an Iterable on String, it permits only
  *  one Iterator.  The current line number of the InputHandler is the
- *  line number of the corresponding Iterator, if any. 
+ *  line number of the corresponding Iterator, if any.
  *
  */
 public class InputHandler implements Iterable<String> {
 	private static final String DEFAULT_TERMINATOR = "\n";
-	
+
 	protected int lineNumber = 0;
 	private boolean iteratorIssued = false;
 	protected String filename;
 	protected String terminator;
-	
-	
-	private InputHandler(String filename, String terminator) {
+
+
+	protected InputHandler(String filename, String terminator) {
 		this.filename = filename;
 		this.terminator = terminator;
 	}
-	private InputHandler(String filename) {
+	protected InputHandler(String filename) {
 		this(filename, DEFAULT_TERMINATOR);
 	}
 
-	
+
 	/** Get the file name.
 	 * @return the filename that was passed to the constructor.
 	 * This may be a relative or absolute file name.
@@ -47,13 +50,30 @@ public class InputHandler implements Iterable<String> {
 	public int lineNumber() {
 		return lineNumber;
 	}
+	/** Get the line terminator.
+	 * @return the terminator that replaces each line's original terminator.
+	 */
+	public String terminator() {
+		return terminator;
+	}
 
 
 	@Override
 	public Iterator<String> iterator() {
 		ensureSingleIterator();
-		
-		return new HandlerIterator(filename);
+
+		return new HandlerIterator(openLines());
+	}
+	/** An alternative to <code>iterator()</code> that returns each line WITHOUT
+	 *  its terminator, so that no new string has to be made for the line.
+	 *  The caller is responsible for supplying <code>terminator()</code> after each line.
+	 *  A line returned may be reused for the next line, so it is valid only until the next call to <code>next()</code>.
+	 *  Counts as the one iterator permitted on this InputHandler.
+	 */
+	public Iterator<CharSequence> lineIterator() {
+		ensureSingleIterator();
+
+		return new UnterminatedLineIterator(openLines());
 	}
 	private void ensureSingleIterator() {
 		if(iteratorIssued) {
@@ -61,28 +81,100 @@ public class InputHandler implements Iterable<String> {
 		}
 		iteratorIssued = true;
 	}
-	
 
-	protected class HandlerIterator extends LineBasedReader {
-		public HandlerIterator(String filename) {
-			super(filename);
+	/** Source of the lines (without terminators) of the input.
+	 *  Subclasses that do not read the input line-by-line from a file override this.
+	 */
+	protected Iterator<? extends CharSequence> openLines() {
+		return new LineBasedReader(filename);
+	}
+
+
+	protected class HandlerIterator implements Iterator<String> {
+		private Iterator<? extends CharSequence> lines;
+
+		public HandlerIterator(Iterator<? extends CharSequence> lines) {
+			this.lines = lines;
 		}
 
+		@Override
+		public boolean hasNext() {
+			return lines.hasNext();
+		}
 		@Override
 		public String next() {
 			lineNumber++;
-			return super.next() + terminator;
+			return lines.next() + terminator;
+		}
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	protected class UnterminatedLineIterator implements Iterator<CharSequence> {
+		private Iterator<? extends CharSequence> lines;
+
+		public UnterminatedLineIterator(Iterator<? extends CharSequence> lines) {
+			this.lines = lines;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return lines.hasNext();
+		}
+		@Override
+		public CharSequence next() {
+			lineNumber++;
+			return lines.next();
+		}
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
 		}
 	}
 
 
 //////////////////////////////////////////////////////////////////////////////
 // factories
-	
+
 	public static InputHandler fromFilename(String filename, String terminator) {
 		return new InputHandler(filename, terminator);
 	}
 	public static InputHandler fromFilename(String filename) {
 		return fromFilename(filename, DEFAULT_TERMINATOR);
 	}
+
+	/** Makes an InputHandler that memory-maps the file and decodes it once into a
+	 *  CharBuffer.  Lines are views on that buffer rather than copies of it.
+	 *  Throws an IllegalArgumentException if the file cannot be read.
+	 */
+	public static CharBufferInputHandler fromMappedFile(String filename, String terminator) {
+		return CharBufferInputHandler.fromMappedFile(filename, terminator);
+	}
+	public static CharBufferInputHandler fromMappedFile(String filename) {
+		return fromMappedFile(filename, DEFAULT_TERMINATOR);
+	}
+
+	/** Makes an InputHandler on text that is already in memory, such as a generated program.
+	 *  No file is read.
+	 * @param name the name to use as the filename of the text (in locations, for instance).
+	 */
+	public static CharBufferInputHandler fromCharSequence(String name, CharSequence text, String terminator) {
+		return CharBufferInputHandler.fromCharSequence(name, text, terminator);
+	}
+	public static CharBufferInputHandler fromCharSequence(String name, CharSequence text) {
+		return fromCharSequence(name, text, DEFAULT_TERMINATOR);
+	}
+	/** Makes an InputHandler on all the text of a Reader (standard input, for instance).
+	 *  The reader is read to its end but not closed.
+	 *  Throws an IllegalArgumentException if the reader cannot be read.
+	 * @param name the name to use as the filename of the text (in locations, for instance).
+	 */
+	public static CharBufferInputHandler fromReader(String name, Reader reader, String terminator) {
+		return CharBufferInputHandler.fromReader(name, reader, terminator);
+	}
+	public static CharBufferInputHandler fromReader(String name, Reader reader) {
+		return fromReader(name, reader, DEFAULT_TERMINATOR);
+	}
 }
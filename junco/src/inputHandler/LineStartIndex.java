@@ -0,0 +1,147 @@
+package inputHandler;
+
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+/** The offsets at which the lines of a file's text start, for converting a text offset
+ *  to a line number and position by binary search.
+ *  <p>
+ *  The index is built once, as far into the text as it has been asked about, so a
+ *  file that needs no locations costs no more than the empty index.  Line terminators
+ *  are recognized exactly as <code>BufferedReader.readLine()</code> recognizes them
+ *  ("\n", "\r", or "\r\n"), so lines agree with those of the file-based InputHandler.
+ *  <p>
+ *  An edit of the text (see CharCursor.edited) is applied to the index in place.  The
+ *  line starts are kept in an array with a gap in it, at the place of the last edit; the
+ *  starts after the gap are kept as their distance back from the end of the text, so
+ *  that a change in the text's length moves all of them at once.  So an edit costs about
+ *  the number of line starts it touches and the number between it and the edit before.
+ */
+public class LineStartIndex implements TextLocator {
+	private static final int STARTING_SIZE = 64;
+
+	private final String filename;
+	private CharBuffer text;
+	private int length;			// of text
+	private int[] lineStarts;	// those before the gap, then (at the end of the array) those after it less length
+	private int numLines;
+	private int gapStart;		// number of line starts before the gap
+	private int indexedTo;		// every line start at or before this offset is in lineStarts.
+
+	public LineStartIndex(String filename, CharBuffer text) {
+		this.filename = filename;
+		this.text = text;
+		this.length = text.limit();
+		this.lineStarts = new int[STARTING_SIZE];
+		this.numLines = 0;
+		this.gapStart = 0;
+		this.indexedTo = 0;
+		addLineStart(0);
+	}
+
+	public String getFilename() {
+		return filename;
+	}
+
+	/** @return the location (one-based line number, zero-based position) of the given offset.
+	 *  Synchronized because the index grows as it is used, and the cursors of a parallel
+	 *  scan share it.
+	 */
+	@Override
+	public synchronized TextLocation locate(int offset) {
+		indexTo(offset);
+		int line = lineContaining(offset);
+		return new TextLocation(filename, line + 1, offset - lineStart(line));
+	}
+
+	/** Makes the index that of the text after an edit replacing <code>removedLength</code>
+	 *  characters at <code>offset</code> with <code>insertedLength</code> characters.
+	 * @param newText the edited text.  The first edit indexes the rest of the old text,
+	 *  which must then still be as it was.
+	 */
+	public synchronized void edit(int offset, int removedLength, int insertedLength, CharBuffer newText) {
+		indexTo(length);
+		int from = Math.max(offset, 1);			// the start at 0 is never removed
+		moveGap(firstLineAtOrAfter(from));
+		while(gapStart < numLines && lineStart(gapStart) <= offset + removedLength) {
+			numLines--;
+		}
+		text = newText;
+		length = newText.limit();
+		for(int start = from; start <= offset + insertedLength; start++) {
+			if(isLineStart(start)) {
+				addLineStart(start);
+			}
+		}
+		indexedTo = length;
+	}
+
+	// the largest line whose start is at or before offset.
+	private int lineContaining(int offset) {
+		int tailLength = numLines - gapStart;
+		if(tailLength == 0 || offset < lineStart(gapStart)) {
+			int index = Arrays.binarySearch(lineStarts, 0, gapStart, offset);
+			return index >= 0 ? index : -index - 2;
+		}
+		int tailStart = lineStarts.length - tailLength;
+		int index = Arrays.binarySearch(lineStarts, tailStart, lineStarts.length, offset - length);
+		return gapStart - tailStart + (index >= 0 ? index : -index - 2);
+	}
+	// the smallest line whose start is at or after offset, or numLines if there is none.
+	private int firstLineAtOrAfter(int offset) {
+		int line = lineContaining(offset);
+		return lineStart(line) == offset ? line : line + 1;
+	}
+	private int lineStart(int line) {
+		if(line < gapStart) {
+			return lineStarts[line];
+		}
+		return lineStarts[line + lineStarts.length - numLines] + length;
+	}
+
+	private void indexTo(int offset) {
+		while(indexedTo < offset && indexedTo < length) {
+			char c = text.get(indexedTo++);
+			if(c == '\r' && indexedTo < length && text.get(indexedTo) == '\n') {
+				indexedTo++;
+			}
+			if(c == '\r' || c == '\n') {
+				addLineStart(indexedTo);
+			}
+		}
+	}
+	// true if a line starts at offset, which is in (0, length].
+	private boolean isLineStart(int offset) {
+		char previous = text.get(offset - 1);
+		return previous == '\n' || previous == '\r' && (offset == length || text.get(offset) != '\n');
+	}
+
+	// adds a start at the gap: after those before it, and before those after it.
+	private void addLineStart(int offset) {
+		if(numLines == lineStarts.length) {
+			int tailLength = numLines - gapStart;
+			int[] grown = Arrays.copyOf(lineStarts, 2*numLines);
+			System.arraycopy(lineStarts, gapStart, grown, grown.length - tailLength, tailLength);
+			lineStarts = grown;
+		}
+		lineStarts[gapStart++] = offset;
+		numLines++;
+	}
+	// puts the gap just before line, converting the starts that cross it.
+	private void moveGap(int line) {
+		int gapLength = lineStarts.length - numLines;
+		if(line < gapStart) {
+			System.arraycopy(lineStarts, line, lineStarts, line + gapLength, gapStart - line);
+			for(int i = line + gapLength; i < gapStart + gapLength; i++) {
+				lineStarts[i] -= length;
+			}
+		}
+		else {
+			System.arraycopy(lineStarts, gapStart + gapLength, lineStarts, gapStart, line - gapStart);
+			for(int i = gapStart; i < line; i++) {
+				lineStarts[i] += length;
+			}
+		}
+		gapStart = line;
+	}
+}
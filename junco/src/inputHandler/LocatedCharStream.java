@@ -10,8 +10,10 @@ public class LocatedCharStream implements Iterator<LocatedChar> {
 	public static final LocatedChar FLAG_END_OF_INPUT = new LocatedChar(NULL_CHAR, new TextLocation("null", -1, -1));
 
 	
-	private Iterator<String> inputIterator;
-	private String line;
+	// lines come without terminators; the terminator is walked as if it ended each line.
+	private Iterator<CharSequence> inputIterator;
+	private CharSequence line;
+	private String terminator;
 	private int index;
 
 	private LocatedChar next;
@@ -21,9 +23,10 @@ public class LocatedCharStream implements Iterator<LocatedChar> {
 	public LocatedCharStream(InputHandler input) {
 		super();
 		this.input = input;
-		this.inputIterator = input.iterator();
+		this.inputIterator = input.lineIterator();
+		this.terminator = input.terminator();
 		this.index = 0;
-		this.line = "";
+		this.line = null;
 		preloadChar();
 	}
 	
@@ -37,9 +40,15 @@ public class LocatedCharStream implements Iterator<LocatedChar> {
 		}
 		
 		TextLocation location = new TextLocation(input.fileName(), input.lineNumber(), index);
-		char character = line.charAt(index++);
+		char character = charInLine(index++);
 		return new LocatedChar(character, location);
 	}
+	private char charInLine(int index) {
+		if(index < line.length()) {
+			return line.charAt(index);
+		}
+		return terminator.charAt(index - line.length());
+	}
 	private void ensureLineHasACharacter() {
 		while(!moreCharsInLine() && inputIterator.hasNext()) {
 			readNextLine();
@@ -49,7 +58,7 @@ public class LocatedCharStream implements Iterator<LocatedChar> {
 		return !moreCharsInLine() && !inputIterator.hasNext();
 	}
 	private boolean moreCharsInLine() {
-		return index < line.length();
+		return line != null && index < line.length() + terminator.length();
 	}
 	private void readNextLine() {
 		assert(inputIterator.hasNext());
@@ -1,37 +1,74 @@
 package inputHandler;
 
-import java.util.Stack;
-
+/** A LocatedCharStream that can push characters back and look ahead.
+ *  <p>
+ *  Pushed-back and looked-ahead characters are held in a fixed-capacity ring buffer
+ *  (unsynchronized, unlike the Stack it replaces), with the next character to be read
+ *  at its head.  pushback() adds at the head, lookahead adds at the tail.
+ */
 public class PushbackCharStream extends LocatedCharStream {
-	private Stack<LocatedChar> pushedBack;
+	public static final int CAPACITY = 16;
+	
+	private LocatedChar[] buffer;
+	private int head;			// index of the next char in buffer
+	private int count;			// number of chars in buffer
 	
 	public PushbackCharStream(InputHandler handler) {
 		super(handler);
-		this.pushedBack = new Stack<LocatedChar>();
+		this.buffer = new LocatedChar[CAPACITY];
+		this.head = 0;
+		this.count = 0;
 	}
 
 	@Override
 	public boolean hasNext() {
-		return !pushedBack.empty() || super.hasNext();
+		return count > 0 || super.hasNext();
 	}
 
 	@Override
 	public LocatedChar next() {
-		if(pushedBack.empty()) {
+		if(count == 0) {
 			return super.next();
 		}
 		else {
-			return pushedBack.pop();
+			LocatedChar result = buffer[head];
+			buffer[head] = null;
+			head = wrap(head + 1);
+			count--;
+			return result;
 		}
 	}
+	/** Look at the next character without reading it. */
 	public LocatedChar peek() {
-		LocatedChar result = next();
-		pushback(result);
-		return result;
+		return peek(0);
+	}
+	/** Look at a character ahead without reading it.
+	 * @param k the number of characters to look past: peek(0) is the next character.
+	 *  k must be less than CAPACITY.
+	 */
+	public LocatedChar peek(int k) {
+		while(count <= k) {
+			ensureRoom();
+			buffer[wrap(head + count)] = super.next();
+			count++;
+		}
+		return buffer[wrap(head + k)];
 	}
 
 	public void pushback(LocatedChar locatedChar) {
-		pushedBack.push(locatedChar);
+		ensureRoom();
+		head = wrap(head - 1);
+		buffer[head] = locatedChar;
+		count++;
+	}
+	
+	private void ensureRoom() {
+		if(count == CAPACITY) {
+			throw new IllegalStateException("PushbackCharStream holds at most " + CAPACITY + " characters.");
+		}
+	}
+	private int wrap(int index) {
+		return (index + CAPACITY) % CAPACITY;
 	}
 
 	/**
@@ -1,7 +1,7 @@
 package inputHandler;
 
 // value object for specifying the location of a lexeme or other piece of text
-public class TextLocation {
+public class TextLocation implements TextLocator {
 	private String filename;
 	private int lineNumber;
 	private int position;
@@ -25,6 +25,12 @@ public class TextLocation {
 		return position;
 	}
 	
+	// a TextLocation locates every offset at itself.
+	@Override
+	public TextLocation locate(int offset) {
+		return this;
+	}
+	
 	public String toString() {
 		return "(" + rawString() + ")";
 	}
@@ -56,4 +62,4 @@ public class TextLocation {
 			return "(no location)";
 		}
 	}
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,12 @@
+package inputHandler;
+
+/** Something that can say where in the source text an offset is.
+ *  <p>
+ *  A token keeps a TextLocator and an int offset rather than a TextLocation,
+ *  so that the TextLocation is made only if someone asks for it (usually to
+ *  report an error).  A TextLocation is itself a TextLocator that ignores the
+ *  offset, for tokens that were given a location rather than an offset.
+ */
+public interface TextLocator {
+	public TextLocation locate(int offset);
+}
@@ -0,0 +1,53 @@
+package inputHandler.tests;
+
+import static inputHandler.tests.FixtureDefinitions.*;
+
+import inputHandler.InputHandler;
+import inputHandler.LocatedCharStream;
+
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+public class TestCharBufferInputHandler extends TestInputHandler {
+	@Override
+	protected InputHandler factory(String filename, String terminator) {
+		return InputHandler.fromMappedFile(filename, terminator);
+	}
+
+
+	public void testLocatedCharsMatchFileReader() {
+		locatedCharsMatch("\n");
+	}
+	public void testLocatedCharsMatchFileReaderOtherTerminator() {
+		locatedCharsMatch("aa");
+	}
+
+	public void testCharSequenceMatchesFileReader() throws Exception {
+		String text = fixtureText();
+		locatedCharsMatch(InputHandler.fromCharSequence(SIMPLE_FIXTURE_FILENAME, text, "\n"), "\n");
+	}
+	public void testReaderMatchesFileReader() throws Exception {
+		StringReader reader = new StringReader(fixtureText());
+		locatedCharsMatch(InputHandler.fromReader(SIMPLE_FIXTURE_FILENAME, reader, "\n"), "\n");
+	}
+	private String fixtureText() throws Exception {
+		byte[] bytes = Files.readAllBytes(Paths.get(SIMPLE_FIXTURE_FILENAME));
+		return new String(bytes, Charset.defaultCharset());
+	}
+
+	private void locatedCharsMatch(String terminator) {
+		locatedCharsMatch(factory(SIMPLE_FIXTURE_FILENAME, terminator), terminator);
+	}
+	private void locatedCharsMatch(InputHandler handler, String terminator) {
+		LocatedCharStream expected = new LocatedCharStream(InputHandler.fromFilename(SIMPLE_FIXTURE_FILENAME, terminator));
+		LocatedCharStream actual   = new LocatedCharStream(handler);
+
+		while(expected.hasNext()) {
+			assertTrue(actual.hasNext());
+			assertEquals(expected.next().toString(), actual.next().toString());
+		}
+		assertFalse(actual.hasNext());
+	}
+}
@@ -0,0 +1,51 @@
+package inputHandler.tests;
+
+import static inputHandler.tests.FixtureDefinitions.*;
+
+import inputHandler.CharBufferInputHandler;
+import inputHandler.CharCursor;
+import inputHandler.InputHandler;
+import inputHandler.LocatedChar;
+import inputHandler.LocatedCharStream;
+import junit.framework.TestCase;
+
+public class TestCharCursor extends TestCase {
+	protected CharCursor factory(String filename) {
+		return new CharCursor(CharBufferInputHandler.fromMappedFile(filename, "\n"));
+	}
+	
+	
+	public void testCharsAndLocationsMatchLocatedCharStream() {
+		LocatedCharStream expected = new LocatedCharStream(InputHandler.fromFilename(SIMPLE_FIXTURE_FILENAME, "\n"));
+		CharCursor cursor = factory(SIMPLE_FIXTURE_FILENAME);
+		
+		while(expected.hasNext()) {
+			assertTrue(cursor.hasNext());
+			LocatedChar lc = expected.next();
+			int offset = cursor.offset();
+			assertEquals(lc.getCharacter().charValue(), cursor.next());
+			assertEquals(lc.getLocation().toString(), cursor.locationOf(offset).toString());
+		}
+		assertFalse(cursor.hasNext());
+		assertEquals(CharCursor.END_OF_INPUT, cursor.next());
+		assertEquals(CharCursor.END_OF_INPUT, cursor.peek());
+	}
+	
+	public void testResetPushesBack() {
+		CharCursor cursor = factory(SIMPLE_FIXTURE_FILENAME);
+		String first = simpleFixtureStrings[0];
+		
+		int start = cursor.offset();
+		for(int i=0; i<first.length(); i++) {
+			assertEquals(first.charAt(i), cursor.next());
+		}
+		assertEquals('\n', cursor.peek());
+		assertEquals('\n', cursor.peek(1));		// the second line is empty
+		assertEquals(simpleFixtureStrings[2].charAt(0), cursor.peek(2));
+		assertEquals(first, cursor.lexeme(start, cursor.offset()));
+		
+		cursor.reset(start + 1);
+		assertEquals(first.charAt(1), cursor.next());
+		assertEquals("(" + SIMPLE_FIXTURE_FILENAME + " line 1, character 1)", cursor.locationOf(start+1).toString());
+	}
+}
@@ -0,0 +1,79 @@
+package inputHandler.tests;
+
+import java.nio.CharBuffer;
+import java.util.Random;
+
+import inputHandler.LineStartIndex;
+import junit.framework.TestCase;
+
+public class TestLineStartIndex extends TestCase {
+	private static final String FILENAME = "text";
+	private static final String TEXT = "ab\ncd\r\nef\rg\n\nh";
+	
+	protected LineStartIndex factory(String text) {
+		return new LineStartIndex(FILENAME, CharBuffer.wrap(text));
+	}
+	
+	public void testLocateInOrder() {
+		LineStartIndex index = factory(TEXT);
+		for(int offset=0; offset<TEXT.length(); offset++) {
+			if(isLinefeedOfCarriageReturnLinefeed(TEXT, offset)) {
+				continue;
+			}
+			assertEquals(expectedLocation(TEXT, offset), index.locate(offset).toString());
+		}
+	}
+	public void testLocateOutOfOrder() {
+		LineStartIndex index = factory(TEXT);
+		for(int offset=TEXT.length()-1; offset>=0; offset--) {
+			if(isLinefeedOfCarriageReturnLinefeed(TEXT, offset)) {
+				continue;
+			}
+			assertEquals(expectedLocation(TEXT, offset), index.locate(offset).toString());
+		}
+	}
+	public void testLocateEndOfText() {
+		assertEquals("(" + FILENAME + " line 6, character 1)", factory(TEXT).locate(TEXT.length()).toString());
+	}
+	
+	public void testEdits() {
+		Random random = new Random(6);
+		String[] pieces = { "a", "\n", "\r", "\r\n", "bc" };
+		String text = TEXT;
+		LineStartIndex index = factory(text);
+		index.locate(2);
+		for(int edit=0; edit<500; edit++) {
+			int offset = random.nextInt(text.length() + 1);
+			int removedLength = random.nextInt(Math.min(4, text.length() - offset) + 1);
+			String inserted = random.nextBoolean() ? "" : pieces[random.nextInt(pieces.length)];
+			text = text.substring(0, offset) + inserted + text.substring(offset + removedLength);
+			index.edit(offset, removedLength, inserted.length(), CharBuffer.wrap(text));
+			for(int i=0; i<=text.length(); i++) {
+				if(!isLinefeedOfCarriageReturnLinefeed(text, i)) {
+					assertEquals(text, expectedLocation(text, i), index.locate(i).toString());
+				}
+			}
+		}
+	}
+	
+	// the '\n' of "\r\n" is part of a terminator, not a character with a location.
+	private boolean isLinefeedOfCarriageReturnLinefeed(String text, int offset) {
+		return offset > 0 && offset < text.length() && text.charAt(offset-1) == '\r' && text.charAt(offset) == '\n';
+	}
+	// counts lines the way BufferedReader.readLine does.
+	private String expectedLocation(String text, int offset) {
+		int line = 1;
+		int lineStart = 0;
+		for(int i=0; i<offset; i++) {
+			char c = text.charAt(i);
+			if(c == '\r' && i+1 < text.length() && text.charAt(i+1) == '\n') {
+				i++;
+			}
+			if(c == '\r' || c == '\n') {
+				line++;
+				lineStart = i+1;
+			}
+		}
+		return "(" + FILENAME + " line " + line + ", character " + (offset - lineStart) + ")";
+	}
+}
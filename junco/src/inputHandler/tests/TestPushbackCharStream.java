@@ -0,0 +1,58 @@
+package inputHandler.tests;
+
+import static inputHandler.tests.FixtureDefinitions.*;
+
+import inputHandler.InputHandler;
+import inputHandler.LocatedChar;
+import inputHandler.PushbackCharStream;
+import junit.framework.TestCase;
+
+public class TestPushbackCharStream extends TestCase {
+	protected PushbackCharStream factory(String filename) {
+		return PushbackCharStream.make(InputHandler.fromFilename(filename, "\n"));
+	}
+	
+	
+	public void testPeekDoesNotConsume() {
+		PushbackCharStream stream = factory(SIMPLE_FIXTURE_FILENAME);
+		String first = simpleFixtureStrings[0];
+		
+		for(int k=0; k<first.length(); k++) {
+			assertEquals(first.charAt(k), stream.peek(k).getCharacter().charValue());
+		}
+		assertEquals(first.charAt(0), stream.peek().getCharacter().charValue());
+		for(int i=0; i<first.length(); i++) {
+			assertEquals(first.charAt(i), stream.next().getCharacter().charValue());
+		}
+		assertEquals('\n', stream.next().getCharacter().charValue());
+	}
+	
+	public void testPushbackIsLastInFirstOut() {
+		PushbackCharStream stream = factory(SIMPLE_FIXTURE_FILENAME);
+		LocatedChar h = stream.next();
+		LocatedChar e = stream.next();
+		stream.peek(2);
+		stream.pushback(e);
+		stream.pushback(h);
+		
+		String first = simpleFixtureStrings[0];
+		for(int i=0; i<first.length(); i++) {
+			assertEquals(first.charAt(i), stream.next().getCharacter().charValue());
+		}
+	}
+	
+	public void testCapacityIsEnforced() {
+		PushbackCharStream stream = factory(SIMPLE_FIXTURE_FILENAME);
+		LocatedChar c = stream.next();
+		for(int i=0; i<PushbackCharStream.CAPACITY; i++) {
+			stream.pushback(c);
+		}
+		try {
+			stream.pushback(c);
+			fail();
+		}
+		catch(IllegalStateException e) {
+			// expected
+		}
+	}
+}
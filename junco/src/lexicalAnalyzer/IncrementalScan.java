@@ -0,0 +1,105 @@
+package lexicalAnalyzer;
+
+import inputHandler.CharCursor;
+
+/** The tokens of a text after an edit, found by rescanning only the lines the edit touched.
+ *  <p>
+ *  No token or comment spans a line terminator, so the tokens of a line depend only on
+ *  that line.  An edit replacing <code>removedLength</code> characters at <code>offset</code>
+ *  is rescanned from the start of the line containing the character before <code>offset</code>
+ *  (so that a line terminator split or joined by the edit is seen whole) to the start of the
+ *  first line that begins after the inserted text.  The tokens from there on are those
+ *  of the previous scan, moved by the change in length.
+ *  <p>
+ *  The previous tokens [firstChangedToken(), endOfRemovedTokens()) are replaced by the
+ *  new tokens [firstChangedToken(), endOfInsertedTokens()).
+ *  <p>
+ *  The edit is made in place, in the text, the line index and the token buffer of the
+ *  previous scan (see TokenBuffer), so that it costs about the size of the lines it
+ *  touches rather than that of the text.  The previous tokens, and their cursor, are
+ *  taken over by the result: using them again throws an IllegalStateException.
+ */
+public class IncrementalScan {
+	private final TokenBuffer tokens;
+	private final int firstChangedToken;
+	private final int endOfRemovedTokens;
+	private final int endOfInsertedTokens;
+
+	private IncrementalScan(TokenBuffer tokens, int firstChangedToken, int endOfRemovedTokens, int endOfInsertedTokens) {
+		this.tokens = tokens;
+		this.firstChangedToken = firstChangedToken;
+		this.endOfRemovedTokens = endOfRemovedTokens;
+		this.endOfInsertedTokens = endOfInsertedTokens;
+	}
+
+	/** @return the tokens of the edited text, in the arrays of the previous buffer. */
+	public TokenBuffer tokens() {
+		return tokens;
+	}
+	public int firstChangedToken() {
+		return firstChangedToken;
+	}
+	/** @return the index, in the previous tokens, just past the last token replaced. */
+	public int endOfRemovedTokens() {
+		return endOfRemovedTokens;
+	}
+	/** @return the index, in the new tokens, just past the last token rescanned. */
+	public int endOfInsertedTokens() {
+		return endOfInsertedTokens;
+	}
+
+
+	/** Applies an edit to the text of previous, and finds the tokens of the result.
+	 * @param previous the tokens of the text before the edit.
+	 * @param offset where the edit starts.
+	 * @param removedLength the number of characters the edit removes.
+	 * @param inserted the text the edit puts in their place.
+	 */
+	public static IncrementalScan relex(TokenBuffer previous, int offset, int removedLength, CharSequence inserted) {
+		int oldLength = previous.input().text().length();
+		if(offset < 0 || removedLength < 0 || offset + removedLength > oldLength) {
+			throw new IllegalArgumentException("edit of " + removedLength + " characters at " + offset +
+					" is outside text of length " + oldLength);
+		}
+		CharCursor input = previous.input().edited(offset, removedLength, inserted);
+		CharSequence text = input.text();
+		int shift = inserted.length() - removedLength;
+
+		int restart = startOfLineContaining(text, offset - 1);
+		int resume = input.startOfNextLine(offset + inserted.length());
+		if(previous.endedBeforeEndOfInput()) {
+			int previousEnd = previous.offset(previous.size() - 1);
+			if(previousEnd < restart) {
+				int end = previous.size() - 1;
+				return new IncrementalScan(previous.editedAfterEnd(input), end, end, end);
+			}
+			resume = input.endOffset();
+		}
+
+		int first = previous.indexAtOrAfter(restart);
+		TokenBuffer middle = TokenBuffer.make(new JuncoScanner(input.region(restart, resume)));
+		int previousSize = previous.size();
+		int end;
+		if(middle.endedBeforeEndOfInput() || resume == input.endOffset()) {
+			end = previousSize;
+		}
+		else {
+			end = previous.indexAtOrAfter(resume - shift);
+		}
+		TokenBuffer tokens = previous.replace(input, first, end, middle);
+		int endOfInserted = end == previousSize ? tokens.size() : first + middle.size() - 1;
+		return new IncrementalScan(tokens, first, end, endOfInserted);
+	}
+
+	// the start of the line containing text[offset], or 0 if offset is before the text.
+	private static int startOfLineContaining(CharSequence text, int offset) {
+		int start = Math.max(offset, 0);
+		while(start > 0 && !isTerminatorChar(text.charAt(start - 1))) {
+			start--;
+		}
+		return start;
+	}
+	private static boolean isTerminatorChar(char c) {
+		return c == '\n' || c == '\r';
+	}
+}
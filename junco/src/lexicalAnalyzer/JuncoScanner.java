@@ -1,10 +1,10 @@
 package lexicalAnalyzer;
 
 import logging.JuncoLogger;
+import inputHandler.CharBufferInputHandler;
+import inputHandler.CharCursor;
 import inputHandler.InputHandler;
 import inputHandler.LocatedChar;
-import inputHandler.LocatedCharStream;
-import inputHandler.PushbackCharStream;
 import inputHandler.TextLocation;
 import tokens.CharacterToken;
 import tokens.FloatingToken;
@@ -14,34 +14,61 @@ import tokens.NullToken;
 import tokens.NumberToken;
 import static lexicalAnalyzer.PunctuatorScanningAids.*;
 
+import java.util.concurrent.ForkJoinPool;
+
 public class JuncoScanner extends ScannerImp implements Scanner {
 	public static JuncoScanner make(String filename) {
-		InputHandler handler = InputHandler.fromFilename(filename);
-		PushbackCharStream charStream = PushbackCharStream.make(handler);
-		return new JuncoScanner(charStream);
+		return make(InputHandler.fromMappedFile(filename));
+	}
+	/** Scans text already held in memory (see InputHandler.fromCharSequence and fromReader).
+	 *  The handler's terminator is not used: every line terminator is read as '\n'.
+	 */
+	public static JuncoScanner make(CharBufferInputHandler handler) {
+		return new JuncoScanner(new CharCursor(handler));
 	}
 
-	public JuncoScanner(PushbackCharStream input) {
+	/** Scans the whole of a large input in line-aligned chunks, in parallel on the common
+	 *  fork-join pool.  The tokens and lexical errors are those of a sequential scan.
+	 */
+	public static TokenBuffer scanInParallel(CharBufferInputHandler handler) {
+		return scanInParallel(handler, PARALLEL_CHUNK_LENGTH);
+	}
+	/** @param chunkLength the least number of characters scanned by one task. */
+	public static TokenBuffer scanInParallel(CharBufferInputHandler handler, int chunkLength) {
+		return ForkJoinPool.commonPool().invoke(new ParallelScan(new CharCursor(handler), chunkLength));
+	}
+	private static final int PARALLEL_CHUNK_LENGTH = 1 << 16;
+
+	public JuncoScanner(CharCursor input) {
 		super(input);
 	}
 
 	// ////////////////////////////////////////////////////////////////////////////
 	// Token-finding main dispatch
+	// Characters are plain chars; tokenStart is the offset of ch, the character most recently read.
+	// Each pass of the loop either finds a token and returns, or skips a run of invalid characters.
+
+	private int tokenStart;
 
 	@Override
 	protected void findNextToken() {
-		LocatedChar ch = nextNonWhitespaceChar();
+		while (!findToken()) {
+		}
+	}
+
+	private boolean findToken() {
+		char ch = nextNonWhitespaceChar();
 
 		// deal with comment
-		while (ch.getCharacter() == '*' && input.peek().getCharacter() == '*') {
+		while (ch == '*' && input.peek() == '*') {
 			// eat the second '*'
 			ch = input.next();
 			do {
 				ch = input.next();
 			}
-			while ((ch.getCharacter() != '*' || input.peek().getCharacter() != '*')
-					&& ch.getCharacter() != '\n');
-			if (ch.getCharacter() == '*') {
+			while ((ch != '*' || input.peek() != '*')
+					&& ch != '\n');
+			if (ch == '*') {
 				ch = input.next();
 			}
 			//findNextToken();
@@ -54,38 +81,42 @@ public class JuncoScanner extends ScannerImp implements Scanner {
 		// return
 		// }
 
-		if ((ch.getCharacter() == '-' && input.peek().isDigit()) || ch.isDigit()) {
-			scanNumber(ch);
+		if ((ch == '-' && Character.isDigit(input.peek())) || Character.isDigit(ch)) {
+			if (!scanNumber(tokenStart)) {
+				return false;
+			}
 		}
-		else if (ch.getCharacter() == '\'' && input.peek().getCharacter() >= 32
-				&& input.peek().getCharacter() <= 126) {
+		else if (ch == '\'' && input.peek() >= 32
+				&& input.peek() <= 126) {
+			int charStart = input.offset();
 			ch = input.next();
-			nextToken = CharacterToken.make(ch.getLocation(), ch.getCharacter()
-					.toString());
+			nextToken = CharacterToken.make(input.locator(), charStart, String.valueOf(ch));
 		}
-		else if (ch.isLetter() || ch.getCharacter() == '_'
-				|| ch.getCharacter() == '#') {
-			scanIdentifier(ch);
+		else if (Character.isLetter(ch) || ch == '_'
+				|| ch == '#') {
+			scanIdentifier(tokenStart);
 		}
 		
 		else if (isPunctuatorStart(ch)) {
-			nextToken = PunctuatorScanner.scan(ch, input);
+			nextToken = PunctuatorScanner.scan(tokenStart, input);
 		}
 		
 
-		else if (isEndOfInput(ch)) {
-			nextToken = NullToken.make(ch.getLocation());
+		else if (isEndOfInput(tokenStart)) {
+			nextToken = NullToken.make(input.locationOf(tokenStart));
 		}
 		else {
-			lexicalError(ch);
-			findNextToken();
+			skipInvalidCharacters(tokenStart);
+			return false;
 		}
-
+		return true;
 	}
 
-	private LocatedChar nextNonWhitespaceChar() {
-		LocatedChar ch = input.next();
-		while (ch.isWhitespace()) {
+	private char nextNonWhitespaceChar() {
+		tokenStart = input.offset();
+		char ch = input.next();
+		while (Character.isWhitespace(ch)) {
+			tokenStart = input.offset();
 			ch = input.next();
 		}
 		return ch;
@@ -93,61 +124,127 @@ public class JuncoScanner extends ScannerImp implements Scanner {
 
 	// ////////////////////////////////////////////////////////////////////////////
 	// Integer and float number lexical analysis
+	// The value is accumulated as the digits are read: an int for integers, and a
+	// decimal mantissa and exponent for floats.  The lexeme is the input text from
+	// start up to the character that ends it, which is pushed back by resetting
+	// input to its offset.
+
+	private static final int MAX_EXACT_MANTISSA_DIGITS = 15;	// 10^15 < 2^53: every such mantissa is an exact double
+	private static final double[] EXACT_POWERS_OF_TEN = {
+		1e0,  1e1,  1e2,  1e3,  1e4,  1e5,  1e6,  1e7,  1e8,  1e9,  1e10, 1e11,
+		1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+	private static final int MAX_EXPONENT_MAGNITUDE = 100000;	// exponents are pinned here while they are read
 
-	private void scanNumber(LocatedChar firstChar) {
-		StringBuffer buffer = new StringBuffer();
-		buffer.append(firstChar.getCharacter());
-		LocatedChar c = input.next();
+	// returns false (having reported an error) if the characters do not form a number.
+	// The character at which that was found is left to be scanned again.
+	protected boolean scanNumber(int start) {
+		boolean negative = input.text().charAt(start) == '-';
+		long magnitude = negative ? 0 : digitValue(input.text().charAt(start));
+		long limit = negative ? -(long)Integer.MIN_VALUE : Integer.MAX_VALUE;
+		int overflowOffset = -1;
+		int mantissaDigits = magnitude == 0 ? 0 : 1;
 
-		while (c.isDigit()) {
-			buffer.append(c.getCharacter());
+		int end = input.offset();
+		char c = input.next();
+		while (Character.isDigit(c)) {
+			if (mantissaDigits < MAX_EXACT_MANTISSA_DIGITS + 1) {
+				magnitude = magnitude * 10 + digitValue(c);
+				if (magnitude != 0) {
+					mantissaDigits++;
+				}
+			}
+			if (overflowOffset == -1 && (magnitude > limit || mantissaDigits > MAX_EXACT_MANTISSA_DIGITS)) {
+				overflowOffset = end;
+			}
+			end = input.offset();
 			c = input.next();
 		}
 
-		if (c.getCharacter() == '.') {
-			buffer.append(c.getCharacter());
-			c = input.next();
-			if (c.isDigit()) {
-				while (c.isDigit()) {
-					buffer.append(c.getCharacter());
-					c = input.next();
-				}
-				if (c.getCharacter() == 'e') {
-					buffer.append(c.getCharacter());
-					c = input.next();
-					if ((c.getCharacter() == '-' && input.peek().isDigit())
-							|| c.isDigit()) {
-						buffer.append(c.getCharacter());
-						c = input.next();
-						while (c.isDigit()) {
-							buffer.append(c.getCharacter());
-							c = input.next();
-						}
-						input.pushback(c);
-						nextToken = FloatingToken.make(firstChar.getLocation(),
-								buffer.toString());
-					}
-					else {
-						JuncoLogger log = JuncoLogger.getLogger("compiler.lexicalAnalyzer");
-						log.severe("Lexical error: invalid floating number " + buffer);
-					}
-				}
-				else {
-					input.pushback(c);
-					nextToken = FloatingToken.make(firstChar.getLocation(),
-							buffer.toString());
+		if (c != '.') {
+			input.reset(end);
+			if (overflowOffset != -1) {
+				numberError("integer constant too large", start, end, overflowOffset);
+				magnitude = limit;
+			}
+			int value = (int)(negative ? -magnitude : magnitude);
+			nextToken = NumberToken.make(input.locator(), start, input.lexeme(start, end), value);
+			return true;
+		}
+
+		end = input.offset();
+		c = input.next();
+		if (!Character.isDigit(c)) {
+			numberError("invalid floating number", start, end, end);
+			input.reset(end);
+			return false;
+		}
+		int exponent = 0;
+		while (Character.isDigit(c)) {
+			if (mantissaDigits < MAX_EXACT_MANTISSA_DIGITS + 1) {
+				magnitude = magnitude * 10 + digitValue(c);
+				if (magnitude != 0) {
+					mantissaDigits++;
 				}
+				exponent--;
+			}
+			end = input.offset();
+			c = input.next();
+		}
+
+		if (c == 'e') {
+			end = input.offset();
+			c = input.next();
+			if (!((c == '-' && Character.isDigit(input.peek())) || Character.isDigit(c))) {
+				numberError("invalid floating number", start, end, end);
+				input.reset(end);
+				return false;
 			}
-			else {
-				JuncoLogger log = JuncoLogger.getLogger("compiler.lexicalAnalyzer");
-				log.severe("Lexical error: invalid floating number " + buffer);
+			boolean negativeExponent = c == '-';
+			int exponentValue = negativeExponent ? 0 : digitValue(c);
+			end = input.offset();
+			c = input.next();
+			while (Character.isDigit(c)) {
+				exponentValue = Math.min(exponentValue * 10 + digitValue(c), MAX_EXPONENT_MAGNITUDE);
+				end = input.offset();
+				c = input.next();
 			}
+			exponent += negativeExponent ? -exponentValue : exponentValue;
 		}
 
-		else {
-			input.pushback(c);
-			nextToken = NumberToken.make(firstChar.getLocation(), buffer.toString());
+		input.reset(end);
+		String lexeme = input.lexeme(start, end);
+		double value = floatingValue(magnitude, mantissaDigits, exponent, lexeme);
+		if (Double.isInfinite(value)) {
+			numberError("floating constant too large", start, end, start);
 		}
+		nextToken = FloatingToken.make(input.locator(), start, lexeme, negative ? -value : value);
+		return true;
+	}
+
+	// magnitude * 10^exponent.  When both the mantissa and the power of ten are exact doubles,
+	// one multiplication or division rounds correctly; otherwise the lexeme is parsed.
+	private static double floatingValue(long magnitude, int mantissaDigits, int exponent, String lexeme) {
+		if (mantissaDigits <= MAX_EXACT_MANTISSA_DIGITS) {
+			if (magnitude == 0) {
+				return 0.0;
+			}
+			if (0 <= exponent && exponent < EXACT_POWERS_OF_TEN.length) {
+				return magnitude * EXACT_POWERS_OF_TEN[exponent];
+			}
+			if (exponent < 0 && -exponent < EXACT_POWERS_OF_TEN.length) {
+				return magnitude / EXACT_POWERS_OF_TEN[-exponent];
+			}
+		}
+		return Math.abs(Double.parseDouble(lexeme));
+	}
+	private static int digitValue(char c) {
+		return Character.digit(c, 10);
+	}
+
+	// reports the error at the offset of the character that caused it.
+	private void numberError(String message, int start, int end, int errorOffset) {
+		logError("Lexical error: " + message + " " + input.lexeme(start, end) + " at " + input.locationOf(errorOffset));
 	}
 
 	// private void appendSubsequentDigits(StringBuffer buffer) {
@@ -182,33 +279,33 @@ public class JuncoScanner extends ScannerImp implements Scanner {
 	// ////////////////////////////////////////////////////////////////////////////
 	// Identifier and keyword lexical analysis
 
-	private void scanIdentifier(LocatedChar firstChar) {
-		StringBuffer buffer = new StringBuffer();
-		buffer.append(firstChar.getCharacter());
-		appendSubsequentChar(buffer);
+	private void scanIdentifier(int start) {
+		int end = endOfSubsequentChars();
 
-		String lexeme = buffer.toString();
-		if (Keyword.isAKeyword(lexeme)) {
-			nextToken = LextantToken.make(firstChar.getLocation(), lexeme,
-					Keyword.forLexeme(lexeme));
+		Keyword keyword = Keyword.forLexeme(input.text(), start, end);
+		if (keyword != Keyword.NULL_KEYWORD) {
+			nextToken = LextantToken.make(input.locator(), start, keyword.getLexeme(),
+					keyword);
 		}
 		else {
-			if (buffer.length() > 39) {
-				JuncoLogger log = JuncoLogger.getLogger("compiler.lexicalAnalyzer");
-				log.severe("Lexical error: too long identifier " + buffer);
+			int symbol = SymbolPool.idOf(input.text(), start, end);
+			if (end - start > 39) {
+				logError("Lexical error: too long identifier " + SymbolPool.lexemeOf(symbol));
 			}
-			nextToken = IdentifierToken.make(firstChar.getLocation(), lexeme);
+			nextToken = IdentifierToken.make(input.locator(), start, symbol);
 		}
 	}
 
-	private void appendSubsequentChar(StringBuffer buffer) {
-		LocatedChar c = input.next();
-		while (c.isLetter() || c.getCharacter() == '_' || c.getCharacter() == '#'
-				|| c.getCharacter() == '-' || c.isDigit()) {
-			buffer.append(c.getCharacter());
+	private int endOfSubsequentChars() {
+		int end = input.offset();
+		char c = input.next();
+		while (Character.isLetter(c) || c == '_' || c == '#'
+				|| c == '-' || Character.isDigit(c)) {
+			end = input.offset();
 			c = input.next();
 		}
-		input.pushback(c);
+		input.reset(end);
+		return end;
 	}
 
 	// ////////////////////////////////////////////////////////////////////////////
@@ -248,21 +345,65 @@ public class JuncoScanner extends ScannerImp implements Scanner {
 	// ////////////////////////////////////////////////////////////////////////////
 	// Character-classification routines specific to Junco scanning.
 
-	private boolean isPunctuatorStart(LocatedChar lc) {
-		char c = lc.getCharacter();
+	private boolean isPunctuatorStart(char c) {
 		return isPunctuatorStartingCharacter(c);
 	}
 
-	private boolean isEndOfInput(LocatedChar lc) {
-		return lc == LocatedCharStream.FLAG_END_OF_INPUT;
+	private boolean isEndOfInput(int offset) {
+		return input.isEndOfInput(offset);
+	}
+
+	// true if c, read from the given offset, cannot start a token or whitespace.
+	// input must be just past c.
+	private boolean isInvalidCharacter(int offset, char c) {
+		return !(Character.isWhitespace(c)
+				|| Character.isDigit(c)
+				|| (c == '\'' && input.peek() >= 32 && input.peek() <= 126)
+				|| Character.isLetter(c) || c == '_' || c == '#'
+				|| isPunctuatorStart(c)
+				|| isEndOfInput(offset));
 	}
 
 	// ////////////////////////////////////////////////////////////////////////////
-	// Error-reporting
+	// Error-reporting and recovery
+
+	/** Skips the run of invalid characters that begins at <code>start</code>, which has
+	 *  just been read, and reports it as one lexical error.  Invalid characters separated
+	 *  only by whitespace on the same line are part of the same run.  input is left just
+	 *  past the run.
+	 */
+	protected void skipInvalidCharacters(int start) {
+		int count = 1;
+		int resume = input.offset();
+		while (true) {
+			int offset = input.offset();
+			char c = input.next();
+			if (Character.isWhitespace(c) && c != '\n') {
+				continue;
+			}
+			if (!isInvalidCharacter(offset, c)) {
+				break;
+			}
+			count++;
+			resume = input.offset();
+		}
+		input.reset(resume);
+		lexicalError(start, count);
+	}
+
+	private void lexicalError(int offset, int count) {
+		if (count == 1) {
+			logError("Lexical error: invalid character " + input.locatedCharAt(offset));
+		}
+		else {
+			logError("Lexical error: " + count + " invalid characters, starting with " + input.locatedCharAt(offset));
+		}
+	}
 
-	private void lexicalError(LocatedChar ch) {
+	/** Every lexical error is reported through here. */
+	protected void logError(String message) {
 		JuncoLogger log = JuncoLogger.getLogger("compiler.lexicalAnalyzer");
-		log.severe("Lexical error: invalid character " + ch);
+		log.severe(message);
 	}
 
 }
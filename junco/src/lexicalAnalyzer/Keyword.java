@@ -1,5 +1,7 @@
 package lexicalAnalyzer;
 
+import java.util.Arrays;
+
 import tokens.LextantToken;
 import tokens.Token;
 
@@ -40,21 +42,83 @@ public enum Keyword implements Lextant {
 	}
 	
 	public static Keyword forLexeme(String lexeme) {
-		for(Keyword keyword: values()) {
-			if(keyword.lexeme.equals(lexeme)) {
-				return keyword;
-			}
+		return forLexeme(lexeme, 0, lexeme.length());
+	}
+	/** Looks up the lexeme text[start..end) with one probe of a perfect hash table. */
+	public static Keyword forLexeme(CharSequence text, int start, int end) {
+		if(start == end) {
+			return NULL_KEYWORD;
+		}
+		Keyword candidate = perfectHashTable[hash(text, start, end, firstMultiplier, middleMultiplier)];
+		if(candidate == null || !candidate.lexemeEquals(text, start, end)) {
+			return NULL_KEYWORD;
 		}
-		return NULL_KEYWORD;
+		return candidate;
 	}
 	public static boolean isAKeyword(String lexeme) {
 		return forLexeme(lexeme) != NULL_KEYWORD;
 	}
+	private boolean lexemeEquals(CharSequence text, int start, int end) {
+		if(lexeme.length() != end - start) {
+			return false;
+		}
+		for(int i = 0; i < lexeme.length(); i++) {
+			if(lexeme.charAt(i) != text.charAt(start + i)) {
+				return false;
+			}
+		}
+		return true;
+	}
 	
-	/*   the following can replace the implementation of forLexeme above. It is faster but less clear. 
-	private static LexemeMap<Keyword> lexemeToKeyword = new LexemeMap<Keyword>(values(), NULL_KEYWORD);
-	public static Keyword forLexeme(String lexeme) {
-		return lexemeToKeyword.forLexeme(lexeme);
+	
+	//////////////////////////////////////////////////////////////////////////////
+	// the perfect hash table: a hash of the length and the first, middle, and last
+	// characters of the (nonempty) lexemes, with multipliers chosen at class-init time
+	// so that no two keywords collide.
+	
+	private static final int MAX_MULTIPLIER = 64;
+	private static Keyword[] perfectHashTable;
+	private static int firstMultiplier;
+	private static int middleMultiplier;
+	static {
+		makePerfectHashTable();
+	}
+	
+	private static int hash(CharSequence text, int start, int end, int first, int middle) {
+		int length = end - start;
+		int hash = length
+				+ first  * text.charAt(start)
+				+ middle * text.charAt(start + length/2)
+				+ text.charAt(end - 1);
+		return hash & (perfectHashTable.length - 1);
+	}
+	private static void makePerfectHashTable() {
+		for(int size = 2 * Integer.highestOneBit(values().length); ; size *= 2) {
+			perfectHashTable = new Keyword[size];
+			for(int first = 1; first < MAX_MULTIPLIER; first++) {
+				for(int middle = 1; middle < MAX_MULTIPLIER; middle++) {
+					if(fillsWithoutCollision(first, middle)) {
+						firstMultiplier = first;
+						middleMultiplier = middle;
+						return;
+					}
+				}
+			}
+		}
+	}
+	private static boolean fillsWithoutCollision(int first, int middle) {
+		Arrays.fill(perfectHashTable, null);
+		for(Keyword keyword: values()) {
+			String lexeme = keyword.lexeme;
+			if(lexeme.isEmpty()) {
+				continue;
+			}
+			int index = hash(lexeme, 0, lexeme.length(), first, middle);
+			if(perfectHashTable[index] != null) {
+				return false;
+			}
+			perfectHashTable[index] = keyword;
+		}
+		return true;
 	}
-	*/
 }
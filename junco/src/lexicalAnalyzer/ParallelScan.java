@@ -0,0 +1,88 @@
+package lexicalAnalyzer;
+
+import inputHandler.CharCursor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+import logging.JuncoLogger;
+
+/** Scans an input as a sequence of line-aligned chunks, each by its own JuncoScanner on
+ *  a fork-join pool, and joins the chunks' TokenBuffers in order.
+ *  <p>
+ *  No token, and no comment, spans a line terminator, so a scanner started at the
+ *  beginning of any line finds the same tokens there as one that has scanned every
+ *  line before it.  The lexical errors of each chunk are held until the join, then
+ *  logged in order, and the join stops where a sequential scan would stop: at the
+ *  first NullToken, which may come before the end of input (see PunctuatorScanner).
+ */
+class ParallelScan extends RecursiveTask<TokenBuffer> {
+	private static final long serialVersionUID = 1L;
+
+	private final CharCursor input;
+	private final int chunkLength;
+
+	ParallelScan(CharCursor input, int chunkLength) {
+		this.input = input;
+		this.chunkLength = chunkLength;
+	}
+
+	@Override
+	protected TokenBuffer compute() {
+		List<ChunkScan> chunks = new ArrayList<ChunkScan>();
+		int start = 0;
+		while(start < input.endOffset()) {
+			int end = input.startOfNextLine(Math.min(start + chunkLength, input.endOffset()) - 1);
+			chunks.add(new ChunkScan(input.region(start, end)));
+			start = end;
+		}
+		if(chunks.isEmpty()) {
+			chunks.add(new ChunkScan(input.region(0, 0)));
+		}
+		invokeAll(chunks);
+		return join(chunks);
+	}
+
+	private TokenBuffer join(List<ChunkScan> chunks) {
+		List<TokenBuffer> buffers = new ArrayList<TokenBuffer>();
+		for(ChunkScan chunk: chunks) {
+			TokenBuffer buffer = chunk.join();
+			chunk.logErrors();
+			buffers.add(buffer);
+			if(buffer.endedBeforeEndOfInput()) {
+				break;
+			}
+		}
+		return TokenBuffer.concatenate(input, buffers);
+	}
+
+
+	// the scan of one chunk, holding its lexical errors for the join.
+	private static class ChunkScan extends RecursiveTask<TokenBuffer> {
+		private static final long serialVersionUID = 1L;
+
+		private final CharCursor region;
+		private final List<String> errors = new ArrayList<String>();
+
+		ChunkScan(CharCursor region) {
+			this.region = region;
+		}
+
+		@Override
+		protected TokenBuffer compute() {
+			return TokenBuffer.make(new JuncoScanner(region) {
+				@Override
+				protected void logError(String message) {
+					errors.add(message);
+				}
+			});
+		}
+		void logErrors() {
+			JuncoLogger log = JuncoLogger.getLogger("compiler.lexicalAnalyzer");
+			for(String message: errors) {
+				log.severe(message);
+			}
+		}
+	}
+}
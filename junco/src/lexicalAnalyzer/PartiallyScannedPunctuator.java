@@ -1,32 +1,91 @@
 package lexicalAnalyzer;
 
+import java.util.Arrays;
+
 import tokens.LextantToken;
 import tokens.NullToken;
 import tokens.Token;
-import inputHandler.LocatedChar;
-import inputHandler.LocatedCharString;
+import inputHandler.CharCursor;
+
+/** The characters scanned so far by a PunctuatorScanner, held as chars and offsets into
+ *  the input rather than as LocatedChars.  They are matched against the punctuators as
+ *  chars, so scanning makes no Strings: a token's lexeme is its punctuator's.
+ */
+public class PartiallyScannedPunctuator {
+	private static final int STARTING_SIZE = 6;
 
-public class PartiallyScannedPunctuator extends LocatedCharString {
+	private CharCursor input;
+	private int startingOffset;
+	// chars[i] is the i'th character scanned, and ends[i] the offset just past it.
+	private char[] chars;
+	private int[] ends;
+	private int length;
+	private Punctuator punctuator;
 
-	public PartiallyScannedPunctuator(LocatedChar c) {
-		super(c);
+	/** @param startingOffset the offset of a character that input has just read. */
+	public PartiallyScannedPunctuator(CharCursor input, int startingOffset) {
+		this.input = input;
+		this.startingOffset = startingOffset;
+		this.chars = new char[STARTING_SIZE];
+		this.ends = new int[STARTING_SIZE];
+		this.length = 0;
+		input.reset(startingOffset);
+		char c = input.next();
+		append(c, input.offset());
 	}
 
 	
+	// mutators
+	public void add() {
+		char c = input.next();
+		append(c, input.offset());
+	}
+	/** Removes the last character scanned.
+	 * @return the offset of that character, for pushing it back onto the input.
+	 */
+	public int chopTail() {
+		length--;
+		punctuator = PunctuatorScanningAids.punctuatorFor(chars, length);
+		return end();
+	}
+	private void append(char c, int end) {
+		if(length == ends.length) {
+			chars = Arrays.copyOf(chars, 2*length);
+			ends = Arrays.copyOf(ends, 2*length);
+		}
+		chars[length] = c;
+		ends[length++] = end;
+		punctuator = PunctuatorScanningAids.punctuatorFor(chars, length);
+	}
+	private int end() {
+		return length == 0 ? startingOffset : ends[length-1];
+	}
+	
+	
 	// queries
+	public boolean isEmpty() {
+		return length == 0;
+	}
 	public Boolean isPunctuator() {
 		return asPunctuator() != Punctuator.NULL_PUNCTUATOR;
 	}
+	/** @return the number of punctuators whose lexemes start with the characters scanned. */
+	public int numPunctuatorsWithPrefix() {
+		return PunctuatorScanningAids.numPunctuatorsWithPrefix(chars, length);
+	}
 	
 	// conversions
+	public String asString() {
+		return new String(chars, 0, length);
+	}
 	public Punctuator asPunctuator() {
-		return Punctuator.forLexeme(asString());
+		return punctuator;
 	}
 	public Token asToken() {
 		if(isEmpty()) {
-			return NullToken.make(startingLocation);
+			return NullToken.make(input.locator(), startingOffset);
 		}
 		assert(isPunctuator());
-		return LextantToken.make(startingLocation, asString(), asPunctuator());
+		return LextantToken.make(input.locator(), startingOffset, punctuator.getLexeme(), punctuator);
 	}
 }
@@ -1,11 +1,6 @@
 package lexicalAnalyzer;
 
-import static lexicalAnalyzer.PunctuatorScanningAids.punctuatorSetForPrefix;
-import inputHandler.LocatedChar;
-import inputHandler.PushbackCharStream;
-
-import java.util.Set;
-
+import inputHandler.CharCursor;
 import tokens.Token;
 
 /** Algorithm object to scan to find a punctuator.  Invoke only on a character that can start a punctuator lexeme.
@@ -22,40 +17,41 @@ import tokens.Token;
  *  Part of derived information is in PunctuatorScanningAids.java, part is in Punctuator itself.
  */
 public class PunctuatorScanner {
-	private PushbackCharStream input;
+	private CharCursor input;
 	private PartiallyScannedPunctuator scanned;
 	
-	public static Token scan(LocatedChar startingCharacter, PushbackCharStream input) {
-		PunctuatorScanner scanner = new PunctuatorScanner(startingCharacter, input);
+	/** @param startingOffset the offset of the starting character, which input has just read. */
+	public static Token scan(int startingOffset, CharCursor input) {
+		PunctuatorScanner scanner = new PunctuatorScanner(startingOffset, input);
 		return scanner.scanPunctuator();
 	}
 	
-	private PunctuatorScanner(LocatedChar startingCharacter, PushbackCharStream input) {
+	private PunctuatorScanner(int startingOffset, CharCursor input) {
 		this.input = input;
 		
-		scanned = new PartiallyScannedPunctuator(startingCharacter);
+		scanned = new PartiallyScannedPunctuator(input, startingOffset);
 	}
 	
 	private Token scanPunctuator() {
-		Set<Punctuator> punctuators = punctuatorSetForPrefix(scanned.asString());
+		int numPunctuators = scanned.numPunctuatorsWithPrefix();
 		
-		if(punctuators.size() == 1 && scanned.isPunctuator()) {
+		if(numPunctuators == 1 && scanned.isPunctuator()) {
 			return scanned.asToken();
 		}
 		
-		if(punctuators.isEmpty() || !input.hasNext()) {
+		if(numPunctuators == 0 || !input.hasNext()) {
 			backupToLastPunctuatorPrefix();
 			return scanned.asToken();
 		}
 		
-		scanned.add(input.next());
+		scanned.add();
 		return scanPunctuator();
 	}
 
 	private void backupToLastPunctuatorPrefix() {
 		while(!scanned.isPunctuator() && !scanned.isEmpty()) {
-			LocatedChar lc = scanned.chopTail();
-			input.pushback(lc);
+			int offset = scanned.chopTail();
+			input.reset(offset);
 		}
 	}
 }
@@ -13,9 +13,14 @@ public class PunctuatorScanningAids {
 	private static Set<Character> punctuatorStartingCharacters = new HashSet<Character>();
 	private static Map<String, Set<Punctuator>> punctuatorsHavingPrefix = new HashMap<String, Set<Punctuator>>();
 	private static final Set<Punctuator> emptyPunctuatorSet = Collections.unmodifiableSet(EnumSet.noneOf(Punctuator.class));
+	private static final Punctuator[] punctuators = Punctuator.values();
+	private static final char[][] punctuatorLexemes = new char[punctuators.length][];
 	static {
 		makeStartingCharacters();
 		makePunctuatorsHavingPrefix();
+		for(int i = 0; i < punctuators.length; i++) {
+			punctuatorLexemes[i] = punctuators[i].getLexeme().toCharArray();
+		}
 	}
 
 	//////////////////////////////////////////////////////////////////////////////
@@ -33,6 +38,33 @@ public class PunctuatorScanningAids {
 			return emptyPunctuatorSet;
 		}
 	}
+	
+	// the same queries on the first length chars of an array, which make no objects.
+	public static int numPunctuatorsWithPrefix(char[] chars, int length) {
+		int result = 0;
+		for(char[] lexeme: punctuatorLexemes) {
+			if(length > 0 && lexeme.length >= length && startsWith(lexeme, chars, length)) {
+				result++;
+			}
+		}
+		return result;
+	}
+	public static Punctuator punctuatorFor(char[] chars, int length) {
+		for(int i = 0; i < punctuators.length; i++) {
+			if(punctuatorLexemes[i].length == length && startsWith(punctuatorLexemes[i], chars, length)) {
+				return punctuators[i];
+			}
+		}
+		return Punctuator.NULL_PUNCTUATOR;
+	}
+	private static boolean startsWith(char[] lexeme, char[] chars, int length) {
+		for(int i = 0; i < length; i++) {
+			if(lexeme[i] != chars[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
 
 	//////////////////////////////////////////////////////////////////////////////
 	// creation of startingCharacters
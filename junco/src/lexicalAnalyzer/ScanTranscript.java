@@ -0,0 +1,63 @@
+package lexicalAnalyzer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/** A printing of a scan detailed enough to compare two scanners by: the tokens, as full
+ *  strings, through the NullToken, each preceded by the lexical errors logged while it
+ *  was scanned (as "error: " and the message).  While a transcript is being made, the
+ *  lexical errors are kept off the console.
+ */
+public class ScanTranscript {
+	private static final String LOGGER_NAME = "compiler.lexicalAnalyzer";
+
+	private ScanTranscript() {}
+
+	public static List<String> of(Scanner scanner) {
+		Logger logger = Logger.getLogger(LOGGER_NAME);
+		ErrorCollector errors = new ErrorCollector();
+		boolean usedParentHandlers = logger.getUseParentHandlers();
+		logger.setUseParentHandlers(false);
+		logger.addHandler(errors);
+		try {
+			List<String> lines = new ArrayList<String>();
+			boolean more = true;
+			while(more) {
+				more = scanner.hasNext();
+				String token = scanner.next().fullString();
+				errors.moveTo(lines);
+				lines.add(token);
+			}
+			return lines;
+		}
+		finally {
+			logger.removeHandler(errors);
+			logger.setUseParentHandlers(usedParentHandlers);
+		}
+	}
+
+	// the lexical errors logged since they were last moved to a transcript.
+	private static class ErrorCollector extends Handler {
+		private List<String> messages = new ArrayList<String>();
+
+		synchronized void moveTo(List<String> lines) {
+			for(String message: messages) {
+				lines.add("error: " + message);
+			}
+			messages.clear();
+		}
+		@Override
+		public synchronized void publish(LogRecord record) {
+			messages.add(record.getMessage());
+		}
+		@Override
+		public void flush() {
+		}
+		@Override
+		public void close() {
+		}
+	}
+}
@@ -1,16 +1,16 @@
 package lexicalAnalyzer;
 
-import inputHandler.PushbackCharStream;
+import inputHandler.CharCursor;
 import tokens.NullToken;
 import tokens.Token;
 
 public abstract class ScannerImp implements Scanner {
 	protected Token nextToken;
-	protected final PushbackCharStream input;
+	protected final CharCursor input;
 	
 	protected abstract void findNextToken();
 
-	public ScannerImp(PushbackCharStream input) {
+	public ScannerImp(CharCursor input) {
 		super();
 		this.input = input;
 		nextToken = null;
@@ -35,4 +35,4 @@ public abstract class ScannerImp implements Scanner {
 		throw new UnsupportedOperationException();
 	}
 
-}
\ No newline at end of file
+}
\ No newline at end of file
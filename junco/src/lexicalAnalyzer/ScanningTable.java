@@ -0,0 +1,197 @@
+package lexicalAnalyzer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/** Tables for TableDrivenScanner, built once when the class is initialized.
+ * <p>
+ *  The character-class table says what kind of token an ASCII character can start.
+ *  The transition table is a trie of the lexemes of Punctuator and of Keyword:
+ *  <code>transition(state, c)</code> is the state reached from <code>state</code> on character <code>c</code>,
+ *  and <code>accepted(state)</code> is the Lextant whose lexeme leads from a start state to <code>state</code>,
+ *  if there is one.  Like PunctuatorScanningAids, the tables are derived from the enum constants
+ *  and should work regardless of what the sets of constants in Punctuator and Keyword are.
+ *  Non-ASCII characters are classified with the Character methods JuncoScanner uses.
+ */
+public class ScanningTable {
+	// classes of a token's first character
+	public static final int OTHER				= 0;
+	public static final int WHITESPACE			= 1;
+	public static final int DIGIT				= 2;
+	public static final int IDENTIFIER_START	= 3;
+	public static final int PUNCTUATOR_START	= 4;
+	public static final int QUOTE				= 5;
+	public static final int MINUS				= 6;		// a number, if a digit follows, else a punctuator.
+	public static final int STAR				= 7;		// a comment, if a star follows, else a punctuator.
+	
+	public static final int DEAD_STATE = -1;
+	public static final int PUNCTUATOR_START_STATE;
+	public static final int KEYWORD_START_STATE;
+	
+	private static final int TABLE_CHARS = 128;
+	private static final char FIRST_CHARACTER_CONSTANT = 32;
+	private static final char LAST_CHARACTER_CONSTANT  = 126;
+	
+	private static final byte[] startClass = new byte[TABLE_CHARS];
+	private static final boolean[] identifierChar = new boolean[TABLE_CHARS];
+	private static final String[] characterLexemes = new String[LAST_CHARACTER_CONSTANT + 1];
+	private static int[] transitions;				// transitions[state * TABLE_CHARS + c]
+	private static Lextant[] accepted;
+	
+	static {
+		TrieBuilder builder = new TrieBuilder();
+		PUNCTUATOR_START_STATE = builder.addTrie(Punctuator.values());
+		KEYWORD_START_STATE    = builder.addTrie(Keyword.values());
+		transitions = builder.transitions();
+		accepted = builder.accepted();
+		
+		makeCharacterClasses();
+		makeCharacterLexemes();
+	}
+	
+	
+	//////////////////////////////////////////////////////////////////////////////
+	// public static interface
+	
+	public static int startClassOf(char c) {
+		if(c < TABLE_CHARS) {
+			return startClass[c];
+		}
+		if(Character.isWhitespace(c)) {
+			return WHITESPACE;
+		}
+		if(Character.isDigit(c)) {
+			return DIGIT;
+		}
+		if(Character.isLetter(c)) {
+			return IDENTIFIER_START;
+		}
+		return OTHER;
+	}
+	public static boolean isIdentifierChar(char c) {
+		if(c < TABLE_CHARS) {
+			return identifierChar[c];
+		}
+		return Character.isLetter(c) || Character.isDigit(c);
+	}
+	public static boolean isDigit(char c) {
+		if(c < TABLE_CHARS) {
+			return '0' <= c && c <= '9';
+		}
+		return Character.isDigit(c);
+	}
+	
+	public static boolean isCharacterConstantChar(char c) {
+		return FIRST_CHARACTER_CONSTANT <= c && c <= LAST_CHARACTER_CONSTANT;
+	}
+	/** @return the (shared) one-character lexeme of a character constant. */
+	public static String characterLexeme(char c) {
+		assert isCharacterConstantChar(c);
+		return characterLexemes[c];
+	}
+	
+	public static int transition(int state, char c) {
+		if(state == DEAD_STATE || c >= TABLE_CHARS) {
+			return DEAD_STATE;
+		}
+		return transitions[state * TABLE_CHARS + c];
+	}
+	/** @return the Lextant whose lexeme ends at this state, or null if none does. */
+	public static Lextant accepted(int state) {
+		return state == DEAD_STATE ? null : accepted[state];
+	}
+	
+	
+	//////////////////////////////////////////////////////////////////////////////
+	// creation of the character tables.
+	// The order of tests matches the order of dispatch in JuncoScanner.findNextToken.
+	
+	private static void makeCharacterClasses() {
+		for(char c = 0; c < TABLE_CHARS; c++) {
+			startClass[c] = (byte)asciiStartClass(c);
+			identifierChar[c] = Character.isLetter(c) || c == '_' || c == '#'
+					|| c == '-' || Character.isDigit(c);
+		}
+	}
+	private static int asciiStartClass(char c) {
+		if(Character.isWhitespace(c)) {
+			return WHITESPACE;
+		}
+		if(c == '*') {
+			return STAR;
+		}
+		if(c == '-') {
+			return MINUS;
+		}
+		if(Character.isDigit(c)) {
+			return DIGIT;
+		}
+		if(c == '\'') {
+			return QUOTE;
+		}
+		if(Character.isLetter(c) || c == '_' || c == '#') {
+			return IDENTIFIER_START;
+		}
+		if(transition(PUNCTUATOR_START_STATE, c) != DEAD_STATE) {
+			return PUNCTUATOR_START;
+		}
+		return OTHER;
+	}
+	private static void makeCharacterLexemes() {
+		for(char c = FIRST_CHARACTER_CONSTANT; c <= LAST_CHARACTER_CONSTANT; c++) {
+			characterLexemes[c] = String.valueOf(c);
+		}
+	}
+	
+	
+	//////////////////////////////////////////////////////////////////////////////
+	// creation of the transition table
+	
+	private static class TrieBuilder {
+		private List<int[]> rows = new ArrayList<int[]>();
+		private List<Lextant> accepting = new ArrayList<Lextant>();
+		
+		public int addTrie(Lextant[] lextants) {
+			int start = newState();
+			for(Lextant lextant: lextants) {
+				String lexeme = lextant.getLexeme();
+				if(!lexeme.isEmpty()) {
+					addLexeme(start, lexeme, lextant);
+				}
+			}
+			return start;
+		}
+		private void addLexeme(int start, String lexeme, Lextant lextant) {
+			int state = start;
+			for(int i=0; i<lexeme.length(); i++) {
+				char c = lexeme.charAt(i);
+				assert c < TABLE_CHARS : "non-ASCII lexeme " + lexeme;
+				if(rows.get(state)[c] == DEAD_STATE) {
+					int newState = newState();
+					rows.get(state)[c] = newState;
+				}
+				state = rows.get(state)[c];
+			}
+			accepting.set(state, lextant);
+		}
+		private int newState() {
+			int[] row = new int[TABLE_CHARS];
+			Arrays.fill(row, DEAD_STATE);
+			rows.add(row);
+			accepting.add(null);
+			return rows.size() - 1;
+		}
+		
+		public int[] transitions() {
+			int[] result = new int[rows.size() * TABLE_CHARS];
+			for(int state = 0; state < rows.size(); state++) {
+				System.arraycopy(rows.get(state), 0, result, state * TABLE_CHARS, TABLE_CHARS);
+			}
+			return result;
+		}
+		public Lextant[] accepted() {
+			return accepting.toArray(new Lextant[accepting.size()]);
+		}
+	}
+}
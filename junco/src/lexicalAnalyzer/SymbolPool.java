@@ -0,0 +1,152 @@
+package lexicalAnalyzer;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/** The compiler-wide pool of identifier lexemes.
+ * <p>
+ *  Each distinct lexeme gets a dense int id (0, 1, 2, ...) the first time it is seen, and
+ *  keeps it for the life of the compiler.  Identifiers are interned here at scan time, so
+ *  identical identifiers share one (String.intern()ed) String, and symbol tables can key
+ *  on the id rather than hash the string.
+ * <p>
+ *  A lexeme can be looked up as a slice of a CharSequence; no String is made unless the
+ *  lexeme is new to the pool.  The pool is safe to use from several threads, and finding
+ *  a lexeme already in it takes no lock: only adding one does.  So the scanners of a
+ *  ParallelScan contend only over the first sighting of each identifier.
+ */
+public class SymbolPool {
+	private static final int STARTING_CAPACITY = 512;		// a power of two
+	private static final int EMPTY = -1;
+	
+	// replaced, under the lock, by one twice the size when it is full.
+	private static volatile Table table = new Table(STARTING_CAPACITY);
+	private static volatile int numSymbols = 0;
+	
+	
+	//////////////////////////////////////////////////////////////////////////////
+	// public static interface
+	
+	/** @return the id of the lexeme text[start..end), adding it to the pool if necessary. */
+	public static int idOf(CharSequence text, int start, int end) {
+		int hash = hash(text, start, end);
+		int id = table.find(text, start, end, hash);
+		if(id != EMPTY) {
+			return id;
+		}
+		return add(text, start, end, hash);
+	}
+	/** @return the id of the lexeme, adding it to the pool if necessary. */
+	public static int idOf(String lexeme) {
+		return idOf(lexeme, 0, lexeme.length());
+	}
+	/** @return the (interned) lexeme of the symbol with the given id. */
+	public static String lexemeOf(int id) {
+		assert 0 <= id && id < numSymbols;
+		return table.lexemes[id];
+	}
+	public static int size() {
+		return numSymbols;
+	}
+	
+	
+	//////////////////////////////////////////////////////////////////////////////
+	// adding symbols
+	
+	// the slice was not in the table when looked for; another thread may have added it since.
+	private static synchronized int add(CharSequence text, int start, int end, int hash) {
+		int slot = table.findSlot(text, start, end, hash);
+		int id = table.slots.get(slot);
+		if(id != EMPTY) {
+			return id;
+		}
+		id = numSymbols;
+		if(id == table.lexemes.length) {
+			table = table.grown(id);
+			slot = table.findSlot(text, start, end, hash);
+		}
+		table.lexemes[id] = text.subSequence(start, end).toString().intern();
+		table.hashes[id] = hash;
+		table.slots.set(slot, id);			// publishes the lexeme and hash to readers of the slot
+		numSymbols = id + 1;
+		return id;
+	}
+	
+	// the same function as String.hashCode(), on a slice.
+	private static int hash(CharSequence text, int start, int end) {
+		int hash = 0;
+		for(int i = start; i < end; i++) {
+			hash = 31*hash + text.charAt(i);
+		}
+		return hash;
+	}
+	private static int mix(int hash) {
+		return hash ^ (hash >>> 16);
+	}
+	
+	
+	//////////////////////////////////////////////////////////////////////////////
+	// the hash table: open addressing, kept at most half full.  An id is put in its
+	// slot only after its lexeme and hash are in place, so a reader that finds the id
+	// finds them too.
+	
+	private static class Table {
+		final AtomicIntegerArray slots;		// slot -> id, or EMPTY
+		final String[] lexemes;				// by id
+		final int[] hashes;					// by id
+		
+		Table(int capacity) {
+			int[] emptySlots = new int[2 * capacity];
+			Arrays.fill(emptySlots, EMPTY);
+			slots = new AtomicIntegerArray(emptySlots);
+			lexemes = new String[capacity];
+			hashes = new int[capacity];
+		}
+		
+		// the id of the slice, or EMPTY if it is not in the table.
+		int find(CharSequence text, int start, int end, int hash) {
+			return slots.get(findSlot(text, start, end, hash));
+		}
+		// the slot holding the slice, or the EMPTY slot where it belongs.
+		int findSlot(CharSequence text, int start, int end, int hash) {
+			int mask = slots.length() - 1;
+			int slot = mix(hash) & mask;
+			int id;
+			while((id = slots.get(slot)) != EMPTY && !matches(id, text, start, end, hash)) {
+				slot = (slot + 1) & mask;
+			}
+			return slot;
+		}
+		private boolean matches(int id, CharSequence text, int start, int end, int hash) {
+			if(hashes[id] != hash) {
+				return false;
+			}
+			String lexeme = lexemes[id];
+			if(lexeme.length() != end - start) {
+				return false;
+			}
+			for(int i = 0; i < lexeme.length(); i++) {
+				if(lexeme.charAt(i) != text.charAt(start + i)) {
+					return false;
+				}
+			}
+			return true;
+		}
+		
+		// a table of twice the capacity, holding the first numSymbols ids of this one.
+		Table grown(int numSymbols) {
+			Table result = new Table(2 * lexemes.length);
+			System.arraycopy(lexemes, 0, result.lexemes, 0, numSymbols);
+			System.arraycopy(hashes, 0, result.hashes, 0, numSymbols);
+			int mask = result.slots.length() - 1;
+			for(int id = 0; id < numSymbols; id++) {
+				int slot = mix(hashes[id]) & mask;
+				while(result.slots.get(slot) != EMPTY) {
+					slot = (slot + 1) & mask;
+				}
+				result.slots.set(slot, id);
+			}
+			return result;
+		}
+	}
+}
@@ -0,0 +1,163 @@
+package lexicalAnalyzer;
+
+import static lexicalAnalyzer.ScanningTable.*;
+import inputHandler.CharBufferInputHandler;
+import inputHandler.CharCursor;
+import inputHandler.InputHandler;
+import tokens.CharacterToken;
+import tokens.IdentifierToken;
+import tokens.LextantToken;
+import tokens.NullToken;
+
+/** A scanner that produces exactly the tokens (and lexical errors) of JuncoScanner,
+ *  but finds them with the tables of ScanningTable: one loop dispatching on the class
+ *  of a token's first character, with no recursion and no strings built for
+ *  punctuators, keywords, or character constants.
+ *  <p>
+ *  Punctuators and keywords are recognized by walking the transition table, keeping
+ *  the last Lextant accepted; as in PunctuatorScanner, the longest punctuator wins, and
+ *  if there is none the scanner returns a NullToken at the starting character.
+ *  Numbers are scanned as in JuncoScanner.
+ */
+public class TableDrivenScanner extends JuncoScanner {
+	public static TableDrivenScanner make(String filename) {
+		return make(InputHandler.fromMappedFile(filename));
+	}
+	public static TableDrivenScanner make(CharBufferInputHandler handler) {
+		return new TableDrivenScanner(new CharCursor(handler));
+	}
+
+	public TableDrivenScanner(CharCursor input) {
+		super(input);
+	}
+
+	// ////////////////////////////////////////////////////////////////////////////
+	// Token-finding main dispatch
+
+	@Override
+	protected void findNextToken() {
+		while(true) {
+			int start = input.offset();
+			char c = input.next();
+			
+			switch(startClassOf(c)) {
+			case WHITESPACE:
+				continue;
+			case STAR:
+				if(input.peek() == '*') {
+					skipComment();
+					continue;
+				}
+				scanPunctuator(start, c);
+				return;
+			case MINUS:
+				if(isDigit(input.peek())) {
+					if(scanNumber(start)) {
+						return;
+					}
+					continue;
+				}
+				scanPunctuator(start, c);
+				return;
+			case DIGIT:
+				if(scanNumber(start)) {
+					return;
+				}
+				continue;
+			case QUOTE:
+				if(isCharacterConstantChar(input.peek())) {
+					scanCharacter();
+					return;
+				}
+				skipInvalidCharacters(start);
+				continue;
+			case IDENTIFIER_START:
+				scanIdentifier(start, c);
+				return;
+			case PUNCTUATOR_START:
+				scanPunctuator(start, c);
+				return;
+			default:
+				if(input.isEndOfInput(start)) {
+					nextToken = NullToken.make(input.locationOf(start));
+					return;
+				}
+				skipInvalidCharacters(start);
+				continue;
+			}
+		}
+	}
+	
+	// a comment runs from "**" to the next "**" or the end of the line.
+	// input is at the second '*' of the opening "**".
+	private void skipComment() {
+		input.next();
+		char c;
+		do {
+			c = input.next();
+		}
+		while ((c != '*' || input.peek() != '*') && c != '\n');
+		if (c == '*') {
+			input.next();
+		}
+	}
+
+	// input is just past the opening quote, at the character of the constant.
+	private void scanCharacter() {
+		int charStart = input.offset();
+		char c = input.next();
+		nextToken = CharacterToken.make(input.locator(), charStart, characterLexeme(c));
+	}
+	
+	
+	// ////////////////////////////////////////////////////////////////////////////
+	// Identifiers and keywords: the keyword trie is walked as the identifier is read.
+
+	private void scanIdentifier(int start, char firstChar) {
+		int state = transition(KEYWORD_START_STATE, firstChar);
+		while (isIdentifierChar(input.peek())) {
+			state = transition(state, input.next());
+		}
+		int end = input.offset();
+		
+		Lextant keyword = accepted(state);
+		if (keyword != null) {
+			nextToken = LextantToken.make(input.locator(), start, keyword.getLexeme(), keyword);
+		}
+		else {
+			int symbol = SymbolPool.idOf(input.text(), start, end);
+			if (end - start > 39) {
+				logError("Lexical error: too long identifier " + SymbolPool.lexemeOf(symbol));
+			}
+			nextToken = IdentifierToken.make(input.locator(), start, symbol);
+		}
+	}
+	
+	
+	// ////////////////////////////////////////////////////////////////////////////
+	// Punctuators: longest match in the punctuator trie.
+
+	private void scanPunctuator(int start, char firstChar) {
+		int state = transition(PUNCTUATOR_START_STATE, firstChar);
+		Lextant punctuator = accepted(state);
+		int end = input.offset();
+		
+		for (int nextState = transition(state, input.peek()); nextState != DEAD_STATE; nextState = transition(state, input.peek())) {
+			input.next();
+			state = nextState;
+			if (accepted(state) != null) {
+				punctuator = accepted(state);
+				end = input.offset();
+			}
+		}
+		
+		if (punctuator == null) {
+			input.reset(start);
+			nextToken = NullToken.make(input.locator(), start);
+		}
+		else {
+			input.reset(end);
+			nextToken = LextantToken.make(input.locator(), start, punctuator.getLexeme(), punctuator);
+		}
+	}
+}
@@ -0,0 +1,472 @@
+package lexicalAnalyzer;
+
+import inputHandler.CharCursor;
+import inputHandler.TextLocation;
+import inputHandler.TextLocator;
+import tokens.CharacterToken;
+import tokens.FloatingToken;
+import tokens.IdentifierToken;
+import tokens.LextantToken;
+import tokens.NullToken;
+import tokens.NumberToken;
+import tokens.Token;
+import tokens.TokenImp;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.List;
+
+/** All the tokens of a scan, held in parallel primitive arrays rather than as Token objects.
+ *  <p>
+ *  Token i is described by its kind, its lextant (for lextant tokens), its offset and
+ *  length in the source text, and its value (the int, double bits, char, or identifier
+ *  symbol).  Tokens are looked at by index, so any token can be inspected in O(1), and a
+ *  Reader over the buffer gives the parser a Scanner with unlimited lookahead and
+ *  mark/reset.  Token objects are made only when a Reader is asked for one.
+ *  <p>
+ *  The buffer ends with the scan's end-of-input token, which is kept as is.
+ *  <p>
+ *  An edit (see IncrementalScan) makes a buffer that takes over the arrays of the one
+ *  edited, which is then superseded: using it throws an IllegalStateException.  The
+ *  arrays then have a gap in them, at the place of the last edit, and the offsets of the
+ *  tokens after the gap are kept as their distance back from the end of the text, so
+ *  that a change in the text's length moves all of them at once.  An edit costs about
+ *  the number of tokens it replaces and the number between it and the edit before.
+ */
+public class TokenBuffer {
+	public static final byte LEXTANT = 0;
+	public static final byte IDENTIFIER = 1;
+	public static final byte NUMBER = 2;
+	public static final byte FLOATING = 3;
+	public static final byte CHARACTER = 4;
+	public static final byte END_OF_INPUT = 5;
+
+	private static final int INITIAL_CAPACITY = 256;
+	private static final Lextant[] LEXTANTS = allLextants();
+
+	private CharCursor input;
+	private byte[] kinds;
+	private short[] lextants;		// index into LEXTANTS
+	private int[] offsets;			// those after the gap less textLength
+	private int[] lengths;
+	private long[] values;
+	private int size;
+	private int gapStart;			// number of tokens before the gap; those after it end the arrays
+	private int textLength;
+	private Token endToken;
+	private boolean endedBeforeEndOfInput;
+	private boolean superseded = false;	// true once an edit has taken over the arrays
+
+	private TokenBuffer(CharCursor input, int capacity) {
+		this.input = input;
+		this.kinds = new byte[capacity];
+		this.lextants = new short[capacity];
+		this.offsets = new int[capacity];
+		this.lengths = new int[capacity];
+		this.values = new long[capacity];
+		this.size = 0;
+		this.gapStart = 0;
+		this.textLength = input.text().length();
+	}
+	// a buffer that takes over the arrays of edited, which is then superseded.
+	private TokenBuffer(TokenBuffer edited) {
+		edited.checkNotSuperseded();
+		this.input = edited.input;
+		this.kinds = edited.kinds;
+		this.lextants = edited.lextants;
+		this.offsets = edited.offsets;
+		this.lengths = edited.lengths;
+		this.values = edited.values;
+		this.size = edited.size;
+		this.gapStart = edited.gapStart;
+		this.textLength = edited.textLength;
+		this.endToken = edited.endToken;
+		this.endedBeforeEndOfInput = edited.endedBeforeEndOfInput;
+		edited.superseded = true;
+	}
+
+	/** Scans the scanner to the end of its input, or to the first NullToken if that comes first. */
+	public static TokenBuffer make(ScannerImp scanner) {
+		TokenBuffer result = new TokenBuffer(scanner.input, INITIAL_CAPACITY);
+		while(scanner.hasNext()) {
+			result.add(scanner.next());
+		}
+		result.endToken = scanner.nextToken;
+		result.endedBeforeEndOfInput = !scanner.input.isEndOfInput(scanner.input.offset());
+		result.ensureCapacity(result.size + 1);
+		result.kinds[result.size] = END_OF_INPUT;
+		result.offsets[result.size] = result.endedBeforeEndOfInput ?
+				((TokenImp)result.endToken).getOffset() : result.textLength;
+		result.size++;
+		result.gapStart++;
+		result.trimToSize();
+		return result;
+	}
+	public static TokenBuffer make(String filename) {
+		return make(JuncoScanner.make(filename));
+	}
+
+	/** Joins buffers scanned from consecutive regions of the given input.
+	 *  The end-of-input token of each buffer but the last is dropped.
+	 */
+	static TokenBuffer concatenate(CharCursor input, List<TokenBuffer> parts) {
+		int capacity = 1;
+		for(TokenBuffer part: parts) {
+			capacity += part.size - 1;
+		}
+		TokenBuffer result = new TokenBuffer(input, capacity);
+		for(TokenBuffer part: parts) {
+			result.copyFrom(part, 0, part.size - 1);
+		}
+		TokenBuffer last = parts.get(parts.size() - 1);
+		result.kinds[result.size] = END_OF_INPUT;
+		result.offsets[result.size] = last.offsets[last.size - 1];
+		result.size++;
+		result.gapStart++;
+		result.endToken = last.endToken;
+		result.endedBeforeEndOfInput = last.endedBeforeEndOfInput;
+		return result;
+	}
+
+	private void add(Token token) {
+		ensureCapacity(size + 1);
+		offsets[size] = ((TokenImp)token).getOffset();
+		lengths[size] = token.getLexeme().length();
+		if(token instanceof LextantToken) {
+			kinds[size] = LEXTANT;
+			lextants[size] = (short)indexOf(((LextantToken)token).getLextant());
+		}
+		else if(token instanceof IdentifierToken) {
+			kinds[size] = IDENTIFIER;
+			values[size] = ((IdentifierToken)token).getSymbol();
+		}
+		else if(token instanceof NumberToken) {
+			kinds[size] = NUMBER;
+			values[size] = ((NumberToken)token).getValue();
+		}
+		else if(token instanceof FloatingToken) {
+			kinds[size] = FLOATING;
+			values[size] = Double.doubleToRawLongBits(((FloatingToken)token).getValue());
+		}
+		else if(token instanceof CharacterToken) {
+			kinds[size] = CHARACTER;
+			values[size] = ((CharacterToken)token).getValue();
+		}
+		else {
+			throw new IllegalArgumentException("TokenBuffer cannot hold token " + token);
+		}
+		size++;
+		gapStart++;
+	}
+	// for a buffer being made, whose gap is at its end.
+	private void trimToSize() {
+		kinds = Arrays.copyOf(kinds, size);
+		lextants = Arrays.copyOf(lextants, size);
+		offsets = Arrays.copyOf(offsets, size);
+		lengths = Arrays.copyOf(lengths, size);
+		values = Arrays.copyOf(values, size);
+	}
+	private void ensureCapacity(int capacity) {
+		if(capacity <= kinds.length) {
+			return;
+		}
+		int newCapacity = Math.max(capacity, kinds.length * 2);
+		kinds = (byte[])grown(kinds, new byte[newCapacity]);
+		lextants = (short[])grown(lextants, new short[newCapacity]);
+		offsets = (int[])grown(offsets, new int[newCapacity]);
+		lengths = (int[])grown(lengths, new int[newCapacity]);
+		values = (long[])grown(values, new long[newCapacity]);
+	}
+	// copies the tokens of array to grown, keeping those after the gap at the end.
+	private Object grown(Object array, Object grown) {
+		int tailLength = size - gapStart;
+		System.arraycopy(array, 0, grown, 0, gapStart);
+		System.arraycopy(array, Array.getLength(array) - tailLength, grown, Array.getLength(grown) - tailLength, tailLength);
+		return grown;
+	}
+	// the index in the arrays of the token at the given index.
+	private int at(int index) {
+		checkNotSuperseded();
+		return index < gapStart ? index : index + kinds.length - size;
+	}
+	private void checkNotSuperseded() {
+		if(superseded) {
+			throw new IllegalStateException("token buffer has been edited, and replaced by the result");
+		}
+	}
+
+
+	//////////////////////////////////////////////////////////////////////////////
+	// access by index.  Indices run from 0 to size()-1; the last is END_OF_INPUT.
+
+	/** Makes the buffer that results from replacing the tokens [first, end) of this one, in its
+	 *  text, with the tokens of middle (except its END_OF_INPUT), in the text of input: the text
+	 *  after an edit whose change in length moves the tokens after them.  If end is size(),
+	 *  middle's END_OF_INPUT is kept instead.  This buffer is superseded by the result.
+	 */
+	TokenBuffer replace(CharCursor input, int first, int end, TokenBuffer middle) {
+		assert middle.gapStart == middle.size;
+		TokenBuffer result = new TokenBuffer(this);
+		boolean middleEnds = end == result.size;
+		int middleCount = middleEnds ? middle.size : middle.size - 1;
+		result.moveGap(first);
+		result.size -= end - first;
+		result.ensureCapacity(result.size + middleCount);
+		result.copyFrom(middle, 0, middleCount);
+		TokenBuffer last = middleEnds ? middle : result;
+		result.endedAt(input, last.endedBeforeEndOfInput, last.endToken);
+		return result;
+	}
+	/** Makes the buffer of the same tokens in input, the text after an edit that comes after all
+	 *  of them: which is to say, after a NullToken at which the scan stopped.  This buffer is
+	 *  superseded by the result.
+	 */
+	TokenBuffer editedAfterEnd(CharCursor input) {
+		assert endedBeforeEndOfInput;
+		TokenBuffer result = new TokenBuffer(this);
+		result.moveGap(result.size);
+		result.endedAt(input, true, result.endToken);
+		return result;
+	}
+	private void endedAt(CharCursor input, boolean endedBeforeEndOfInput, Token endToken) {
+		this.input = input;
+		this.textLength = input.text().length();
+		this.endedBeforeEndOfInput = endedBeforeEndOfInput;
+		this.endToken = endedBeforeEndOfInput ? NullToken.make(input.locator(), offset(size - 1)) : endToken;
+	}
+	// puts the gap just before the token at index, converting the offsets that cross it.
+	private void moveGap(int index) {
+		int gapLength = kinds.length - size;
+		if(index < gapStart) {
+			moveTokens(index, index + gapLength, gapStart - index);
+			for(int i = index + gapLength; i < gapStart + gapLength; i++) {
+				offsets[i] -= textLength;
+			}
+		}
+		else {
+			moveTokens(gapStart + gapLength, gapStart, index - gapStart);
+			for(int i = gapStart; i < index; i++) {
+				offsets[i] += textLength;
+			}
+		}
+		gapStart = index;
+	}
+	private void moveTokens(int from, int to, int count) {
+		System.arraycopy(kinds, from, kinds, to, count);
+		System.arraycopy(lextants, from, lextants, to, count);
+		System.arraycopy(offsets, from, offsets, to, count);
+		System.arraycopy(lengths, from, lengths, to, count);
+		System.arraycopy(values, from, values, to, count);
+	}
+	// appends count tokens of source, from start on, at the gap.  Source has its gap at its end.
+	private void copyFrom(TokenBuffer source, int start, int count) {
+		System.arraycopy(source.kinds, start, kinds, gapStart, count);
+		System.arraycopy(source.lextants, start, lextants, gapStart, count);
+		System.arraycopy(source.offsets, start, offsets, gapStart, count);
+		System.arraycopy(source.lengths, start, lengths, gapStart, count);
+		System.arraycopy(source.values, start, values, gapStart, count);
+		size += count;
+		gapStart += count;
+	}
+
+	/** @return true if the scan stopped at a NullToken before the end of its input. */
+	public boolean endedBeforeEndOfInput() {
+		checkNotSuperseded();
+		return endedBeforeEndOfInput;
+	}
+	/** @return the number of tokens, including the final END_OF_INPUT token. */
+	public int size() {
+		checkNotSuperseded();
+		return size;
+	}
+	public byte kind(int index) {
+		return kinds[at(index)];
+	}
+	/** @return the token's lextant, or null if it is not a lextant token. */
+	public Lextant lextant(int index) {
+		int at = at(index);
+		return kinds[at] == LEXTANT ? LEXTANTS[lextants[at]] : null;
+	}
+	public boolean isLextant(int index, Lextant lextant) {
+		int at = at(index);
+		return kinds[at] == LEXTANT && LEXTANTS[lextants[at]] == lextant;
+	}
+	/** @return the token's offset in the source text. */
+	public int offset(int index) {
+		int at = at(index);
+		return index < gapStart ? offsets[at] : offsets[at] + textLength;
+	}
+	public int intValue(int index) {
+		assert kind(index) == NUMBER;
+		return (int)values[at(index)];
+	}
+	public double floatValue(int index) {
+		assert kind(index) == FLOATING;
+		return Double.longBitsToDouble(values[at(index)]);
+	}
+	public char charValue(int index) {
+		assert kind(index) == CHARACTER;
+		return (char)values[at(index)];
+	}
+	/** @return the identifier's SymbolPool id. */
+	public int symbol(int index) {
+		assert kind(index) == IDENTIFIER;
+		return (int)values[at(index)];
+	}
+	public TextLocation location(int index) {
+		return token(index).getLocation();
+	}
+	/** @return the index of the first token at or after the given offset (the END_OF_INPUT
+	 *  token if there is none).
+	 */
+	public int indexAtOrAfter(int offset) {
+		int low = 0;
+		int high = size - 1;
+		while(low < high) {
+			int middle = (low + high) >>> 1;
+			if(offset(middle) < offset) {
+				low = middle + 1;
+			}
+			else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+	/** @return the cursor on the text the tokens were scanned from. */
+	public CharCursor input() {
+		checkNotSuperseded();
+		return input;
+	}
+
+	/** Makes a Token object for the token at the given index.  Each call makes a new object
+	 *  (except for END_OF_INPUT), equal in every printed detail to the one the scanner made.
+	 */
+	public Token token(int index) {
+		return token(index, input.locator());
+	}
+	/** Makes a Token object for the token at the given index, located by the given locator
+	 *  (rather than that of the input) from its offset.
+	 */
+	public Token token(int index, TextLocator locator) {
+		int offset = offset(index);
+		int at = at(index);
+		switch(kinds[at]) {
+		case LEXTANT:
+			Lextant lextant = LEXTANTS[lextants[at]];
+			return LextantToken.make(locator, offset, lextant.getLexeme(), lextant);
+		case IDENTIFIER:
+			return IdentifierToken.make(locator, offset, (int)values[at]);
+		case NUMBER:
+			return NumberToken.make(locator, offset, lexeme(index), (int)values[at]);
+		case FLOATING:
+			return FloatingToken.make(locator, offset, lexeme(index), Double.longBitsToDouble(values[at]));
+		case CHARACTER:
+			return CharacterToken.make(locator, offset, String.valueOf((char)values[at]));
+		default:
+			return endToken;
+		}
+	}
+	private String lexeme(int index) {
+		int offset = offset(index);
+		return input.lexeme(offset, offset + lengths[at(index)]);
+	}
+
+
+	//////////////////////////////////////////////////////////////////////////////
+	// lextant numbering
+
+	private static Lextant[] allLextants() {
+		Keyword[] keywords = Keyword.values();
+		Punctuator[] punctuators = Punctuator.values();
+		Lextant[] result = new Lextant[keywords.length + punctuators.length];
+		System.arraycopy(keywords, 0, result, 0, keywords.length);
+		System.arraycopy(punctuators, 0, result, keywords.length, punctuators.length);
+		return result;
+	}
+	private static int indexOf(Lextant lextant) {
+		if(lextant instanceof Keyword) {
+			return ((Keyword)lextant).ordinal();
+		}
+		return Keyword.values().length + ((Punctuator)lextant).ordinal();
+	}
+
+
+	//////////////////////////////////////////////////////////////////////////////
+	// Reader: the adapter through which a parser consumes the buffer.
+
+	/** @return a new Reader positioned at the first token. */
+	public Reader reader() {
+		checkNotSuperseded();
+		return new Reader(0, size - 1, input.locator());
+	}
+	/** @return a new Reader over tokens <code>start</code> up to (not including) <code>end</code>,
+	 *  which then reads the end-of-input token, as if the input ended there.
+	 */
+	public Reader reader(int start, int end) {
+		return reader(start, end, input.locator());
+	}
+	/** @return a new Reader over tokens <code>start</code> up to (not including) <code>end</code>,
+	 *  whose tokens are located by the given locator.
+	 */
+	public Reader reader(int start, int end, TextLocator locator) {
+		checkNotSuperseded();
+		assert 0 <= start && start <= end && end < size;
+		return new Reader(start, end, locator);
+	}
+
+	/** A Scanner over a TokenBuffer.  Reading past the end returns the END_OF_INPUT token
+	 *  again, as a ScannerImp does.
+	 */
+	public class Reader implements Scanner {
+		private int position;
+		private final int end;			// index at which the END_OF_INPUT token is read
+		private final TextLocator locator;
+
+		private Reader(int start, int end, TextLocator locator) {
+			this.position = start;
+			this.end = end;
+			this.locator = locator;
+		}
+
+		/** @return the index of the token that <code>next()</code> will return. */
+		public int position() {
+			return position;
+		}
+		public TokenBuffer buffer() {
+			return TokenBuffer.this;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return position < end;
+		}
+		@Override
+		public Token next() {
+			if(position == end) {
+				return endToken;
+			}
+			return token(position++, locator);
+		}
+		/** @return the index of the token k tokens past the next one (peek(0) is the next token's index).
+		 *  Past the end of the reader, this is the index of the END_OF_INPUT token.
+		 */
+		public int peek(int k) {
+			return position + k < end ? position + k : size - 1;
+		}
+
+		/** @return a mark that <code>reset</code> returns to. */
+		public int mark() {
+			return position;
+		}
+		public void reset(int mark) {
+			assert 0 <= mark && mark < size;
+			position = mark;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
+}
@@ -0,0 +1,149 @@
+package lexicalAnalyzer.tests;
+
+import inputHandler.InputHandler;
+import lexicalAnalyzer.IncrementalScan;
+import lexicalAnalyzer.JuncoScanner;
+import lexicalAnalyzer.TokenBuffer;
+
+import java.util.Random;
+
+import tests.TestSupport.LogCapture;
+
+import junit.framework.TestCase;
+
+public class TestIncrementalScan extends TestCase {
+	private static final String[] PIECES = {
+		"box", "main", "{", "}", "const", "x", "<-", "<", "-", "12", "-3", "4.5e-2", "7.", "'c", "'", "?",
+		"** comment **", "** to end", "*", "a-long-identifier", ";", "print", "1.5e", "=", "\n", "\r", "\r\n", " ",
+	};
+	private LogCapture lexicalErrors;
+	
+	@Override
+	protected void setUp() {
+		lexicalErrors = new LogCapture("compiler.lexicalAnalyzer");
+	}
+	@Override
+	protected void tearDown() {
+		lexicalErrors.detach();
+	}
+	
+	public void testInsertWithinLine() {
+		IncrementalScan scan = assertRelexMatchesScan("box main {\n  const x <- 1;\n  print x;\n}\n", 24, 0, "2 + 3 + ");
+		assertEquals(3, scan.firstChangedToken());
+		assertEquals(8, scan.endOfRemovedTokens());
+		assertEquals(12, scan.endOfInsertedTokens());
+	}
+	public void testJoinAndSplitLines() {
+		String text = "a b\nc d\r\ne f\rg h\n";
+		for(int offset = 0; offset <= text.length(); offset++) {
+			assertRelexMatchesScan(text, offset, 0, "\n");
+			assertRelexMatchesScan(text, offset, 0, "\r");
+			if(offset < text.length()) {
+				assertRelexMatchesScan(text, offset, 1, "");
+			}
+		}
+	}
+	public void testScanThatStopsEarly() {
+		String text = "a\nb = c\nd\n";
+		for(int offset = 0; offset <= text.length(); offset++) {
+			assertRelexMatchesScan(text, offset, 0, "x");
+			assertRelexMatchesScan(text, offset, 0, "=");
+			assertRelexMatchesScan(text, offset, 0, "==");
+		}
+		assertRelexMatchesScan(text, 4, 1, "<-");
+	}
+	public void testRandomEdits() {
+		Random random = new Random(12);
+		for(int trial = 0; trial < 2000; trial++) {
+			String text = randomText(random, random.nextInt(60));
+			int offset = random.nextInt(text.length() + 1);
+			int removedLength = random.nextInt(text.length() - offset + 1);
+			assertRelexMatchesScan(text, offset, Math.min(removedLength, 8), randomText(random, random.nextInt(4)));
+		}
+	}
+	public void testEditRescansOnlyItsLine() {
+		StringBuilder text = new StringBuilder();
+		for(int i = 0; i < 1000; i++) {
+			text.append("x").append(i).append(" <- x + 1;\n");
+		}
+		int offset = text.indexOf("x500 ") + 2;
+		IncrementalScan scan = assertRelexMatchesScan(text.toString(), offset, 0, "7 + y");
+		assertTrue(scan.endOfInsertedTokens() - scan.firstChangedToken() < 20);
+	}
+	
+	public void testRunOfEdits() {
+		Random random = new Random(14);
+		for(int trial = 0; trial < 50; trial++) {
+			TokenBuffer tokens = scan(randomText(random, 40));
+			for(int edit = 0; edit < 40; edit++) {
+				String text = tokens.input().text().toString();
+				int offset = random.nextInt(text.length() + 1);
+				int removedLength = Math.min(random.nextInt(text.length() - offset + 1), 8);
+				tokens = assertRelexMatchesScan(tokens, offset, removedLength, randomText(random, random.nextInt(4))).tokens();
+			}
+		}
+	}
+	public void testEditedTokensAreSuperseded() {
+		TokenBuffer previous = scan("a b\nc d\n");
+		TokenBuffer tokens = IncrementalScan.relex(previous, 2, 0, "x ").tokens();
+		assertEquals(6, tokens.size());
+		try {
+			IncrementalScan.relex(previous, 0, 0, "\n");
+			fail("edited a superseded buffer");
+		}
+		catch(IllegalStateException expected) {
+		}
+		try {
+			previous.token(0);
+			fail("read a superseded buffer");
+		}
+		catch(IllegalStateException expected) {
+		}
+		assertEquals("a b\nc d\n".length() + 2, tokens.input().text().length());
+	}
+	
+	private IncrementalScan assertRelexMatchesScan(String text, int offset, int removedLength, String inserted) {
+		return assertRelexMatchesScan(scan(text), offset, removedLength, inserted);
+	}
+	private IncrementalScan assertRelexMatchesScan(TokenBuffer previous, int offset, int removedLength, String inserted) {
+		String text = previous.input().text().toString();
+		String[] previousTokens = fullStrings(previous);
+		IncrementalScan scan = IncrementalScan.relex(previous, offset, removedLength, inserted);
+		String editedText = text.substring(0, offset) + inserted + text.substring(offset + removedLength);
+		TokenBuffer expected = scan(editedText);
+		TokenBuffer actual = scan.tokens();
+		String edit = "edit " + offset + "," + removedLength + "," + inserted + " of " + text;
+		
+		assertEquals(edit, expected.size(), actual.size());
+		for(int i = 0; i < expected.size(); i++) {
+			assertEquals(edit, expected.token(i).fullString(), actual.token(i).fullString());
+		}
+		assertEquals(edit, expected.endedBeforeEndOfInput(), actual.endedBeforeEndOfInput());
+		assertEquals(edit, previousTokens.length - scan.endOfRemovedTokens(), actual.size() - scan.endOfInsertedTokens());
+		for(int i = 0; i < scan.firstChangedToken(); i++) {
+			assertEquals(edit, previousTokens[i], actual.token(i).fullString());
+		}
+		return scan;
+	}
+	// taken before an edit, which supersedes the buffer.
+	private String[] fullStrings(TokenBuffer tokens) {
+		String[] result = new String[tokens.size()];
+		for(int i = 0; i < result.length; i++) {
+			result[i] = tokens.token(i).fullString();
+		}
+		return result;
+	}
+	private TokenBuffer scan(String text) {
+		return TokenBuffer.make(JuncoScanner.make(InputHandler.fromCharSequence("text", text)));
+	}
+	private String randomText(Random random, int numPieces) {
+		StringBuilder result = new StringBuilder();
+		for(int i = 0; i < numPieces; i++) {
+			result.append(PIECES[random.nextInt(PIECES.length)]);
+			if(random.nextBoolean()) {
+				result.append(' ');
+			}
+		}
+		return result.toString();
+	}
+}
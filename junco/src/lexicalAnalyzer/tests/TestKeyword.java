@@ -0,0 +1,23 @@
+package lexicalAnalyzer.tests;
+
+import lexicalAnalyzer.Keyword;
+import junit.framework.TestCase;
+
+public class TestKeyword extends TestCase {
+	public void testEveryKeywordIsFound() {
+		for(Keyword keyword: Keyword.values()) {
+			assertSame(keyword, Keyword.forLexeme(keyword.getLexeme()));
+		}
+	}
+	public void testSlicesAreFound() {
+		assertSame(Keyword.WHILE, Keyword.forLexeme("do while(x)", 3, 8));
+		assertSame(Keyword.NULL_KEYWORD, Keyword.forLexeme("do while(x)", 4, 8));
+	}
+	public void testNonKeywordsAreNotFound() {
+		String[] nonKeywords = { "prints", "prin", "Print", "iff", "i", "n", "els", "returns", "x", "updat", "continue-" };
+		for(String lexeme: nonKeywords) {
+			assertSame(Keyword.NULL_KEYWORD, Keyword.forLexeme(lexeme));
+			assertFalse(Keyword.isAKeyword(lexeme));
+		}
+	}
+}
@@ -0,0 +1,64 @@
+package lexicalAnalyzer.tests;
+
+import inputHandler.InputHandler;
+import lexicalAnalyzer.JuncoScanner;
+import tokens.FloatingToken;
+import tokens.NumberToken;
+import tokens.Token;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+public class TestNumberScanning extends TestCase {
+	public void testIntegers() {
+		String[] lexemes = { "0", "7", "-7", "007", "2147483647", "-2147483648", "\u0663\u0664" };
+		for(String lexeme: lexemes) {
+			assertEquals(Integer.parseInt(lexeme), intValueOf(lexeme));
+		}
+	}
+	public void testIntegerOverflowIsClamped() {
+		assertEquals(Integer.MAX_VALUE, intValueOf("2147483648"));
+		assertEquals(Integer.MIN_VALUE, intValueOf("-2147483649"));
+		assertEquals(Integer.MAX_VALUE, intValueOf("99999999999999999999"));
+	}
+	public void testFloats() {
+		String[] lexemes = { "0.0", "-0.0", "1.5", "-1.5", "0.1", "3.14159", "6.25e7", "8.5e-2", "1.0e22", "1.0e23",
+				"0.000000000000000000000001", "123456789012345.6", "1234567890123456789.0", "4.9e-324",
+				"1.7976931348623157e308", "2.2250738585072014e-308", "9007199254740993.0", "1.0e400", "1.0e-400" };
+		for(String lexeme: lexemes) {
+			assertEquals(lexeme, Double.parseDouble(lexeme), floatValueOf(lexeme));
+		}
+	}
+	public void testRandomFloatsMatchParseDouble() {
+		Random random = new Random(8);
+		for(int i = 0; i < 10000; i++) {
+			StringBuilder lexeme = new StringBuilder();
+			lexeme.append(random.nextInt(100000));
+			lexeme.append('.');
+			lexeme.append(random.nextInt(1000000000));
+			if(random.nextBoolean()) {
+				lexeme.append(random.nextBoolean() ? "e-" : "e").append(random.nextInt(40));
+			}
+			String text = lexeme.toString();
+			assertEquals(text, Double.parseDouble(text), floatValueOf(text));
+		}
+	}
+	
+	private int intValueOf(String lexeme) {
+		Token token = onlyToken(lexeme);
+		assertTrue(lexeme, token instanceof NumberToken);
+		assertEquals(lexeme, token.getLexeme());
+		return ((NumberToken)token).getValue();
+	}
+	private double floatValueOf(String lexeme) {
+		Token token = onlyToken(lexeme);
+		assertTrue(lexeme, token instanceof FloatingToken);
+		assertEquals(lexeme, token.getLexeme());
+		return ((FloatingToken)token).getValue();
+	}
+	private Token onlyToken(String lexeme) {
+		JuncoScanner scanner = JuncoScanner.make(InputHandler.fromCharSequence("text", lexeme));
+		return scanner.next();
+	}
+}
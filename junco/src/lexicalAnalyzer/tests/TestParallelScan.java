@@ -0,0 +1,67 @@
+package lexicalAnalyzer.tests;
+
+import inputHandler.CharBufferInputHandler;
+import inputHandler.InputHandler;
+import lexicalAnalyzer.JuncoScanner;
+import lexicalAnalyzer.TokenBuffer;
+
+import java.util.List;
+import java.util.Random;
+
+import static tests.TestSupport.COIN_TEST_FILENAME;
+import tests.TestSupport.LogCapture;
+
+import junit.framework.TestCase;
+
+public class TestParallelScan extends TestCase {
+	private static final String[] PIECES = {
+		"box", "main", "{", "}", "const", "x", "<-", "12", "-3", "4.5e-2", "7.", "'c", "'", "?", "%%",
+		"** comment **", "** to end of line", "*", "a-long-identifier", ";", "print", "1.5e", " ", " ",
+	};
+	private static final String[] TERMINATORS = { "\n", "\r\n", "\r" };
+	
+	public void testFixtureFile() {
+		CharBufferInputHandler handler = InputHandler.fromMappedFile(COIN_TEST_FILENAME);
+		for(int chunkLength = 1; chunkLength < 200; chunkLength += 7) {
+			assertSameScan(handler, chunkLength);
+		}
+	}
+	public void testRandomText() {
+		Random random = new Random(11);
+		for(int trial = 0; trial < 40; trial++) {
+			StringBuilder text = new StringBuilder();
+			int numPieces = random.nextInt(400);
+			for(int i = 0; i < numPieces; i++) {
+				text.append(random.nextInt(6) == 0 ? TERMINATORS[random.nextInt(TERMINATORS.length)] : " ");
+				text.append(PIECES[random.nextInt(PIECES.length)]);
+			}
+			CharBufferInputHandler handler = InputHandler.fromCharSequence("text", text);
+			assertSameScan(handler, 1 + random.nextInt(100));
+		}
+	}
+	public void testScanStopsAtNullToken() {
+		assertSameScan(InputHandler.fromCharSequence("text", "a\nb ?\nc = d ?\ne ?\n"), 2);
+	}
+	public void testEmptyInput() {
+		assertSameScan(InputHandler.fromCharSequence("text", ""), 1);
+	}
+	
+	private void assertSameScan(CharBufferInputHandler handler, int chunkLength) {
+		LogCapture errors = new LogCapture("compiler.lexicalAnalyzer");
+		try {
+			TokenBuffer expected = TokenBuffer.make(JuncoScanner.make(handler));
+			List<String> expectedErrors = errors.take();
+			TokenBuffer actual = JuncoScanner.scanInParallel(handler, chunkLength);
+			List<String> actualErrors = errors.take();
+			
+			assertEquals(expectedErrors, actualErrors);
+			assertEquals(expected.size(), actual.size());
+			for(int i = 0; i < expected.size(); i++) {
+				assertEquals(expected.token(i).fullString(), actual.token(i).fullString());
+			}
+		}
+		finally {
+			errors.detach();
+		}
+	}
+}
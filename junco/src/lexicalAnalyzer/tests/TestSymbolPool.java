@@ -0,0 +1,62 @@
+package lexicalAnalyzer.tests;
+
+import lexicalAnalyzer.SymbolPool;
+import junit.framework.TestCase;
+
+public class TestSymbolPool extends TestCase {
+	public void testSameLexemeSameId() {
+		int id = SymbolPool.idOf("testSameLexemeSameId");
+		assertEquals(id, SymbolPool.idOf(new String("testSameLexemeSameId")));
+		assertEquals(id, SymbolPool.idOf("xx testSameLexemeSameId yy", 3, 23));
+	}
+	public void testDifferentLexemesDifferentIds() {
+		int first = SymbolPool.idOf("testDifferent1");
+		int second = SymbolPool.idOf("testDifferent2");
+		assertTrue(first != second);
+		assertEquals("testDifferent1", SymbolPool.lexemeOf(first));
+		assertEquals("testDifferent2", SymbolPool.lexemeOf(second));
+	}
+	public void testLexemesAreSharedAndInterned() {
+		int id = SymbolPool.idOf(new String("testShared"));
+		assertSame(SymbolPool.lexemeOf(id), SymbolPool.lexemeOf(SymbolPool.idOf("a testShared", 2, 12)));
+		assertSame("testShared", SymbolPool.lexemeOf(id));
+	}
+	public void testIdsAreDenseAcrossGrowth() {
+		int before = SymbolPool.size();
+		for(int i = 0; i < 5000; i++) {
+			assertEquals(before + i, SymbolPool.idOf("testDense" + i));
+		}
+		for(int i = 0; i < 5000; i++) {
+			assertEquals(before + i, SymbolPool.idOf("testDense" + i));
+		}
+	}
+	public void testThreadsAgreeOnIds() throws InterruptedException {
+		final int numThreads = 8;
+		final int numLexemes = 20000;
+		final int[][] ids = new int[numThreads][numLexemes];
+		int before = SymbolPool.size();
+		Thread[] threads = new Thread[numThreads];
+		for(int t = 0; t < numThreads; t++) {
+			final int thread = t;
+			threads[t] = new Thread() {
+				public void run() {
+					for(int i = 0; i < numLexemes; i++) {
+						int lexeme = (i + thread * 997) % numLexemes;		// each thread in its own order
+						ids[thread][lexeme] = SymbolPool.idOf("testThreads" + lexeme);
+					}
+				}
+			};
+			threads[t].start();
+		}
+		for(Thread thread: threads) {
+			thread.join();
+		}
+		assertEquals(before + numLexemes, SymbolPool.size());
+		for(int i = 0; i < numLexemes; i++) {
+			for(int t = 1; t < numThreads; t++) {
+				assertEquals(ids[0][i], ids[t][i]);
+			}
+			assertEquals("testThreads" + i, SymbolPool.lexemeOf(ids[0][i]));
+		}
+	}
+}
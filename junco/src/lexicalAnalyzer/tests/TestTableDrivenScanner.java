@@ -0,0 +1,73 @@
+package lexicalAnalyzer.tests;
+
+import inputHandler.InputHandler;
+import lexicalAnalyzer.JuncoScanner;
+import lexicalAnalyzer.ScanTranscript;
+import lexicalAnalyzer.Scanner;
+import lexicalAnalyzer.TableDrivenScanner;
+
+import java.util.List;
+
+import static tests.TestSupport.COIN_TEST_FILENAME;
+
+import junit.framework.TestCase;
+
+public class TestTableDrivenScanner extends TestCase {
+	public void testFixtureFile() {
+		assertSameScan(JuncoScanner.make(COIN_TEST_FILENAME), TableDrivenScanner.make(COIN_TEST_FILENAME));
+	}
+	public void testComments() {
+		assertSameScan("a ** comment ** b ** to end of line\r\nc *** d ** e **** f **\n** last");
+	}
+	public void testNumbers() {
+		assertSameScan("12 -3 - 4 4.5 6.25e7 8.5e-2 9.e1 10. 11.5e 12.5e- 13-14 \u0663\u0664");
+	}
+	public void testNumbersOutOfRange() {
+		assertSameScan("2147483647 -2147483648 2147483648 -2147483649 99999999999999999999 1.0e400 1.0e-400");
+	}
+	public void testCharacters() {
+		assertSameScan("'a' '' ' '~ '\u00e9 '\n'");
+	}
+	public void testIdentifiersAndKeywords() {
+		assertSameScan("if iffy else-if _x #y a-1 const constant \u00e9t\u00e9 " +
+				"averyveryveryveryveryveryverylongidentifierthatistoolong");
+	}
+	public void testPunctuators() {
+		assertSameScan("::i ::f : :x <- <= <> < >= > {[ ]} { } [ ] && & || | ! . , ; $ @ + * / ( )");
+	}
+	public void testInvalidCharacters() {
+		assertSameScan("a ? b ~ \u0000 c ` d");
+	}
+	public void testRunsOfInvalidCharacters() {
+		assertSameScan("a ?? b ? ~\n` c %%%%' d ?");
+	}
+	public void testLongRunOfInvalidCharactersIsOneError() {
+		StringBuilder text = new StringBuilder("a ");
+		for(int i = 0; i < 100000; i++) {
+			text.append(i % 10 == 0 ? ' ' : '?');
+		}
+		text.append("b");
+		List<String> lines = ScanTranscript.of(JuncoScanner.make(InputHandler.fromCharSequence("text", text)));
+		assertEquals(4, lines.size());
+		assertTrue(lines.get(0), lines.get(0).startsWith("error: Lexical error: 90000 invalid characters"));
+		assertSameScan(text.toString());
+	}
+	public void testPunctuatorPrefixThatIsNotAPunctuator() {
+		assertSameScan("a == b = c");
+	}
+	public void testEmptyInput() {
+		assertSameScan("");
+	}
+	public void testNoFinalTerminator() {
+		assertSameScan("a ** comment");
+	}
+	
+	
+	private void assertSameScan(String text) {
+		assertSameScan(JuncoScanner.make(InputHandler.fromCharSequence("text", text)),
+				       TableDrivenScanner.make(InputHandler.fromCharSequence("text", text)));
+	}
+	private void assertSameScan(Scanner expected, Scanner actual) {
+		assertEquals(ScanTranscript.of(expected), ScanTranscript.of(actual));
+	}
+}
@@ -0,0 +1,65 @@
+package lexicalAnalyzer.tests;
+
+import inputHandler.InputHandler;
+import lexicalAnalyzer.JuncoScanner;
+import lexicalAnalyzer.Keyword;
+import lexicalAnalyzer.Punctuator;
+import lexicalAnalyzer.TokenBuffer;
+import parseTree.ParseTreePrinter;
+import parser.JuncoParser;
+import tokens.Token;
+
+import static tests.TestSupport.COIN_TEST_FILENAME;
+
+import junit.framework.TestCase;
+
+public class TestTokenBuffer extends TestCase {
+	public void testTokensMatchScanner() {
+		JuncoScanner scanner = JuncoScanner.make(COIN_TEST_FILENAME);
+		TokenBuffer.Reader reader = TokenBuffer.make(COIN_TEST_FILENAME).reader();
+		while(scanner.hasNext()) {
+			assertTrue(reader.hasNext());
+			assertEquals(scanner.next().fullString(), reader.next().fullString());
+		}
+		assertFalse(reader.hasNext());
+		assertEquals(scanner.next().fullString(), reader.next().fullString());
+	}
+	public void testLiteralValues() {
+		TokenBuffer buffer = bufferOf("x <- 12 + 2.5e1 * 'c ; box");
+		assertEquals(10, buffer.size());
+		assertEquals(TokenBuffer.IDENTIFIER, buffer.kind(0));
+		assertEquals("x", buffer.token(0).getLexeme());
+		assertTrue(buffer.isLextant(1, Punctuator.ASSIGN));
+		assertEquals(12, buffer.intValue(2));
+		assertEquals(25.0, buffer.floatValue(4));
+		assertEquals('c', buffer.charValue(6));
+		assertSame(Keyword.BOX, buffer.lextant(8));
+		assertEquals(TokenBuffer.END_OF_INPUT, buffer.kind(9));
+		assertEquals(19, buffer.offset(6));
+	}
+	public void testPeekMarkAndReset() {
+		TokenBuffer buffer = bufferOf("a b c");
+		TokenBuffer.Reader reader = buffer.reader();
+		assertEquals(2, reader.peek(2));
+		assertEquals(3, reader.peek(10));
+		reader.next();
+		int mark = reader.mark();
+		assertEquals("b", reader.next().getLexeme());
+		assertEquals("c", reader.next().getLexeme());
+		reader.reset(mark);
+		assertEquals("b", reader.next().getLexeme());
+		reader.next();
+		Token end = reader.next();
+		assertSame(end, reader.next());
+		assertFalse(reader.hasNext());
+	}
+	public void testParserReadsBuffer() {
+		String expected = ParseTreePrinter.print(JuncoParser.parse(JuncoScanner.make(COIN_TEST_FILENAME)));
+		String actual = ParseTreePrinter.print(JuncoParser.parse(TokenBuffer.make(COIN_TEST_FILENAME)));
+		assertEquals(expected, actual);
+	}
+	
+	private TokenBuffer bufferOf(String text) {
+		return TokenBuffer.make(JuncoScanner.make(InputHandler.fromCharSequence("text", text)));
+	}
+}
@@ -29,6 +29,10 @@ public class JuncoLogger {
 	public static boolean hasErrors() {
 		return numMessages != 0;
 	}
+	/** @return the number of messages logged so far, by all loggers. */
+	public static int numMessages() {
+		return numMessages;
+	}
 	public static void setMaximumErrorMessages(int numMessages) {
 		maxMessagesBeforeQuit = numMessages;
 	}
@@ -0,0 +1,50 @@
+package parseTree;
+
+import parseTree.nodeTypes.BodyNode;
+import parseTree.nodeTypes.BoxBodyNode;
+import parseTree.nodeTypes.FunctionDeclNode;
+import parseTree.nodeTypes.ProgramNode;
+import parseTree.nodeTypes.ValueBodyNode;
+
+/** The nodes that enclose the inside of a region node: one whose class bears a scope.
+ *  <p>
+ *  Every node below a region node, down to the next region nodes, is enclosed by the
+ *  same nodes, so they all share one Enclosure, which the region node holds.  The
+ *  Enclosure of the region node itself is <code>outer</code>, the one of the region
+ *  above it (or OUTSIDE, at the root).
+ */
+final class Enclosure {
+	static final Enclosure OUTSIDE = new Enclosure(null, null, null, null, null);
+
+	final Enclosure outer;
+	final ParseNode scopeNode;			// the region node
+	final BoxBodyNode box;
+	final FunctionDeclNode function;
+	final ProgramNode program;
+
+	private Enclosure(Enclosure outer, ParseNode scopeNode, BoxBodyNode box, FunctionDeclNode function,
+			ProgramNode program) {
+		this.outer = outer;
+		this.scopeNode = scopeNode;
+		this.box = box;
+		this.function = function;
+		this.program = program;
+	}
+
+	/** @return the Enclosure of the inside of region, which is enclosed by outer. */
+	static Enclosure inside(ParseNode region, Enclosure outer) {
+		return new Enclosure(outer, region,
+				region instanceof BoxBodyNode ? (BoxBodyNode) region : outer.box,
+				region instanceof FunctionDeclNode ? (FunctionDeclNode) region : outer.function,
+				region instanceof ProgramNode ? (ProgramNode) region : outer.program);
+	}
+
+	/** @return true if nodes of the node's class bear a scope, once semantic analysis gives them one. */
+	static boolean isRegion(ParseNode node) {
+		return node instanceof ProgramNode
+				|| node instanceof BoxBodyNode
+				|| node instanceof FunctionDeclNode
+				|| node instanceof BodyNode
+				|| node instanceof ValueBodyNode;
+	}
+}
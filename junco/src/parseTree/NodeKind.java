@@ -0,0 +1,65 @@
+package parseTree;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import parseTree.nodeTypes.*;
+import tokens.Token;
+
+/** The classes of ParseNode, numbered for the stores that hold a node's class as a
+ *  number: a node's kind is the ordinal of its class here.  New kinds go at the end,
+ *  so that the numbers in ParseTreeSerializer's files keep their meaning.
+ */
+enum NodeKind {
+	PROGRAM(ProgramNode.class)						{ ParseNode make(Token token) { return new ProgramNode(token); } },
+	BOX_BODY(BoxBodyNode.class)						{ ParseNode make(Token token) { return new BoxBodyNode(token); } },
+	BODY(BodyNode.class)							{ ParseNode make(Token token) { return new BodyNode(token); } },
+	VALUE_BODY(ValueBodyNode.class)					{ ParseNode make(Token token) { return new ValueBodyNode(token); } },
+	DECLARATION(DeclarationNode.class)				{ ParseNode make(Token token) { return new DeclarationNode(token); } },
+	UPDATE_STATEMENT(UpdateStatementNode.class)		{ ParseNode make(Token token) { return new UpdateStatementNode(token); } },
+	PRINT_STATEMENT(PrintStatementNode.class)		{ ParseNode make(Token token) { return new PrintStatementNode(token); } },
+	IF_STATEMENT(IfStatementNode.class)				{ ParseNode make(Token token) { return new IfStatementNode(token); } },
+	WHILE_STATEMENT(WhileStatementNode.class)		{ ParseNode make(Token token) { return new WhileStatementNode(token); } },
+	RETURN_STATEMENT(ReturnStatementNode.class)		{ ParseNode make(Token token) { return new ReturnStatementNode(token); } },
+	BREAK_STATEMENT(BreakStatementNode.class)		{ ParseNode make(Token token) { return new BreakStatementNode(token); } },
+	CALL_STATEMENT(CallStatementNode.class)			{ ParseNode make(Token token) { return new CallStatementNode(token); } },
+	FUNCTION_DECL(FunctionDeclNode.class)			{ ParseNode make(Token token) { return new FunctionDeclNode(token); } },
+	PARAMETER_LIST(ParameterListNode.class)			{ ParseNode make(Token token) { return new ParameterListNode(token); } },
+	FUNCTION_INVOCATION(FunctionInvocationNode.class) { ParseNode make(Token token) { return new FunctionInvocationNode(token); } },
+	EXPRESSION_LIST(ExpressionListNode.class)		{ ParseNode make(Token token) { return new ExpressionListNode(token); } },
+	BINARY_OPERATOR(BinaryOperatorNode.class)		{ ParseNode make(Token token) { return new BinaryOperatorNode(token); } },
+	UNARY_OPERATOR(UniaryOperatorNode.class)		{ ParseNode make(Token token) { return new UniaryOperatorNode(token); } },
+	MEMBER_ACCESS(MemberAccessNode.class)			{ ParseNode make(Token token) { return new MemberAccessNode(token); } },
+	IDENTIFIER(IdentifierNode.class)				{ ParseNode make(Token token) { return new IdentifierNode(token); } },
+	INT_NUMBER(IntNumberNode.class)					{ ParseNode make(Token token) { return new IntNumberNode(token); } },
+	FLOAT_NUMBER(FloatNumberNode.class)				{ ParseNode make(Token token) { return new FloatNumberNode(token); } },
+	CHARACTER(CharacterNode.class)					{ ParseNode make(Token token) { return new CharacterNode(token); } },
+	BOOLEAN_CONSTANT(BooleanConstantNode.class)		{ ParseNode make(Token token) { return new BooleanConstantNode(token); } },
+	ERROR(ErrorNode.class)							{ ParseNode make(Token token) { return new ErrorNode(token); } };
+
+	private static final NodeKind[] KINDS = values();
+	private static final Map<Class<?>, NodeKind> KIND_OF_CLASS = new HashMap<Class<?>, NodeKind>();
+	static {
+		for(NodeKind kind: KINDS) {
+			KIND_OF_CLASS.put(kind.nodeClass, kind);
+		}
+	}
+	final Class<? extends ParseNode> nodeClass;
+
+	private NodeKind(Class<? extends ParseNode> nodeClass) {
+		this.nodeClass = nodeClass;
+	}
+	abstract ParseNode make(Token token);
+
+	static NodeKind of(ParseNode node) {
+		NodeKind result = KIND_OF_CLASS.get(node.getClass());
+		if(result == null) {
+			throw new IllegalArgumentException("no kind for " + node.getClass().getSimpleName());
+		}
+		return result;
+	}
+	/** @return the kind with the given ordinal, or null if there is none. */
+	static NodeKind of(int ordinal) {
+		return 0 <= ordinal && ordinal < KINDS.length ? KINDS[ordinal] : null;
+	}
+}
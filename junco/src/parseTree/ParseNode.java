@@ -1,7 +1,10 @@
 package parseTree;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import parseTree.nodeTypes.BoxBodyNode;
+import parseTree.nodeTypes.FunctionDeclNode;
 import parseTree.nodeTypes.ProgramNode;
 
 import semanticAnalyzer.PrimitiveType;
@@ -13,6 +16,8 @@ import tokens.Token;
 
 public class ParseNode {
 	public static final ParseNode NO_PARENT = null;
+	private static final int MAX_NODES_IN_STRING = 1000;
+	private static final int INITIAL_PATH_SIZE = 32;
 	
 	List<ParseNode>	children;
 	ParseNode parent;
@@ -23,6 +28,7 @@ public class ParseNode {
 	protected Token token;
 	Type type;					// used for expressions
 	private Scope scope;		// the scope created by this node, if any.
+	private Enclosure enclosure;	// of this node's children, or null until asked for (see childEnclosure)
 
 	public ParseNode(Token token) {
 		this.token = token;
@@ -81,16 +87,19 @@ public class ParseNode {
 	public Scope getScope() {
 		return scope;
 	}
+	// only the classes of Enclosure.isRegion bear scopes.
 	public void setScope(Scope scope) {
+		assert Enclosure.isRegion(this);
 		this.scope = scope;
 	}
 	public boolean hasScope() {
 		return scope != null;
 	}
+	// the scope of the nearest ancestor that has one.
 	public Scope getLocalScope() {
-		for(ParseNode current : pathToRoot()) {
-			if(current.hasScope()) {
-				return current.getScope();
+		for(Enclosure current = ownEnclosure(); current.scopeNode != null; current = current.outer) {
+			if(current.scopeNode.hasScope()) {
+				return current.scopeNode.getScope();
 			}
 		}
 		return Scope.nullInstance();
@@ -109,25 +118,100 @@ public class ParseNode {
 		SymbolTable symbolTable = scope.getSymbolTable();
 		return symbolTable.lookup(identifier);
 	}
+	// the same two, by SymbolPool id.
+	public boolean containsBindingOf(int symbol) {
+		if(!hasScope()) {
+			return false;
+		}
+		SymbolTable symbolTable = scope.getSymbolTable();
+		return symbolTable.containsKey(symbol);
+	}
+	public Binding bindingOf(int symbol) {
+		if(!hasScope()) {
+			return Binding.nullInstance();
+		}
+		SymbolTable symbolTable = scope.getSymbolTable();
+		return symbolTable.lookup(symbol);
+	}
 	public Scope getTopScope() {
-		ParseNode parent = this.getParent();
+		ProgramNode program = getProgramNode();
+		return program == null ? Scope.nullInstance() : program.getScope();
+	}
+	
+////////////////////////////////////////////////////////////////////////////////////
+// enclosing nodes
+//
+// each of these is the nearest ancestor (not this node) of its kind, or null if there
+// is none.  The answers are found once for each region of the tree (see Enclosure) and
+// kept, so each costs a field read or two; moving a subtree with setParent forgets them
+// for the subtree, and they are found again when next asked for.
 
-		while (!(parent instanceof ProgramNode)) {
-			parent = parent.getParent();
+	/** @return the nearest ancestor of a class that bears a scope, whether or not it has one yet. */
+	public ParseNode getScopeNode() {
+		return ownEnclosure().scopeNode;
+	}
+	public BoxBodyNode getEnclosingBox() {
+		return ownEnclosure().box;
+	}
+	public FunctionDeclNode getEnclosingFunction() {
+		return ownEnclosure().function;
+	}
+	public ProgramNode getProgramNode() {
+		return ownEnclosure().program;
+	}
+	
+	private Enclosure ownEnclosure() {
+		return parent == NO_PARENT ? Enclosure.OUTSIDE : parent.childEnclosure();
+	}
+	// finds the enclosures of this node and of the ancestors up to the nearest that has
+	// one, without recursion.  So a node has an enclosure only if its parent does.
+	private Enclosure childEnclosure() {
+		if(enclosure != null) {
+			return enclosure;
+		}
+		List<ParseNode> missing = new ArrayList<ParseNode>();
+		ParseNode node = this;
+		while(node != NO_PARENT && node.enclosure == null) {
+			missing.add(node);
+			node = node.parent;
+		}
+		Enclosure outer = node == NO_PARENT ? Enclosure.OUTSIDE : node.enclosure;
+		for(int i = missing.size() - 1; i >= 0; i--) {
+			ParseNode current = missing.get(i);
+			current.enclosure = Enclosure.isRegion(current) ? Enclosure.inside(current, outer) : outer;
+			outer = current.enclosure;
+		}
+		return enclosure;
+	}
+	// forgets the enclosures of the subtree.  A node without one has none below it.
+	private void forgetEnclosures() {
+		if(enclosure == null) {
+			return;
+		}
+		List<ParseNode> pending = new ArrayList<ParseNode>();
+		pending.add(this);
+		while(!pending.isEmpty()) {
+			ParseNode node = pending.remove(pending.size() - 1);
+			node.enclosure = null;
+			for(ParseNode child : node.children) {
+				if(child.enclosure != null) {
+					pending.add(child);
+				}
+			}
 		}
-		return parent.getScope();
 	}
 	
 ////////////////////////////////////////////////////////////////////////////////////
 // dealing with children and parent
 //
-// note: there is no provision as of yet for removal of children.  Be sure to update
-// the removed child's parent pointer if you do implement it.
+// note: replaceChildren is the only provision as of yet for removal of children.  Be
+// sure to update the removed child's parent pointer if you implement another.
 	
 	public ParseNode getParent() {
 		return parent;
 	}
 	protected void setParent(ParseNode parent) {
+		forgetEnclosures();
 		this.parent = parent;
 	}
 	public List<ParseNode> getChildren() {
@@ -153,6 +237,19 @@ public class ParseNode {
 		return children.size();
 	}
 	
+	// replaces the children [start, end) with replacements, setting the parent links of both.
+	public void replaceChildren(int start, int end, List<ParseNode> replacements) {
+		List<ParseNode> removed = children.subList(start, end);
+		for(ParseNode child : removed) {
+			child.setParent(NO_PARENT);
+		}
+		removed.clear();
+		children.addAll(start, replacements);
+		for(ParseNode child : replacements) {
+			child.setParent(this);
+		}
+	}
+	
 	public void replaceChild(ParseNode old, ParseNode replacement) {
 		for (int i = 0; i < nChildren(); i++) {
 			if (children.get(i).equals(old)) {
@@ -173,23 +270,59 @@ public class ParseNode {
 ////////////////////////////////////////////////////////////////////////////////////
 // toString() 
 
+	// a string for logs and debuggers, so limited: use ParseTreePrinter to print a whole tree.
 	public String toString() {
-		return ParseTreePrinter.print(this);
+		return ParseTreePrinter.print(this, ParseTreePrinter.UNLIMITED, MAX_NODES_IN_STRING);
 	}
 
 	
 ////////////////////////////////////////////////////////////////////////////////////
 // for visitors
 			
-	public void accept(ParseNodeVisitor visitor) {
+	/** Visits the subtree rooted at this node: visitEnter for the node, then the subtrees
+	 *  of its children in order, then visitLeave; or just visit, for a leaf.  The walk
+	 *  keeps its own stack of the nodes it is in, rather than recursing, so a tree may be
+	 *  as deep as the heap allows.  A visitor may replace the children of a node it is in,
+	 *  and the walk goes on to the child after the one it came from.
+	 */
+	public final void accept(ParseNodeVisitor visitor) {
+		if(!enter(visitor)) {
+			return;
+		}
+		ParseNode[] path = new ParseNode[INITIAL_PATH_SIZE];	// the nodes the walk is in
+		int[] nextChild = new int[INITIAL_PATH_SIZE];			// the index of each one's next child
+		int depth = 0;
+		path[0] = this;
+		nextChild[0] = 0;
+		while(depth >= 0) {
+			ParseNode node = path[depth];
+			if(nextChild[depth] == node.children.size()) {
+				node.leave(visitor);
+				path[depth--] = null;
+				continue;
+			}
+			ParseNode child = node.children.get(nextChild[depth]++);
+			if(!child.enter(visitor)) {
+				continue;
+			}
+			depth++;
+			if(depth == path.length) {
+				path = Arrays.copyOf(path, 2 * depth);
+				nextChild = Arrays.copyOf(nextChild, 2 * depth);
+			}
+			path[depth] = child;
+			nextChild[depth] = 0;
+		}
+	}
+	// the visits of this node, which each class overrides to call the visitor's methods
+	// for that class.  enter returns false for a leaf, which is visited only once: its
+	// children (if any) are not walked, and it is not left.
+	protected boolean enter(ParseNodeVisitor visitor) {
 		visitor.visitEnter(this);
-		visitChildren(visitor);
-		visitor.visitLeave(this);
+		return true;
 	}
-	protected void visitChildren(ParseNodeVisitor visitor) {
-		for(ParseNode child : children) {
-			child.accept(visitor);
-		}
+	protected void leave(ParseNodeVisitor visitor) {
+		visitor.visitLeave(this);
 	}
 	
 	
@@ -1,12 +1,23 @@
 package parseTree;
 
+import java.io.IOException;
+import java.util.Arrays;
+
 /**
- * Through the static method <code>print</code>, this class will create
- * a string that corresponds to a pretty-printing of the AST subtree rooted
- * at a given node.
+ * Through the static methods <code>print</code>, this class will create
+ * a string, or write to an Appendable, a pretty-printing of the AST subtree
+ * rooted at a given node.
+ * <p>
+ * The tree is walked with an explicit stack rather than by recursion, and
+ * written a line at a time, so printing to a stream takes memory in proportion
+ * to the depth of the tree only.  The printing may be limited to a depth and a
+ * number of nodes; a line "..." stands for what is left out.
  */
 public class ParseTreePrinter {
+	public static final int UNLIMITED = Integer.MAX_VALUE;
 	private static final int INDENT_INCREMENT = 4;
+	private static final int INITIAL_STACK_SIZE = 32;
+	private static final String ELISION = "...";
 	// making terminator static causes OS-dependent failures in some FileFixturesTestCase subclasses.
 	private String terminator = System.getProperty("line.separator");
 
@@ -46,76 +57,140 @@ public class ParseTreePrinter {
 	 * @return string representation of AST
 	 */
 	static public String print(ParseNode node) {
-		ParseTreePrinter printer = new ParseTreePrinter(0);
-		return printer.makeString(node);
+		return print(node, UNLIMITED, UNLIMITED);
+	}
+	/** Returns a string representation of the AST subtree rooted at the given node,
+	 *  limited as <code>print(node, out, maxDepth, maxNodes)</code> limits it.
+	 */
+	static public String print(ParseNode node, int maxDepth, int maxNodes) {
+		StringBuilder result = new StringBuilder();
+		try {
+			print(node, result, maxDepth, maxNodes);
+		}
+		catch (IOException e) {
+			throw new IllegalStateException(e);		// a StringBuilder does not throw
+		}
+		return result.toString();
+	}
+	/** Writes the representation of the AST subtree rooted at the given node to out.
+	 * 
+	 * @param node	root of the subtree to print
+	 * @param out	where to write it, a line at a time
+	 * @throws IOException if out throws one.
+	 */
+	static public void print(ParseNode node, Appendable out) throws IOException {
+		print(node, out, UNLIMITED, UNLIMITED);
+	}
+	/** Writes the representation of the AST subtree rooted at the given node to out,
+	 *  printing no node deeper than maxDepth (node itself is at depth 0) and no more
+	 *  than maxNodes nodes.  The children of a node at maxDepth, and the nodes after
+	 *  the first maxNodes, are replaced by a line "...".
+	 * 
+	 * @param maxDepth	the greatest depth to print, or UNLIMITED
+	 * @param maxNodes	the greatest number of nodes to print (at least 1), or UNLIMITED
+	 * @throws IOException if out throws one.
+	 */
+	static public void print(ParseNode node, Appendable out, int maxDepth, int maxNodes) throws IOException {
+		ParseTreePrinter printer = new ParseTreePrinter(0, out);
+		printer.printSubtree(node, maxDepth, maxNodes);
 	}
 
 
 	// per-instance code
 	private final int baseIndentation;
-	private StringBuffer result;
+	private final Appendable out;
+	private final StringBuilder line = new StringBuilder();
 	
-	// Constructor and main interface (makeString).
-	private ParseTreePrinter(int indentAmount) { 
+	// Constructor and main interface (printSubtree).
+	private ParseTreePrinter(int indentAmount, Appendable out) { 
 		super();
 		this.baseIndentation = indentAmount;
+		this.out = out;
 	}	
-	private String makeString(ParseNode node) {
-		result = new StringBuffer();
-		appendIndentedSubtree(node, baseIndentation);
-		return result.toString();
-	}
 
-	// main logic for printing indented trees.
-	private void appendIndentedSubtree(ParseNode node, int indentAmount) {
-		appendIndentedLineFor(node, indentAmount);
+	// main logic for printing indented trees.  path[0..depth] holds the node being
+	// printed and its ancestors, and nextChild[d] the index of path[d]'s next child to print.
+	private void printSubtree(ParseNode root, int maxDepth, int maxNodes) throws IOException {
+		ParseNode[] path = new ParseNode[INITIAL_STACK_SIZE];
+		int[] nextChild = new int[INITIAL_STACK_SIZE];
+		int depth = 0;
+		path[0] = root;
+		nextChild[0] = 0;
+		printLineFor(root, 0);
+		int numPrinted = 1;
 		
-		for(ParseNode child : node.children) {
-			appendIndentedSubtree(child, indentAmount+INDENT_INCREMENT);
+		while(depth >= 0) {
+			ParseNode node = path[depth];
+			if(nextChild[depth] == node.nChildren()) {
+				depth--;
+				continue;
+			}
+			if(depth == maxDepth) {
+				printElision(depth + 1);
+				depth--;
+				continue;
+			}
+			if(numPrinted == maxNodes) {
+				printElision(depth + 1);
+				return;
+			}
+			ParseNode child = node.child(nextChild[depth]++);
+			depth++;
+			if(depth == path.length) {
+				path = Arrays.copyOf(path, 2 * depth);
+				nextChild = Arrays.copyOf(nextChild, 2 * depth);
+			}
+			path[depth] = child;
+			nextChild[depth] = 0;
+			printLineFor(child, depth);
+			numPrinted++;
 		}
 	}
 	
-	// appends the information for the node, indented by the indentAmount.
-	private void appendIndentedLineFor(ParseNode node, int indentAmount) {
-		indent(indentAmount);
-		appendLineFor(node);
-	}
-	private void indent(int indent) {
-		for(int i=0; i<indent; i++) {
-			result.append(' ');
-		}
-	}
-	private void appendLineFor(ParseNode node) {
+	// writes the line for the node, indented for its depth.
+	private void printLineFor(ParseNode node, int depth) throws IOException {
+		line.setLength(0);
+		indent(depth);
 		appendNodeClass(node);
 		appendToken(node);
 		appendType(node);
 		appendAllocatedSize(node);
-		
-		result.append(terminator);
+		line.append(terminator);
+		out.append(line);
+	}
+	private void printElision(int depth) throws IOException {
+		line.setLength(0);
+		indent(depth);
+		line.append(ELISION).append(terminator);
+		out.append(line);
+	}
+	private void indent(int depth) {
+		int indentAmount = baseIndentation + depth * INDENT_INCREMENT;
+		for(int i=0; i<indentAmount; i++) {
+			line.append(' ');
+		}
 	}
 	
 	// methods for the four pieces of information that we print;
 	// each one appends only if the current printLevel allows it to.
 	private void appendNodeClass(ParseNode node) {
 		if(printLevel.printNodeClass()) {
-			result.append(node.getClass().getSimpleName() + " ");
+			line.append(node.getClass().getSimpleName()).append(' ');
 		}
 	}
 	private void appendToken(ParseNode node) {
 		if(printLevel.printToken()) {
-			result.append(node.getToken().toString() + " ");
+			line.append(node.getToken().toString()).append(' ');
 		}
 	}
 	private void appendType(ParseNode node) {
 		if(printLevel.printDecorations()) {
-			result.append(node.getType().infoString() + " ");
+			line.append(node.getType().infoString()).append(' ');
 		}
 	}
 	private void appendAllocatedSize(ParseNode node) {
 		if(printLevel.printDecorations() && node.hasScope()) {
-			result.append("[scope:" + node.getScope().getAllocatedSize() + " bytes] ");
+			line.append("[scope:").append(node.getScope().getAllocatedSize()).append(" bytes] ");
 		}
 	}
 }
-
-
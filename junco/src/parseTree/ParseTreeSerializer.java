@@ -0,0 +1,484 @@
+package parseTree;
+
+import inputHandler.TextLocation;
+import inputHandler.TextLocator;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import lexicalAnalyzer.Keyword;
+import lexicalAnalyzer.Lextant;
+import lexicalAnalyzer.Punctuator;
+import lexicalAnalyzer.SymbolPool;
+import parseTree.nodeTypes.PrintStatementNode;
+import semanticAnalyzer.BoxType;
+import semanticAnalyzer.PrimitiveType;
+import semanticAnalyzer.RangeType;
+import semanticAnalyzer.Type;
+import semanticAnalyzer.Types;
+import tokens.CharacterToken;
+import tokens.FloatingToken;
+import tokens.IdentifierToken;
+import tokens.LextantToken;
+import tokens.NullToken;
+import tokens.NumberToken;
+import tokens.Token;
+import tokens.TokenImp;
+
+/** Writes a syntax tree (a tree fresh from the parser) to a stream in a compact binary
+ *  form, and reads it back.
+ *  <p>
+ *  The stream starts with a header: MAGIC, FORMAT_VERSION, and a key that the writer
+ *  chooses (ParseCache uses a hash of the source text).  A reader given a different key
+ *  or finding a different version rejects the stream with an IOException, so a stream
+ *  is never read by code that would misread it.  The nodes follow in preorder, each as
+ *  its kind, its newline flag (print statements only), its type, its token and its
+ *  number of children.  Strings and types are written in full where first used and by
+ *  number after that.
+ *  <p>
+ *  A token is written with its offset in the source text, and read back with that offset
+ *  and the locator given to the reader, so its location is made (lazily) just as the
+ *  scanner's token's location would be.  Tokens that were given a TextLocation rather
+ *  than an offset (as some the parser makes are) are written with that location.
+ *  <p>
+ *  The decorations that semantic analysis adds (scopes, labels, bindings, and types other
+ *  than primitive, range and box types) are not written.
+ */
+public class ParseTreeSerializer {
+	public static final int MAGIC = 0x4A415354;			// "JAST"
+	public static final int FORMAT_VERSION = 1;
+
+	// token classes
+	private static final byte KEYWORD = 0;
+	private static final byte PUNCTUATOR = 1;
+	private static final byte IDENTIFIER = 2;
+	private static final byte NUMBER = 3;
+	private static final byte FLOATING = 4;
+	private static final byte CHARACTER = 5;
+	private static final byte NULL = 6;
+
+	// how a token is located
+	private static final byte AT_OFFSET = 0;			// by the source locator
+	private static final byte IN_SOURCE = 1;			// by a TextLocation in the source file
+	private static final byte ELSEWHERE = 2;			// by a TextLocation in another file
+	private static final byte NOWHERE = 3;				// by TextLocation.nullInstance()
+
+	// type tags
+	private static final byte PRIMITIVE = 0;
+	private static final byte RANGE = 1;
+	private static final byte BOX = 2;
+
+	private static final Keyword[] KEYWORDS = Keyword.values();
+	private static final Punctuator[] PUNCTUATORS = Punctuator.values();
+	private static final PrimitiveType[] PRIMITIVE_TYPES = PrimitiveType.values();
+	private static final NodeKind NEWLINE_KIND = NodeKind.PRINT_STATEMENT;
+	private static final int BUFFER_SIZE = 1 << 16;
+	private static final int NO_SYMBOL = -1;
+
+
+	//////////////////////////////////////////////////////////////////////////////
+	// writing
+
+	/** Writes the tree rooted at root.  The stream is flushed but not closed.
+	 * @param filename the name of the source file, which tokens located by a TextLocation
+	 *  in that file are written without.
+	 * @param key the key a reader must give to read the tree.
+	 * @throws IllegalArgumentException if the tree has a token or type that cannot be written.
+	 */
+	public static void write(ParseNode root, String filename, byte[] key, OutputStream out) throws IOException {
+		Writer writer = new Writer(filename, new DataOutputStream(new BufferedOutputStream(out, BUFFER_SIZE)));
+		writer.writeHeader(key);
+		writer.writeTree(root);
+		writer.out.flush();
+	}
+
+	private static class Writer {
+		private final String filename;
+		private final DataOutputStream out;
+		private final Map<String, Integer> strings = new HashMap<String, Integer>();
+		private final Map<Type, Integer> types = new IdentityHashMap<Type, Integer>();
+
+		Writer(String filename, DataOutputStream out) {
+			this.filename = filename;
+			this.out = out;
+		}
+		void writeHeader(byte[] key) throws IOException {
+			out.writeInt(MAGIC);
+			out.writeInt(FORMAT_VERSION);
+			writeCount(key.length);
+			out.write(key);
+		}
+
+		// preorder, without recursion.
+		void writeTree(ParseNode root) throws IOException {
+			List<ParseNode> pending = new ArrayList<ParseNode>();
+			pending.add(root);
+			while(!pending.isEmpty()) {
+				ParseNode node = pending.remove(pending.size() - 1);
+				writeNode(node);
+				for(int i = node.nChildren() - 1; i >= 0; i--) {
+					pending.add(node.child(i));
+				}
+			}
+		}
+		private void writeNode(ParseNode node) throws IOException {
+			NodeKind kind = NodeKind.of(node);
+			out.writeByte(kind.ordinal());
+			if(kind == NEWLINE_KIND) {
+				out.writeBoolean(((PrintStatementNode) node).hasNewline());
+			}
+			writeType(node.getType());
+			writeToken(node.getToken());
+			writeCount(node.nChildren());
+		}
+
+		private void writeToken(Token token) throws IOException {
+			if(!(token instanceof TokenImp)) {
+				throw new IllegalArgumentException("cannot write token " + token);
+			}
+			TokenImp tokenImp = (TokenImp) token;
+			if(token instanceof LextantToken) {
+				Lextant lextant = ((LextantToken) token).getLextant();
+				boolean isKeyword = lextant instanceof Keyword;
+				out.writeByte(isKeyword ? KEYWORD : PUNCTUATOR);
+				writeCount(isKeyword ? ((Keyword) lextant).ordinal() : ((Punctuator) lextant).ordinal());
+			}
+			else if(token instanceof IdentifierToken) {
+				out.writeByte(IDENTIFIER);
+			}
+			else if(token instanceof NumberToken) {
+				out.writeByte(NUMBER);
+				out.writeInt(((NumberToken) token).getValue());
+			}
+			else if(token instanceof FloatingToken) {
+				out.writeByte(FLOATING);
+				out.writeLong(Double.doubleToRawLongBits(((FloatingToken) token).getValue()));
+			}
+			else if(token instanceof CharacterToken) {
+				out.writeByte(CHARACTER);
+			}
+			else if(token instanceof NullToken) {
+				out.writeByte(NULL);
+			}
+			else {
+				throw new IllegalArgumentException("cannot write token " + token);
+			}
+			writeString(token.getLexeme());
+			writeLocation(tokenImp.getLocator(), tokenImp.getOffset());
+		}
+		private void writeLocation(TextLocator locator, int offset) throws IOException {
+			writeCount(offset);
+			if(!(locator instanceof TextLocation)) {
+				out.writeByte(AT_OFFSET);
+				return;
+			}
+			TextLocation location = (TextLocation) locator;
+			if(location == TextLocation.nullInstance()) {
+				out.writeByte(NOWHERE);
+				return;
+			}
+			if(filename.equals(location.getFilename())) {
+				out.writeByte(IN_SOURCE);
+			}
+			else {
+				out.writeByte(ELSEWHERE);
+				writeString(location.getFilename());
+			}
+			out.writeInt(location.getLineNumber());
+			out.writeInt(location.getPosition());
+		}
+
+		// a type is written as 0 and its definition the first time, and as its number + 1 after.
+		private void writeType(Type type) throws IOException {
+			Integer id = types.get(type);
+			if(id != null) {
+				writeCount(id + 1);
+				return;
+			}
+			writeCount(0);
+			if(type instanceof PrimitiveType) {
+				out.writeByte(PRIMITIVE);
+				writeCount(((PrimitiveType) type).ordinal());
+			}
+			else if(type instanceof RangeType) {
+				out.writeByte(RANGE);
+				writeType(((RangeType) type).getChildType());
+			}
+			else if(type instanceof BoxType) {
+				out.writeByte(BOX);
+				writeString(((BoxType) type).getBoxName());
+				out.writeInt(((BoxType) type).getBoxIdentifier());
+			}
+			else {
+				throw new IllegalArgumentException("cannot write type " + type.infoString());
+			}
+			types.put(type, types.size());
+		}
+		// likewise for strings.
+		private void writeString(String string) throws IOException {
+			Integer id = strings.get(string);
+			if(id != null) {
+				writeCount(id + 1);
+				return;
+			}
+			writeCount(0);
+			byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+			writeCount(bytes.length);
+			out.write(bytes);
+			strings.put(string, strings.size());
+		}
+		// a non-negative int, in seven-bit groups, low first.
+		private void writeCount(int count) throws IOException {
+			assert count >= 0;
+			while(count >= 0x80) {
+				out.writeByte(count & 0x7f | 0x80);
+				count >>>= 7;
+			}
+			out.writeByte(count);
+		}
+	}
+
+
+	//////////////////////////////////////////////////////////////////////////////
+	// reading
+
+	/** Reads a tree written by <code>write</code>, from the buffer's position on.
+	 * @param filename the name of the source file, for tokens located by a TextLocation in it.
+	 * @param locator the locator of the source text, for the other tokens.
+	 * @param key the key the tree was written with.
+	 * @throws IOException if the stream does not hold a tree of this FORMAT_VERSION written
+	 *  with this key, or cannot be read.
+	 */
+	public static ParseNode read(ByteBuffer in, String filename, TextLocator locator, byte[] key) throws IOException {
+		Reader reader = new Reader(filename, locator, in);
+		try {
+			reader.readHeader(key);
+			return reader.readTree();
+		}
+		catch (BufferUnderflowException e) {
+			throw new IOException("parse tree ends early");
+		}
+	}
+
+	private static class Reader {
+		private final String filename;
+		private final TextLocator locator;
+		private final ByteBuffer in;
+		private final List<String> strings = new ArrayList<String>();
+		private final List<Integer> symbols = new ArrayList<Integer>();	// of each string, or NO_SYMBOL
+		private final List<Type> types = new ArrayList<Type>();
+
+		Reader(String filename, TextLocator locator, ByteBuffer in) {
+			this.filename = filename;
+			this.locator = locator;
+			this.in = in;
+		}
+		void readHeader(byte[] key) throws IOException {
+			if(in.getInt() != MAGIC) {
+				throw new IOException("not a parse tree");
+			}
+			int version = in.getInt();
+			if(version != FORMAT_VERSION) {
+				throw new IOException("parse tree format version " + version + ", expecting " + FORMAT_VERSION);
+			}
+			if(readCount() != key.length) {
+				throw new IOException("parse tree written for another key");
+			}
+			byte[] writtenKey = new byte[key.length];
+			in.get(writtenKey);
+			if(!Arrays.equals(key, writtenKey)) {
+				throw new IOException("parse tree written for another key");
+			}
+		}
+
+		// each stacked node is waiting for the number of children beside it.
+		ParseNode readTree() throws IOException {
+			List<ParseNode> parents = new ArrayList<ParseNode>();
+			List<Integer> childrenNeeded = new ArrayList<Integer>();
+			ParseNode root = null;
+			do {
+				ParseNode node = readNode();
+				int numChildren = readCount();
+				if(root == null) {
+					root = node;
+				}
+				else {
+					int top = parents.size() - 1;
+					parents.get(top).appendChild(node);
+					childrenNeeded.set(top, childrenNeeded.get(top) - 1);
+				}
+				if(numChildren > 0) {
+					parents.add(node);
+					childrenNeeded.add(numChildren);
+				}
+				while(!parents.isEmpty() && childrenNeeded.get(parents.size() - 1) == 0) {
+					parents.remove(parents.size() - 1);
+					childrenNeeded.remove(childrenNeeded.size() - 1);
+				}
+			} while(!parents.isEmpty());
+			return root;
+		}
+		// all but the node's number of children, which follows it.
+		private ParseNode readNode() throws IOException {
+			NodeKind kind = NodeKind.of((in.get() & 0xff));
+			if(kind == null) {
+				throw new IOException("bad node kind");
+			}
+			boolean hasNewline = kind == NEWLINE_KIND && in.get() != 0;
+			Type type = readType();
+			ParseNode result = kind.make(readToken());
+			result.setType(type);
+			if(hasNewline) {
+				((PrintStatementNode) result).setHasNewline(true);
+			}
+			return result;
+		}
+
+		private Token readToken() throws IOException {
+			byte tokenClass = in.get();
+			int ordinal = 0;
+			int intValue = 0;
+			long floatBits = 0;
+			switch(tokenClass) {
+			case KEYWORD:
+			case PUNCTUATOR:
+				ordinal = readCount();
+				break;
+			case NUMBER:
+				intValue = in.getInt();
+				break;
+			case FLOATING:
+				floatBits = in.getLong();
+				break;
+			case IDENTIFIER:
+			case CHARACTER:
+			case NULL:
+				break;
+			default:
+				throw new IOException("bad token class");
+			}
+			int lexemeId = readStringId();
+			String lexeme = strings.get(lexemeId);
+			int offset = readCount();
+			TextLocator tokenLocator = readLocator();
+
+			switch(tokenClass) {
+			case KEYWORD:
+				return LextantToken.make(tokenLocator, offset, lexeme, element(KEYWORDS, ordinal));
+			case PUNCTUATOR:
+				return LextantToken.make(tokenLocator, offset, lexeme, element(PUNCTUATORS, ordinal));
+			case IDENTIFIER:
+				return IdentifierToken.make(tokenLocator, offset, symbolOf(lexemeId));
+			case NUMBER:
+				return NumberToken.make(tokenLocator, offset, lexeme, intValue);
+			case FLOATING:
+				return FloatingToken.make(tokenLocator, offset, lexeme, Double.longBitsToDouble(floatBits));
+			case CHARACTER:
+				if(lexeme.isEmpty()) {
+					throw new IOException("bad character token");
+				}
+				return CharacterToken.make(tokenLocator, offset, lexeme);
+			default:
+				return NullToken.make(tokenLocator, offset);
+			}
+		}
+		private TextLocator readLocator() throws IOException {
+			switch(in.get()) {
+			case AT_OFFSET:
+				return locator;
+			case IN_SOURCE:
+				return new TextLocation(filename, in.getInt(), in.getInt());
+			case ELSEWHERE:
+				return new TextLocation(readString(), in.getInt(), in.getInt());
+			case NOWHERE:
+				return TextLocation.nullInstance();
+			default:
+				throw new IOException("bad token location");
+			}
+		}
+
+		private Type readType() throws IOException {
+			int id = readCount();
+			if(id > 0) {
+				return element(types, id - 1);
+			}
+			Type result;
+			switch(in.get()) {
+			case PRIMITIVE:
+				result = element(PRIMITIVE_TYPES, readCount());
+				break;
+			case RANGE:
+				result = Types.range(readType());
+				break;
+			case BOX:
+				String boxName = readString();
+				int identifier = in.getInt();
+				result = identifier == BoxType.NO_IDENTIFIER ? Types.box(boxName) : new BoxType(boxName, identifier);
+				break;
+			default:
+				throw new IOException("bad type");
+			}
+			types.add(result);
+			return result;
+		}
+		private String readString() throws IOException {
+			return strings.get(readStringId());
+		}
+		private int readStringId() throws IOException {
+			int id = readCount();
+			if(id > 0) {
+				element(strings, id - 1);
+				return id - 1;
+			}
+			byte[] bytes = new byte[readCount()];
+			in.get(bytes);
+			strings.add(new String(bytes, StandardCharsets.UTF_8));
+			symbols.add(NO_SYMBOL);
+			return strings.size() - 1;
+		}
+		// the SymbolPool id of a string, looked up once per string rather than once per token.
+		private int symbolOf(int stringId) {
+			int result = symbols.get(stringId);
+			if(result == NO_SYMBOL) {
+				result = SymbolPool.idOf(strings.get(stringId));
+				symbols.set(stringId, result);
+			}
+			return result;
+		}
+		private int readCount() throws IOException {
+			int result = 0;
+			for(int shift = 0; shift < 35; shift += 7) {
+				int b = in.get() & 0xff;
+				result |= (b & 0x7f) << shift;
+				if(b < 0x80 && result >= 0) {
+					return result;
+				}
+			}
+			throw new IOException("bad count");
+		}
+
+		private static <T> T element(T[] array, int index) throws IOException {
+			if(index >= array.length) {
+				throw new IOException("bad index");
+			}
+			return array[index];
+		}
+		private static <T> T element(List<T> list, int index) throws IOException {
+			if(index >= list.size()) {
+				throw new IOException("bad index");
+			}
+			return list.get(index);
+		}
+	}
+}
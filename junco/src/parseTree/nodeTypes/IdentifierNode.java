@@ -2,6 +2,7 @@ package parseTree.nodeTypes;
 
 import parseTree.ParseNode;
 import parseTree.ParseNodeVisitor;
+import lexicalAnalyzer.SymbolPool;
 import logging.JuncoLogger;
 import symbolTable.Binding;
 import symbolTable.Scope;
@@ -24,6 +25,8 @@ public class IdentifierNode extends ParseNode {
 
 		if (node instanceof IdentifierNode) {
 			this.binding = ((IdentifierNode) node).binding;
+			this.declarationScope = ((IdentifierNode) node).declarationScope;
+			this.localScopeNode = ((IdentifierNode) node).localScopeNode;
 		}
 		else {
 			this.binding = null;
@@ -41,6 +44,14 @@ public class IdentifierNode extends ParseNode {
 		this.binding = binding;
 	}
 
+	// records a resolution of this identifier: its binding, and the scope (and node of
+	// the scope) that declares it.
+	public void setBinding(Binding binding, Scope declarationScope, ParseNode scopeNode) {
+		this.binding = binding;
+		this.declarationScope = declarationScope;
+		this.localScopeNode = scopeNode;
+	}
+
 	public Binding getBinding() {
 		return binding;
 	}
@@ -49,9 +60,9 @@ public class IdentifierNode extends ParseNode {
 	// Specialty functions
 
 	public Binding findVariableBinding() {
-		String identifier = token.getLexeme();
+		int identifier = getSymbol();
 
-		for (ParseNode current : pathToRoot()) {
+		for (ParseNode current = getScopeNode(); current != null; current = current.getScopeNode()) {
 			if (current.containsBindingOf(identifier)) {
 				declarationScope = current.getScope();
 				localScopeNode = current;
@@ -67,14 +78,10 @@ public class IdentifierNode extends ParseNode {
 	}
 
 	public Binding findGlobalBinding() {
-		ParseNode parent = this.getParent();
-
-		while (!(parent instanceof ProgramNode)) {
-			parent = parent.getParent();
-		}
+		ParseNode parent = getProgramNode();
 
-		String identifier = token.getLexeme();
-		if (parent.containsBindingOf(identifier)) {
+		int identifier = getSymbol();
+		if (parent != null && parent.containsBindingOf(identifier)) {
 			declarationScope = parent.getScope();
 			localScopeNode = parent;
 			return parent.bindingOf(identifier);
@@ -85,8 +92,19 @@ public class IdentifierNode extends ParseNode {
 		
 	}
 
+	// the SymbolPool id of the identifier.
+	public int getSymbol() {
+		if (token instanceof IdentifierToken) {
+			return identifierToken().getSymbol();
+		}
+		return SymbolPool.idOf(token.getLexeme());
+	}
+
+	// the scope of the last resolution, or of a new one if there has been none.
 	public Scope getDeclarationScope() {
-		findVariableBinding();
+		if (declarationScope == null) {
+			findVariableBinding();
+		}
 		return declarationScope;
 	}
 
@@ -101,8 +119,9 @@ public class IdentifierNode extends ParseNode {
 	// /////////////////////////////////////////////////////////
 	// accept a visitor
 
-	public void accept(ParseNodeVisitor visitor) {
+	protected boolean enter(ParseNodeVisitor visitor) {
 		visitor.visit(this);
+		return false;
 	}
 
 }
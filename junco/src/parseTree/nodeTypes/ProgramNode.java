@@ -5,6 +5,7 @@ import parseTree.ParseNodeVisitor;
 import tokens.Token;
 
 public class ProgramNode extends ParseNode {
+	private boolean hasSyntaxErrors = false;
 
 	public ProgramNode(Token token) {
 		super(token);
@@ -14,15 +15,26 @@ public class ProgramNode extends ParseNode {
 	}
 	
 	////////////////////////////////////////////////////////////
-	// no attributes
-
+	// attributes
+	
+	// set by the parser, which may have reported errors without leaving an ErrorNode
+	// in the tree (for a missing terminator, say).
+	public void setHasSyntaxErrors(boolean value) {
+		hasSyntaxErrors = value;
+	}
+	public boolean hasSyntaxErrors() {
+		return hasSyntaxErrors;
+	}
+	
 	
 	///////////////////////////////////////////////////////////
 	// boilerplate for visitors
 	
-	public void accept(ParseNodeVisitor visitor) {
+	protected boolean enter(ParseNodeVisitor visitor) {
 		visitor.visitEnter(this);
-		visitChildren(visitor);
+		return true;
+	}
+	protected void leave(ParseNodeVisitor visitor) {
 		visitor.visitLeave(this);
 	}
 }
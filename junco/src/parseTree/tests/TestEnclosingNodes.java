@@ -0,0 +1,143 @@
+package parseTree.tests;
+
+import inputHandler.InputHandler;
+import inputHandler.TextLocation;
+import lexicalAnalyzer.JuncoScanner;
+import lexicalAnalyzer.Punctuator;
+import parseTree.ParseNode;
+import parseTree.nodeTypes.BinaryOperatorNode;
+import parseTree.nodeTypes.BodyNode;
+import parseTree.nodeTypes.BoxBodyNode;
+import parseTree.nodeTypes.FunctionDeclNode;
+import parseTree.nodeTypes.IdentifierNode;
+import parseTree.nodeTypes.IntNumberNode;
+import parseTree.nodeTypes.ProgramNode;
+import parseTree.nodeTypes.ValueBodyNode;
+import parser.JuncoParser;
+import symbolTable.Scope;
+import tokens.LextantToken;
+import tokens.NumberToken;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+public class TestEnclosingNodes extends TestCase {
+	private static final String PROGRAM =
+		"box main {\n const a <- 1 + 2;\n}\n" +
+		"box point {\n init x <- 0;\n func move(dx : int) : int {[\n update x <- x + dx : f;\n return x;\n ]}\n}\n" +
+		"box loops {\n init i <- 0;\n while (i < 10) {\n update i <- i + 1;\n }\n}\n";
+
+	public void testEnclosingNodes() {
+		ParseNode tree = parse();
+		BoxBodyNode point = (BoxBodyNode) find(tree, BoxBodyNode.class, "point");
+		FunctionDeclNode move = (FunctionDeclNode) find(tree, FunctionDeclNode.class, "func");
+		ParseNode dx = find(move, IdentifierNode.class, "dx");
+		ParseNode dxUse = findAll(move, IdentifierNode.class, "dx").get(1);
+
+		assertSame(tree, dxUse.getProgramNode());
+		assertSame(point, dxUse.getEnclosingBox());
+		assertSame(move, dxUse.getEnclosingFunction());
+		assertTrue(dxUse.getScopeNode() instanceof ValueBodyNode);
+		assertSame(move, dxUse.getScopeNode().getScopeNode());
+
+		assertSame(move, dx.getScopeNode());
+		assertSame(point, move.getEnclosingBox());
+		assertNull(move.getEnclosingFunction());
+		assertSame(tree, point.getScopeNode());
+		assertNull(tree.getScopeNode());
+		assertNull(tree.getProgramNode());
+
+		ParseNode loopBody = find(tree, BodyNode.class, null);
+		ParseNode i = find(loopBody, IdentifierNode.class, "i");
+		assertSame(loopBody, i.getScopeNode());
+		assertNull(i.getEnclosingFunction());
+		assertSame(find(tree, BoxBodyNode.class, "loops"), i.getEnclosingBox());
+	}
+	public void testLocalAndTopScopes() {
+		ParseNode tree = parse();
+		BoxBodyNode point = (BoxBodyNode) find(tree, BoxBodyNode.class, "point");
+		FunctionDeclNode move = (FunctionDeclNode) find(tree, FunctionDeclNode.class, "func");
+		ParseNode dxUse = findAll(move, IdentifierNode.class, "dx").get(1);
+		assertSame(Scope.nullInstance(), dxUse.getLocalScope());
+
+		Scope global = Scope.createGlobalScope();
+		tree.setScope(global);
+		assertSame(global, dxUse.getLocalScope());
+		assertSame(global, dxUse.getTopScope());
+
+		Scope boxScope = Scope.createBoxBodyScope();
+		point.setScope(boxScope);
+		assertSame(boxScope, dxUse.getLocalScope());
+
+		Scope parameterScope = Scope.createParameterScope();
+		move.setScope(parameterScope);
+		assertSame(parameterScope, dxUse.getLocalScope());
+		assertSame(boxScope, move.getLocalScope());
+		assertSame(global, dxUse.getTopScope());
+	}
+	public void testReplaceChild() {
+		ParseNode tree = parse();
+		BoxBodyNode main = (BoxBodyNode) find(tree, BoxBodyNode.class, "main");
+		FunctionDeclNode move = (FunctionDeclNode) find(tree, FunctionDeclNode.class, "func");
+		ParseNode sum = find(main, BinaryOperatorNode.class, "+");
+		ParseNode declaration = sum.getParent();
+		ParseNode one = sum.child(0);
+		assertSame(main, one.getEnclosingBox());
+
+		ParseNode moveSum = find(move, BinaryOperatorNode.class, "+");
+		ParseNode dxUse = moveSum.child(1);
+		assertSame(move, dxUse.getEnclosingFunction());
+		moveSum.getParent().replaceChild(moveSum, sum);
+		declaration.replaceChild(sum, moveSum);
+
+		assertSame(move, one.getEnclosingFunction());
+		assertSame(move.getEnclosingBox(), one.getEnclosingBox());
+		assertNull(dxUse.getEnclosingFunction());
+		assertSame(main, dxUse.getEnclosingBox());
+		assertSame(main, dxUse.getScopeNode());
+	}
+	public void testDeepTree() {
+		int depth = 200000;
+		ParseNode leaf = new IntNumberNode(NumberToken.make(TextLocation.nullInstance(), "1"));
+		ParseNode root = leaf;
+		for(int i = 0; i < depth; i++) {
+			LextantToken plus = LextantToken.make(TextLocation.nullInstance(), "+", Punctuator.ADD);
+			ParseNode one = new IntNumberNode(NumberToken.make(TextLocation.nullInstance(), "1"));
+			root = BinaryOperatorNode.withChildren(plus, root, one);
+		}
+		ProgramNode program = new ProgramNode(LextantToken.make(TextLocation.nullInstance(), "", Punctuator.ADD));
+		program.appendChild(root);
+		assertSame(program, leaf.getProgramNode());
+		assertSame(program, root.child(1).getScopeNode());
+
+		ProgramNode other = new ProgramNode(LextantToken.make(TextLocation.nullInstance(), "", Punctuator.ADD));
+		other.appendChild(root);
+		assertSame(other, leaf.getProgramNode());
+	}
+
+
+	private static ParseNode parse() {
+		return JuncoParser.parse(JuncoScanner.make(InputHandler.fromCharSequence("text", PROGRAM)));
+	}
+	private static ParseNode find(ParseNode root, Class<?> nodeClass, String lexeme) {
+		return findAll(root, nodeClass, lexeme).get(0);
+	}
+	// the nodes of the class (and with the lexeme, unless it is null) in preorder.
+	private static List<ParseNode> findAll(ParseNode root, Class<?> nodeClass, String lexeme) {
+		List<ParseNode> result = new ArrayList<ParseNode>();
+		List<ParseNode> pending = new ArrayList<ParseNode>();
+		pending.add(root);
+		while(!pending.isEmpty()) {
+			ParseNode node = pending.remove(pending.size() - 1);
+			if(nodeClass.isInstance(node) && (lexeme == null || node.getToken().getLexeme().equals(lexeme))) {
+				result.add(node);
+			}
+			for(int i = node.nChildren() - 1; i >= 0; i--) {
+				pending.add(node.child(i));
+			}
+		}
+		return result;
+	}
+}
@@ -0,0 +1,94 @@
+package parseTree.tests;
+
+import inputHandler.InputHandler;
+import inputHandler.TextLocation;
+import lexicalAnalyzer.JuncoScanner;
+import lexicalAnalyzer.Punctuator;
+import parseTree.ParseNode;
+import parseTree.ParseNodeVisitor;
+import parseTree.nodeTypes.BinaryOperatorNode;
+import parseTree.nodeTypes.IdentifierNode;
+import parseTree.nodeTypes.IntNumberNode;
+import parser.JuncoParser;
+import tokens.IdentifierToken;
+import tokens.LextantToken;
+import tokens.NumberToken;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+public class TestParseNodeVisitor extends TestCase {
+	private static final String PROGRAM =
+		"box main {\n const a <- 1 + 2 * 3;\n print a, 'c, 4.5 $;\n}\n" +
+		"box point {\n init x <- 0;\n func move(dx : int) : int {[\n update x <- x + dx : f;\n return x;\n ]}\n}\n" +
+		"box loops {\n init i <- 0;\n while (!(i < 10)) {\n if (i == 5) { break; } else { update i <- i + 1; }\n }\n}\n";
+
+	public void testOrderOfVisits() {
+		ParseNode tree = JuncoParser.parse(JuncoScanner.make(InputHandler.fromCharSequence("text", PROGRAM)));
+		Recorder recorder = new Recorder();
+		tree.accept(recorder);
+		List<String> expected = new ArrayList<String>();
+		recursiveVisits(tree, expected);
+		assertEquals(expected, recorder.visits);
+	}
+	public void testDeepTree() {
+		int depth = 200000;
+		ParseNode root = new IntNumberNode(NumberToken.make(TextLocation.nullInstance(), "1"));
+		for(int i = 0; i < depth; i++) {
+			LextantToken plus = LextantToken.make(TextLocation.nullInstance(), "+", Punctuator.ADD);
+			ParseNode one = new IntNumberNode(NumberToken.make(TextLocation.nullInstance(), "1"));
+			root = BinaryOperatorNode.withChildren(plus, root, one);
+		}
+		Recorder recorder = new Recorder();
+		root.accept(recorder);
+		assertEquals(3 * depth + 1, recorder.visits.size());
+		assertEquals("enter BinaryOperatorNode", recorder.visits.get(0));
+		assertEquals("leaf IntNumberNode", recorder.visits.get(depth));
+		assertEquals("leave BinaryOperatorNode", recorder.visits.get(3 * depth));
+	}
+	public void testLeafAsRoot() {
+		ParseNode leaf = new IdentifierNode(IdentifierToken.make(TextLocation.nullInstance(), "a"));
+		Recorder recorder = new Recorder();
+		leaf.accept(recorder);
+		assertEquals(1, recorder.visits.size());
+		assertEquals("leaf IdentifierNode", recorder.visits.get(0));
+	}
+	
+	
+	private static class Recorder extends ParseNodeVisitor.Default {
+		List<String> visits = new ArrayList<String>();
+		
+		@Override
+		public void defaultVisitEnter(ParseNode node) {
+			visits.add("enter " + node.getClass().getSimpleName());
+		}
+		@Override
+		public void defaultVisitLeave(ParseNode node) {
+			visits.add("leave " + node.getClass().getSimpleName());
+		}
+		@Override
+		public void defaultVisitForLeaf(ParseNode node) {
+			visits.add("leaf " + node.getClass().getSimpleName());
+		}
+	}
+	private static boolean isLeaf(ParseNode node) {
+		String name = node.getClass().getSimpleName();
+		return name.equals("IdentifierNode") || name.equals("IntNumberNode") || name.equals("FloatNumberNode")
+				|| name.equals("CharacterNode") || name.equals("BooleanConstantNode") || name.equals("ErrorNode");
+	}
+	// the visits that a recursive walk makes.
+	private static void recursiveVisits(ParseNode node, List<String> visits) {
+		String name = node.getClass().getSimpleName();
+		if(isLeaf(node)) {
+			visits.add("leaf " + name);
+			return;
+		}
+		visits.add("enter " + name);
+		for(ParseNode child: node.getChildren()) {
+			recursiveVisits(child, visits);
+		}
+		visits.add("leave " + name);
+	}
+}
@@ -0,0 +1,108 @@
+package parseTree.tests;
+
+import inputHandler.InputHandler;
+import inputHandler.TextLocation;
+import lexicalAnalyzer.JuncoScanner;
+import parseTree.ParseNode;
+import parseTree.ParseTreePrinter;
+import parseTree.nodeTypes.BodyNode;
+import parser.JuncoParser;
+import tokens.IdentifierToken;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import junit.framework.TestCase;
+
+public class TestParseTreePrinter extends TestCase {
+	private static final String PROGRAM =
+		"box main {\n const a <- 1 + 2 * 3;\n print a $;\n}\n" +
+		"box loops {\n init i <- 0;\n while (i < 10) {\n if (i == 5) { break; } else { update i <- i + 1; }\n }\n}\n";
+	private static final String TERMINATOR = System.getProperty("line.separator");
+
+	public void testStreamMatchesString() throws IOException {
+		ParseNode tree = parse(PROGRAM);
+		StringWriter out = new StringWriter();
+		ParseTreePrinter.print(tree, out);
+		assertEquals(ParseTreePrinter.print(tree), out.toString());
+		assertEquals(countNodes(tree), lines(out.toString()).length);
+	}
+	public void testDepthLimit() {
+		ParseNode tree = parse(PROGRAM);
+		String[] lines = lines(ParseTreePrinter.print(tree, 1, ParseTreePrinter.UNLIMITED));
+		assertEquals(1 + 2 * 2, lines.length);			// the program, two boxes, and an elision for each
+		assertTrue(lines[1].startsWith("    BoxBodyNode"));
+		assertEquals("        ...", lines[2]);
+		assertEquals("    BoxBodyNode", lines[3].substring(0, 15));
+	}
+	public void testNodeLimit() {
+		ParseNode tree = parse(PROGRAM);
+		String[] whole = lines(ParseTreePrinter.print(tree));
+		String[] lines = lines(ParseTreePrinter.print(tree, ParseTreePrinter.UNLIMITED, 5));
+		assertEquals(6, lines.length);
+		for(int i = 0; i < 5; i++) {
+			assertEquals(whole[i], lines[i]);
+		}
+		assertEquals("...", lines[5].trim());
+		assertEquals(whole.length, lines(ParseTreePrinter.print(tree, ParseTreePrinter.UNLIMITED, whole.length)).length);
+	}
+	public void testDeepTree() throws IOException {
+		ParseNode root = chain(20000);
+		LineCounter out = new LineCounter();
+		ParseTreePrinter.print(root, out);
+		assertEquals(20000, out.numLines);
+	}
+	public void testToStringIsLimited() {
+		String string = chain(100000).toString();
+		assertTrue(lines(string).length < 2000);
+		assertTrue(string.endsWith("..." + TERMINATOR));
+	}
+	
+	
+	// discards what it is given but for the number of lines.
+	private static class LineCounter implements Appendable {
+		int numLines = 0;
+
+		@Override
+		public Appendable append(CharSequence sequence) {
+			return append(sequence, 0, sequence.length());
+		}
+		@Override
+		public Appendable append(CharSequence sequence, int start, int end) {
+			for(int i = start; i < end; i++) {
+				append(sequence.charAt(i));
+			}
+			return this;
+		}
+		@Override
+		public Appendable append(char c) {
+			if(c == '\n') {
+				numLines++;
+			}
+			return this;
+		}
+	}
+	private ParseNode chain(int length) {
+		ParseNode root = new BodyNode(IdentifierToken.make(TextLocation.nullInstance(), "n"));
+		ParseNode node = root;
+		for(int i = 1; i < length; i++) {
+			ParseNode child = new BodyNode(IdentifierToken.make(TextLocation.nullInstance(), "n"));
+			node.appendChild(child);
+			node = child;
+		}
+		return root;
+	}
+	private ParseNode parse(String text) {
+		return JuncoParser.parse(JuncoScanner.make(InputHandler.fromCharSequence("text", text)));
+	}
+	private int countNodes(ParseNode node) {
+		int result = 1;
+		for(ParseNode child: node.getChildren()) {
+			result += countNodes(child);
+		}
+		return result;
+	}
+	private String[] lines(String printed) {
+		return printed.split(TERMINATOR);
+	}
+}
@@ -0,0 +1,107 @@
+package parseTree.tests;
+
+import inputHandler.CharBufferInputHandler;
+import inputHandler.CharCursor;
+import inputHandler.InputHandler;
+import lexicalAnalyzer.JuncoScanner;
+import parseTree.ParseNode;
+import parseTree.ParseTreePrinter;
+import parseTree.ParseTreeSerializer;
+import parser.JuncoParser;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static tests.TestSupport.located;
+
+import junit.framework.TestCase;
+
+public class TestParseTreeSerializer extends TestCase {
+	private static final String PROGRAM =
+		"box main {\n const a <- 1 + 2 * 3;\n print a, 'c, 4.5, -7 $;\n prunt a : f;\n}\n" +
+		"box point {\n init x <- 0;\n func move(dx : int, r : range : int) : int {[\n update x <- x + dx : f;\n return x;\n ]}\n}\n" +
+		"box maker {\n const p <- @point;\n call p.move(3, [1, 2]);\n func self() : box : point {[ return this; ]}\n" +
+		" while (!true && false) { if (a == 5) { break; } else { update a <- a + 1; } }\n}\n";
+	private static final byte[] KEY = {1, 2, 3};
+
+	public void testRoundTrip() throws IOException {
+		CharBufferInputHandler source = InputHandler.fromCharSequence("text", PROGRAM);
+		ParseNode tree = JuncoParser.parse(JuncoScanner.make(source));
+		ParseNode copy = read(write(tree, KEY), source, KEY);
+		assertEquals(printed(tree), printed(copy));
+		assertEquals(located(tree), located(copy));
+	}
+	public void testNestedExpressions() throws IOException {
+		StringBuilder program = new StringBuilder("box main {\n const a <- ");
+		for(int i = 0; i < 200; i++) {
+			program.append("(1 + ");
+		}
+		program.append("1");
+		for(int i = 0; i < 200; i++) {
+			program.append(")");
+		}
+		program.append(";\n}\n");
+		CharBufferInputHandler source = InputHandler.fromCharSequence("text", program);
+		ParseNode tree = JuncoParser.parse(JuncoScanner.make(source));
+		ParseNode copy = read(write(tree, KEY), source, KEY);
+		assertEquals(depth(tree), depth(copy));
+	}
+	public void testRejectsOtherKey() throws IOException {
+		CharBufferInputHandler source = InputHandler.fromCharSequence("text", PROGRAM);
+		byte[] written = write(JuncoParser.parse(JuncoScanner.make(source)), KEY);
+		assertRejected(written, source, new byte[] {1, 2, 4});
+	}
+	public void testRejectsOtherVersion() throws IOException {
+		CharBufferInputHandler source = InputHandler.fromCharSequence("text", PROGRAM);
+		byte[] written = write(JuncoParser.parse(JuncoScanner.make(source)), KEY);
+		written[7]++;			// low byte of the version
+		assertRejected(written, source, KEY);
+	}
+	public void testRejectsTruncated() throws IOException {
+		CharBufferInputHandler source = InputHandler.fromCharSequence("text", PROGRAM);
+		byte[] written = write(JuncoParser.parse(JuncoScanner.make(source)), KEY);
+		byte[] truncated = new byte[written.length / 2];
+		System.arraycopy(written, 0, truncated, 0, truncated.length);
+		assertRejected(truncated, source, KEY);
+	}
+
+
+	private void assertRejected(byte[] written, CharBufferInputHandler source, byte[] key) {
+		try {
+			read(written, source, key);
+			fail("read a tree it should have rejected");
+		}
+		catch (IOException e) {
+			// expected
+		}
+	}
+	private byte[] write(ParseNode tree, byte[] key) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ParseTreeSerializer.write(tree, "text", key, out);
+		return out.toByteArray();
+	}
+	private ParseNode read(byte[] written, CharBufferInputHandler source, byte[] key) throws IOException {
+		return ParseTreeSerializer.read(ByteBuffer.wrap(written), source.fileName(),
+				new CharCursor(source).locator(), key);
+	}
+
+	private int depth(ParseNode node) {
+		int result = 0;
+		while(node.nChildren() > 0) {
+			node = node.child(node.nChildren() - 1);
+			result++;
+		}
+		return result;
+	}
+	private String printed(ParseNode node) {
+		ParseTreePrinter.Level level = ParseTreePrinter.getPrintLevel();
+		ParseTreePrinter.setPrintLevel(ParseTreePrinter.Level.FULL);
+		try {
+			return ParseTreePrinter.print(node);
+		}
+		finally {
+			ParseTreePrinter.setPrintLevel(level);
+		}
+	}
+}
@@ -0,0 +1,307 @@
+package parser;
+
+import inputHandler.TextLocation;
+import inputHandler.TextLocator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import lexicalAnalyzer.IncrementalScan;
+import lexicalAnalyzer.Scanner;
+import lexicalAnalyzer.TokenBuffer;
+import parseTree.ParseNode;
+import parseTree.nodeTypes.ProgramNode;
+import tokens.TokenImp;
+
+/** A parse tree kept up to date through edits of its text, by reparsing only the boxes
+ *  an edit touches.
+ *  <p>
+ *  Each box is parsed on its own (as ParallelParse parses a run of boxes), with its tokens
+ *  located through a locator of its own.  After an edit, the boxes lying wholly before or
+ *  wholly after the tokens the IncrementalScan replaced are carried over to the new tree
+ *  as they are: moving one costs only an update of its locator, after which its tokens
+ *  have their locations in the edited text.  (Their offsets, from TokenImp.getOffset,
+ *  remain those of the text the box was parsed from.)  The boxes the edit touched are
+ *  parsed again, and are the new subtrees of the result.
+ *  <p>
+ *  A parse with syntax errors, or whose tokens are not a sequence of boxes with balanced
+ *  braces, is done over as an ordinary JuncoParser parse, which logs the errors; the
+ *  parse after the next edit is then also a whole one.
+ *  <p>
+ *  An edit is made in place: in the tokens (see IncrementalScan), in the tree, whose
+ *  touched boxes are replaced by the reparsed ones, and in the table of the boxes' starts
+ *  and locators.  That table has a gap in it, at the place of the last edit, and the boxes
+ *  after the gap are kept relative to the end of the tokens and of the text, so that an
+ *  edit moves all of them at once.  The previous parse, its tokens and its tree are taken
+ *  over by the result: the previous parse is superseded, and using it again throws an
+ *  IllegalStateException.
+ */
+public class IncrementalParse {
+	private final TokenBuffer tokens;
+	private final ParseNode tree;
+	private final Boxes boxes;				// or null if tree was parsed whole
+	private final List<ParseNode> newSubtrees;
+	private boolean superseded = false;		// true once an edit has taken this parse over
+
+	private IncrementalParse(TokenBuffer tokens, ParseNode tree, Boxes boxes, List<ParseNode> newSubtrees) {
+		this.tokens = tokens;
+		this.tree = tree;
+		this.boxes = boxes;
+		this.newSubtrees = newSubtrees;
+	}
+
+	/** @return the tokens the tree was parsed from. */
+	public TokenBuffer tokens() {
+		checkNotSuperseded();
+		return tokens;
+	}
+	public ParseNode tree() {
+		checkNotSuperseded();
+		return tree;
+	}
+	/** @return the boxes of the tree that were parsed for it, in order.  The other boxes
+	 *  were carried over unchanged from the previous tree.  After a whole parse, this is
+	 *  every child of the tree.
+	 */
+	public List<ParseNode> newSubtrees() {
+		checkNotSuperseded();
+		return newSubtrees;
+	}
+
+
+	/** Parses the tokens box by box, ready for reparsing after edits. */
+	public static IncrementalParse parse(TokenBuffer tokens) {
+		int end = tokens.size() - 1;
+		List<Integer> starts = ParallelParse.boxStarts(tokens, 0, end);
+		if(starts == null || starts.isEmpty()) {
+			return wholeParse(tokens);
+		}
+		Boxes boxes = new Boxes(tokens);
+		BoxLocator[] locators = new BoxLocator[starts.size()];
+		List<ParseNode> parsed = parseBoxes(tokens, starts, end, boxes, locators);
+		if(parsed == null) {
+			return wholeParse(tokens);
+		}
+		boxes.insert(starts, locators);
+		ParseNode program = new ProgramNode(tokens.token(0, boxes.programLocator));
+		for(ParseNode box: parsed) {
+			program.appendChild(box);
+		}
+		return new IncrementalParse(tokens, program, boxes, parsed);
+	}
+
+	/** Applies an edit to the text, and reparses the boxes it touches.
+	 *  See IncrementalScan.relex for the parameters.
+	 */
+	public IncrementalParse edit(int offset, int removedLength, CharSequence inserted) {
+		checkNotSuperseded();
+		return reparse(IncrementalScan.relex(tokens, offset, removedLength, inserted));
+	}
+	/** @param edit a rescan of the tokens of this parse. */
+	public IncrementalParse reparse(IncrementalScan edit) {
+		checkNotSuperseded();
+		superseded = true;
+		TokenBuffer newTokens = edit.tokens();
+		if(boxes == null) {
+			return parse(newTokens);
+		}
+		int shift = edit.endOfInsertedTokens() - edit.endOfRemovedTokens();
+		int first = boxes.boxContaining(Math.max(edit.firstChangedToken() - 1, 0));
+		int last = boxes.boxContaining(Math.min(edit.endOfRemovedTokens(), boxes.numTokens - 1));
+		int numAfter = boxes.size - (last + 1);
+
+		int start = boxes.start(first);
+		int end = numAfter > 0 ? boxes.start(last + 1) + shift : newTokens.size() - 1;
+		List<Integer> starts = ParallelParse.boxStarts(newTokens, start, end);
+		if(starts == null || first + starts.size() + numAfter == 0) {
+			return parse(newTokens);
+		}
+		BoxLocator[] locators = new BoxLocator[starts.size()];
+		List<ParseNode> reparsed = parseBoxes(newTokens, starts, end, boxes, locators);
+		if(reparsed == null) {
+			return parse(newTokens);
+		}
+
+		boxes.moveGap(first);
+		boxes.size -= last + 1 - first;
+		boxes.edited(newTokens);
+		boxes.insert(starts, locators);
+		tree.replaceChildren(first, last + 1, reparsed);
+		if(first == 0) {
+			boxes.programLocator.setShift(newTokens.offset(0) - ((TokenImp)tree.getToken()).getOffset());
+		}
+		return new IncrementalParse(newTokens, tree, boxes, reparsed);
+	}
+	private void checkNotSuperseded() {
+		if(superseded) {
+			throw new IllegalStateException("parse has been edited, and replaced by the result");
+		}
+	}
+
+
+	// parses each box on its own, with a new locator for each (stored in locators).
+	// Returns null if any box has a syntax error.
+	private static List<ParseNode> parseBoxes(TokenBuffer tokens, List<Integer> starts, int end,
+			Boxes boxes, BoxLocator[] locators) {
+		List<ParseNode> result = new ArrayList<ParseNode>();
+		for(int i = 0; i < starts.size(); i++) {
+			int boxEnd = i + 1 < starts.size() ? starts.get(i + 1) : end;
+			BoxLocator locator = new BoxLocator(boxes);
+			QuietParser parser = new QuietParser(tokens.reader(starts.get(i), boxEnd, locator));
+			ParseNode program = parser.parse();
+			if(parser.hasErrors || program.nChildren() != 1) {
+				return null;
+			}
+			locators[i] = locator;
+			result.add(program.child(0));
+		}
+		return result;
+	}
+	private static IncrementalParse wholeParse(TokenBuffer tokens) {
+		ParseNode tree = JuncoParser.parse(tokens);
+		List<ParseNode> children = new ArrayList<ParseNode>();
+		for(int i = 0; i < tree.nChildren(); i++) {
+			children.add(tree.child(i));
+		}
+		return new IncrementalParse(tokens, tree, null, children);
+	}
+
+
+	// a parser whose syntax errors are noted, not logged: any one sends the parse to wholeParse.
+	private static class QuietParser extends JuncoParser {
+		private boolean hasErrors = false;
+
+		QuietParser(Scanner scanner) {
+			super(scanner);
+		}
+		@Override
+		protected void error(String message) {
+			hasErrors = true;
+		}
+	}
+
+	// the index of each box's BOX token, and its locator, in arrays with a gap in them.
+	// The starts after the gap are kept less numTokens, and their locators locate from
+	// the end of the text: so an edit before them moves them without touching them.
+	private static class Boxes {
+		private static final int MINIMUM_GAP = 16;
+
+		private final TextLocator textLocator;
+		private final BoxLocator programLocator;	// of the ProgramNode's token
+		private int[] starts = new int[MINIMUM_GAP];
+		private BoxLocator[] locators = new BoxLocator[MINIMUM_GAP];
+		private int size = 0;
+		private int gapStart = 0;
+		private int numTokens;
+		private int textLength;
+
+		Boxes(TokenBuffer tokens) {
+			this.textLocator = tokens.input().locator();
+			this.numTokens = tokens.size();
+			this.textLength = tokens.input().text().length();
+			this.programLocator = new BoxLocator(this);
+		}
+
+		int start(int box) {
+			return box < gapStart ? starts[box] : starts[box + starts.length - size] + numTokens;
+		}
+		// the index of the box containing token index.
+		int boxContaining(int index) {
+			int low = 0;
+			int high = size - 1;
+			while(low < high) {
+				int middle = (low + high + 1) >>> 1;
+				if(start(middle) <= index) {
+					low = middle;
+				}
+				else {
+					high = middle - 1;
+				}
+			}
+			return low;
+		}
+
+		// the tokens, and so the text, have been edited at the gap.
+		void edited(TokenBuffer tokens) {
+			numTokens = tokens.size();
+			textLength = tokens.input().text().length();
+		}
+		// inserts boxes at the gap.
+		void insert(List<Integer> newStarts, BoxLocator[] newLocators) {
+			if(starts.length - size < newLocators.length) {
+				grow(newLocators.length);
+			}
+			for(int i = 0; i < newLocators.length; i++) {
+				starts[gapStart] = newStarts.get(i);
+				locators[gapStart] = newLocators[i];
+				gapStart++;
+				size++;
+			}
+		}
+		private void grow(int minimumGap) {
+			int tailLength = size - gapStart;
+			int capacity = Math.max(2 * starts.length, size + minimumGap + MINIMUM_GAP);
+			int[] grownStarts = Arrays.copyOf(starts, capacity);
+			BoxLocator[] grownLocators = Arrays.copyOf(locators, capacity);
+			System.arraycopy(starts, starts.length - tailLength, grownStarts, capacity - tailLength, tailLength);
+			System.arraycopy(locators, locators.length - tailLength, grownLocators, capacity - tailLength, tailLength);
+			starts = grownStarts;
+			locators = grownLocators;
+		}
+		// puts the gap just before box, converting the boxes that cross it.
+		void moveGap(int box) {
+			int gapLength = starts.length - size;
+			if(box < gapStart) {
+				int count = gapStart - box;
+				System.arraycopy(starts, box, starts, box + gapLength, count);
+				System.arraycopy(locators, box, locators, box + gapLength, count);
+				for(int i = box + gapLength; i < gapStart + gapLength; i++) {
+					starts[i] -= numTokens;
+					locators[i].anchorAtEnd();
+				}
+			}
+			else {
+				int count = box - gapStart;
+				System.arraycopy(starts, gapStart + gapLength, starts, gapStart, count);
+				System.arraycopy(locators, gapStart + gapLength, locators, gapStart, count);
+				for(int i = gapStart; i < box; i++) {
+					starts[i] += numTokens;
+					locators[i].anchorAtStart();
+				}
+			}
+			Arrays.fill(locators, box, box + gapLength, null);
+			gapStart = box;
+		}
+	}
+
+	// locates the offsets of the tokens of one box, in the text the box was parsed from,
+	// in the text the box is now part of: from the start of the text, or, for a box after
+	// the gap, from its end.
+	private static class BoxLocator implements TextLocator {
+		private final Boxes boxes;
+		private int shift = 0;				// from original offset to offset in the text, or from its end
+		private boolean fromEnd = false;
+
+		BoxLocator(Boxes boxes) {
+			this.boxes = boxes;
+		}
+		// (for a locator not after the gap.)
+		void setShift(int shift) {
+			this.shift = shift;
+		}
+		void anchorAtEnd() {
+			shift -= boxes.textLength;
+			fromEnd = true;
+		}
+		void anchorAtStart() {
+			shift += boxes.textLength;
+			fromEnd = false;
+		}
+		@Override
+		public TextLocation locate(int offset) {
+			int textOffset = offset + shift + (fromEnd ? boxes.textLength : 0);
+			return boxes.textLocator.locate(textOffset);
+		}
+	}
+}
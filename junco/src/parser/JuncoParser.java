@@ -1,6 +1,5 @@
 package parser;
 
-import java.util.Arrays;
 import logging.JuncoLogger;
 import parseTree.*;
 import parseTree.nodeTypes.BinaryOperatorNode;
@@ -28,34 +27,72 @@ import parseTree.nodeTypes.UniaryOperatorNode;
 import parseTree.nodeTypes.UpdateStatementNode;
 import parseTree.nodeTypes.ValueBodyNode;
 import parseTree.nodeTypes.WhileStatementNode;
-import semanticAnalyzer.BoxType;
 import semanticAnalyzer.PrimitiveType;
-import semanticAnalyzer.RangeType;
 import semanticAnalyzer.Type;
+import semanticAnalyzer.Types;
 import tokens.*;
 import lexicalAnalyzer.Keyword;
 import lexicalAnalyzer.Lextant;
 import lexicalAnalyzer.Punctuator;
 import lexicalAnalyzer.Scanner;
+import lexicalAnalyzer.TokenBuffer;
+
+import java.util.concurrent.ForkJoinPool;
 
 public class JuncoParser {
 	private Scanner scanner;
 	private Token nowReading;
 	private Token previouslyRead;
+	private boolean recovering;		// in panic mode: errors are not reported until the parser resynchronizes
+	private int numSyntaxErrors = 0;	// those found outside panic mode, whether reported or not
+
+	/** The number of syntax errors reported by one parse.  Any more are only counted,
+	 *  and the count given in one last message.
+	 */
+	public static final int MAX_REPORTED_ERRORS = 100;
+	/** The version of the trees this parser builds, for the trees filed by ParseCache.
+	 *  Any change to the parser or the scanner that changes the tree of some text (its
+	 *  nodes, tokens or types) must come with a new version.
+	 */
+	public static final int GRAMMAR_VERSION = 1;
 
 	public static ParseNode parse(Scanner scanner) {
 		JuncoParser parser = new JuncoParser(scanner);
 		return parser.parse();
 	}
+	public static ParseNode parse(TokenBuffer tokens) {
+		return parse(tokens.reader());
+	}
+	/** Parses runs of the program's boxes in parallel, on the common fork-join pool.
+	 *  The tree and syntax errors are those of a sequential parse.
+	 */
+	public static ParseNode parseInParallel(TokenBuffer tokens) {
+		return parseInParallel(tokens, PARALLEL_RUN_LENGTH);
+	}
+	/** @param runLength the least number of tokens parsed by one task. */
+	public static ParseNode parseInParallel(TokenBuffer tokens, int runLength) {
+		return ForkJoinPool.commonPool().invoke(new ParallelParse(tokens, runLength));
+	}
+	private static final int PARALLEL_RUN_LENGTH = 1 << 14;
 
 	public JuncoParser(Scanner scanner) {
 		super();
 		this.scanner = scanner;
 	}
 
+	/** @return the tree of the program.  If there were syntax errors, it is an ErrorNode,
+	 *  or a ProgramNode whose hasSyntaxErrors() is true.
+	 */
 	public ParseNode parse() {
 		readToken();
-		return parseProgram();
+		ParseNode program = parseProgram();
+		if (numSyntaxErrors > MAX_REPORTED_ERRORS) {
+			error("too many syntax errors: " + (numSyntaxErrors - MAX_REPORTED_ERRORS) + " more not reported");
+		}
+		if (program instanceof ProgramNode) {
+			((ProgramNode) program).setHasSyntaxErrors(numSyntaxErrors > 0);
+		}
+		return program;
 	}
 
 	// //////////////////////////////////////////////////////////
@@ -68,16 +105,21 @@ public class JuncoParser {
 		}
 		ParseNode program = new ProgramNode(nowReading);
 
-		while (nowReading.isLextant(Keyword.BOX)) {
-			ParseNode box = parseBox();
-			program.appendChild(box);
-		}
-
-		if (!(nowReading instanceof NullToken)) {
-			return syntaxErrorNode("end of program");
+		while (true) {
+			if (recovering) {
+				synchronize(FIRST_BOX);
+			}
+			if (startsBox(nowReading)) {
+				ParseNode box = parseBox();
+				program.appendChild(box);
+			}
+			else if (nowReading instanceof NullToken) {
+				return program;
+			}
+			else {
+				syntaxError(nowReading, "expecting end of program");
+			}
 		}
-
-		return program;
 	}
 
 	private boolean startsProgram(Token token) {
@@ -101,7 +143,7 @@ public class JuncoParser {
 	}
 
 	private boolean startsBox(Token token) {
-		return token.isLextant(Keyword.BOX);
+		return FIRST_BOX.contains(token);
 	}
 
 	// boxBody -> { statement* }
@@ -112,11 +154,7 @@ public class JuncoParser {
 		ParseNode box = new BoxBodyNode(nowReading);
 		readToken();
 		expect(Punctuator.OPEN_BRACE);
-
-		while (startsStatement(nowReading)) {
-			ParseNode statement = parseStatement();
-			box.appendChild(statement);
-		}
+		parseStatements(box);
 		expect(Punctuator.CLOSE_BRACE);
 		return box;
 	}
@@ -128,51 +166,87 @@ public class JuncoParser {
 	// /////////////////////////////////////////////////////////
 	// statements
 
-	// statement-> declaration | printStmt | updateStmt
+	// FIRST sets.  Each startsX(token) is a single test of one of these.
+	private static final TokenSet FIRST_BOX = TokenSet.of(Keyword.BOX);
+	private static final TokenSet FIRST_PRINT_STATEMENT = TokenSet.of(Keyword.PRINT, Keyword.PRUNT);
+	private static final TokenSet FIRST_DECLARATION = TokenSet.of(Keyword.CONST, Keyword.INIT);
+	private static final TokenSet FIRST_STATEMENT = TokenSet.of(Keyword.UPDATE, Keyword.IF,
+			Keyword.WHILE, Punctuator.OPEN_BRACE, Keyword.RETURN, Keyword.FUNC, Keyword.CALL, Keyword.BREAK)
+			.union(FIRST_PRINT_STATEMENT).union(FIRST_DECLARATION);
+	private static final TokenSet FIRST_BOOLEAN_CONSTANT = TokenSet.of(Keyword.TRUE, Keyword.FALSE);
+	private static final TokenSet FIRST_EXPRESSION = TokenSet.of(Punctuator.OPEN_BRACKET, Punctuator.NOT,
+			Punctuator.OPEN_SQUARE, Punctuator.BODY_OPEN, Punctuator.AT, Keyword.THIS)
+			.union(FIRST_BOOLEAN_CONSTANT).withIdentifiers().withLiterals();
+
+	// tokens that end a list of statements, and the tokens at which panic mode stops
+	// skipping within one.
+	private static final TokenSet ENDS_STATEMENTS = TokenSet.of(Punctuator.CLOSE_BRACE,
+			Punctuator.BODY_CLOSE, Keyword.BOX);
+	private static final TokenSet STATEMENT_SYNC = TokenSet.of(Punctuator.TERMINATOR)
+			.union(FIRST_STATEMENT).union(ENDS_STATEMENTS);
+
+	// statement* : the contents of a box body, body, or value body, which are added to parent.
+	// A token that neither starts a statement nor ends the list is an error, after which
+	// (as after an error within a statement) parsing resumes at the next statement.
+	private void parseStatements(ParseNode parent) {
+		while (true) {
+			if (recovering) {
+				synchronize(STATEMENT_SYNC);
+			}
+			if (startsStatement(nowReading)) {
+				parent.appendChild(parseStatement());
+			}
+			else if (endsStatements(nowReading)) {
+				return;
+			}
+			else {
+				parent.appendChild(syntaxErrorNode("statement"));
+			}
+		}
+	}
+	private boolean endsStatements(Token token) {
+		return ENDS_STATEMENTS.contains(token) || token instanceof NullToken;
+	}
+
+	// statement-> declaration | printStmt | updateStmt | ifStmt | whileStmt | body
+	//           | returnStmt | breakStmt | functionDecl | callStmt
+	// All but body start with a keyword; dispatch is by a switch on it.
 	private ParseNode parseStatement() {
 		if (!startsStatement(nowReading)) {
 			return syntaxErrorNode("statement");
 		}
-		if (startsDeclaration(nowReading)) {
-			return parseDeclaration();
+		if (startsBody(nowReading)) {
+			return parseBody();
 		}
-		if (startsPrintStatement(nowReading)) {
+		switch ((Keyword) ((LextantToken) nowReading).getLextant()) {
+		case CONST:
+		case INIT:
+			return parseDeclaration();
+		case PRINT:
+		case PRUNT:
 			return parsePrintStatement();
-		}
-		if (startsUpdateStatement(nowReading)) {
+		case UPDATE:
 			return parseUpdateStatement();
-		}
-		if (startsIfStatement(nowReading)) {
+		case IF:
 			return parseIfStatement();
-		}
-		if (startsWhileStatement(nowReading)) {
+		case WHILE:
 			return parseWhileStatement();
-		}
-		if (startsBody(nowReading)) {
-			return parseBody();
-		}
-		if (startsReturnStatement(nowReading)) {
+		case RETURN:
 			return parseReturnStatement();
-		}
-		if (startsBreakStatement(nowReading)) {
+		case BREAK:
 			return parseBreakStatement();
-		}
-		if (startsFunctionDecl(nowReading)) {
+		case FUNC:
 			return parseFunctionDecl();
-		}
-		if (startsCallStatement(nowReading)) {
+		case CALL:
 			return parseCallStatement();
+		default:
+			assert false : "bad token " + nowReading + " in parseStatement()";
+			return null;
 		}
-		assert false : "bad token " + nowReading + " in parseStatement()";
-		return null;
 	}
 
 	private boolean startsStatement(Token token) {
-		return startsPrintStatement(token) || startsDeclaration(token)
-				|| startsUpdateStatement(token) || startsIfStatement(token)
-				|| startsWhileStatement(token) || startsBody(token)
-				|| startsReturnStatement(token) || startsFunctionDecl(token)
-				|| startsCallStatement(token) || startsBreakStatement(token);
+		return FIRST_STATEMENT.contains(token);
 	}
 
 	private boolean startsCallStatement(Token token) {
@@ -307,12 +381,12 @@ public class JuncoParser {
 		}
 		else if (id.equals("r") || id.equals("range")) {
 			expect(Punctuator.COLON);
-			return new RangeType(parseTypeSpec());
+			return Types.range(parseTypeSpec());
 		}
 		else if (id.equals("x") || id.equals("box")) {
 			expect(Punctuator.COLON);
 			ParseNode boxType = parseIdentifier();
-			return new BoxType(boxType.getToken().getLexeme(), 0);
+			return Types.box(boxType.getToken().getLexeme());
 		}
 		return null;
 	}
@@ -373,11 +447,7 @@ public class JuncoParser {
 		ParseNode body = new BodyNode(nowReading);
 
 		expect(Punctuator.OPEN_BRACE);
-		while (startsStatement(nowReading)) {
-			ParseNode statement = parseStatement();
-			body.appendChild(statement);
-		}
-
+		parseStatements(body);
 		expect(Punctuator.CLOSE_BRACE);
 		return body;
 	}
@@ -389,11 +459,7 @@ public class JuncoParser {
 		ParseNode body = new ValueBodyNode(nowReading);
 
 		expect(Punctuator.BODY_OPEN);
-		while (startsStatement(nowReading)) {
-			ParseNode statement = parseStatement();
-			body.appendChild(statement);
-		}
-
+		parseStatements(body);
 		expect(Punctuator.BODY_CLOSE);
 		return body;
 	}
@@ -430,7 +496,7 @@ public class JuncoParser {
 	}
 
 	private boolean startsPrintStatement(Token token) {
-		return token.isLextant(Keyword.PRINT, Keyword.PRUNT);
+		return FIRST_PRINT_STATEMENT.contains(token);
 	}
 
 	// This adds the expressions found to the children of the given parent
@@ -476,7 +542,7 @@ public class JuncoParser {
 	}
 
 	private boolean startsDeclaration(Token token) {
-		return token.isLextant(Keyword.CONST, Keyword.INIT);
+		return FIRST_DECLARATION.contains(token);
 	}
 
 	private ParseNode parseReturnStatement() {
@@ -543,170 +609,100 @@ public class JuncoParser {
 
 	// /////////////////////////////////////////////////////////
 	// expressions
-	// expr -> expr1
-	// expr1 -> expr2 [> expr2]?
-	// expr2 -> expr3 [+ expr3]* (left-assoc)
-	// expr3 -> expr4 [MULT expr4]* (left-assoc)
-	// expr4 -> literal
-	// literal -> intNumber | identifier | booleanConstant | characterConstant
-
-	// expr -> expr1
-	private ParseNode parseExpression() {
-		if (!startsExpression(nowReading)) {
-			return syntaxErrorNode("expression");
-		}
-		return parseExpressionOr();
-	}
-
-	private boolean startsExpression(Token token) {
-		return startsExpression5(token);
-	}
-
-	private ParseNode parseExpressionOr() {
-		if (!startsExpression5(nowReading)) {
-			return syntaxErrorNode("expression<Or>");
-		}
-
-		ParseNode left = parseExpressionAnd();
-		while (nowReading.isLextant(Punctuator.OR)) {
-			Token BooleanToken = nowReading;
-			readToken();
-			ParseNode right = parseExpressionAnd();
-
-			left = BinaryOperatorNode.withChildren(BooleanToken, left, right);
+	// expr -> binary(OR)
+	// binary(level) -> cast [op binary(level+1)]*   for each op with bindingPower(op) >= level (left-assoc)
+	//     levels, loosest first: ||, &&, comparisons and in, span, intersection, + -, * /
+	// cast -> not [: typeIdentifier]?
+	// not -> [!]? memberAccess
+	// memberAccess -> [@]? expr5 [. expr5]*
+	// expr5 -> ( expr ) | [ expr , expr ] | valueBody | identifier [( expressionList )]? | literal
+	// literal -> intNumber | floatNumber | booleanConstant | characterConstant | this
+
+	// The binary operators are parsed by precedence climbing: one loop, driven by the
+	// binding powers below, replaces a method per precedence level.  The right operand
+	// of an operator of level L is a binary(L+1), and the syntax error given when it is
+	// missing is the one the method for level L+1 gave.
+	private static final int NOT_A_BINARY_OPERATOR = 0;
+	private static final int LOOSEST_LEVEL = 1;
+	private static final int CAST_LEVEL = 8;
+	private static final String[] OPERAND_NAMES = {
+		null, null, "expression<And>", "expression<1>", "expression<span>", "expression<intersection>",
+		"expression<2>", "expression<3>", "expression<case>",
+	};
+	private static final int[] PUNCTUATOR_BINDING_POWER = new int[Punctuator.values().length];
+	private static final int[] KEYWORD_BINDING_POWER = new int[Keyword.values().length];
+	static {
+		setBindingPower(1, Punctuator.OR);
+		setBindingPower(2, Punctuator.AND);
+		setBindingPower(3, Punctuator.GREATER, Punctuator.GREATEREQ, Punctuator.LESS, Punctuator.LESSEQ,
+				Punctuator.EQUAL, Punctuator.UNEQUAL, Keyword.IN);
+		setBindingPower(4, Punctuator.SPAN);
+		setBindingPower(5, Punctuator.INTERSECTION);
+		setBindingPower(6, Punctuator.ADD, Punctuator.MINUS);
+		setBindingPower(7, Punctuator.MULTIPLY, Punctuator.DIVIDE);
+	}
+	private static void setBindingPower(int level, Lextant... operators) {
+		for (Lextant operator : operators) {
+			if (operator instanceof Punctuator) {
+				PUNCTUATOR_BINDING_POWER[((Punctuator) operator).ordinal()] = level;
+			}
+			else {
+				KEYWORD_BINDING_POWER[((Keyword) operator).ordinal()] = level;
+			}
 		}
-
-		return left;
-
 	}
-
-	private ParseNode parseExpressionAnd() {
-		if (!startsExpression5(nowReading)) {
-			return syntaxErrorNode("expression<And>");
+	private static int bindingPower(Token token) {
+		if (!(token instanceof LextantToken)) {
+			return NOT_A_BINARY_OPERATOR;
 		}
-
-		ParseNode left = parseExpression1();
-		while (nowReading.isLextant(Punctuator.AND)) {
-			Token BooleanToken = nowReading;
-			readToken();
-			ParseNode right = parseExpression1();
-
-			left = BinaryOperatorNode.withChildren(BooleanToken, left, right);
+		Lextant lextant = ((LextantToken) token).getLextant();
+		if (lextant instanceof Punctuator) {
+			return PUNCTUATOR_BINDING_POWER[((Punctuator) lextant).ordinal()];
 		}
-
-		return left;
-
+		return KEYWORD_BINDING_POWER[((Keyword) lextant).ordinal()];
 	}
 
-	// expr1 -> expr2 [> expr2]?
-	private ParseNode parseExpression1() {
-		if (!startsExpression5(nowReading)) {
-			return syntaxErrorNode("expression<1>");
-		}
-
-		ParseNode left = parseExpressionSpan();
-		while (nowReading.isLextant(Punctuator.GREATER, Punctuator.GREATEREQ,
-				Punctuator.LESS, Punctuator.LESSEQ, Punctuator.EQUAL,
-				Punctuator.UNEQUAL, Keyword.IN)) {
-			Token compareToken = nowReading;
-			readToken();
-			ParseNode right = parseExpressionSpan();
-
-			left = BinaryOperatorNode.withChildren(compareToken, left, right);
-		}
-
-		return left;
-
-	}
-
-	// parse range span
-	private ParseNode parseExpressionSpan() {
-		if (!startsExpression5(nowReading)) {
-			return syntaxErrorNode("expression<span>");
-		}
-
-		ParseNode left = parseExpressionInter();
-		while (nowReading.isLextant(Punctuator.SPAN)) {
-			Token compareToken = nowReading;
-			readToken();
-			ParseNode right = parseExpressionInter();
-
-			left = BinaryOperatorNode.withChildren(compareToken, left, right);
+	// expr -> binary(OR)
+	private ParseNode parseExpression() {
+		if (!startsExpression(nowReading)) {
+			return syntaxErrorNode("expression");
 		}
-
-		return left;
-
+		return parseBinaryExpression(LOOSEST_LEVEL);
 	}
 
-	// parse range intersection
-	private ParseNode parseExpressionInter() {
-		if (!startsExpression5(nowReading)) {
-			return syntaxErrorNode("expression<intersection>");
-		}
-
-		ParseNode left = parseExpression2();
-		while (nowReading.isLextant(Punctuator.INTERSECTION)) {
-			Token compareToken = nowReading;
-			readToken();
-			ParseNode right = parseExpression2();
-
-			left = BinaryOperatorNode.withChildren(compareToken, left, right);
-		}
-
-		return left;
-
+	private boolean startsExpression(Token token) {
+		return startsExpression5(token);
 	}
 
-	// private boolean startsExpression1(Token token) {
-	// return startsExpression2(token);
-	// }
-
-	// expr2 -> expr3 [+ expr3]* (left-assoc)
-	private ParseNode parseExpression2() {
-		if (!startsExpression5(nowReading)) {
-			return syntaxErrorNode("expression<2>");
-		}
-
-		ParseNode left = parseExpression3();
-		while (nowReading.isLextant(Punctuator.ADD, Punctuator.MINUS)) {
+	// binary(level) -> cast [op binary(level+1)]*
+	// nowReading starts an expression.
+	private ParseNode parseBinaryExpression(int level) {
+		ParseNode left = parseExpression4();
+		int power = bindingPower(nowReading);
+		while (power >= level) {
 			Token operatorToken = nowReading;
 			readToken();
-			ParseNode right = parseExpression3();
+			ParseNode right = parseOperand(power + 1);
 
 			left = BinaryOperatorNode.withChildren(operatorToken, left, right);
+			power = bindingPower(nowReading);
 		}
-
 		return left;
 	}
 
-	// private boolean startsExpression2(Token token) {
-	// return startsExpression3(token);
-	// }
-
-	// expr3 -> expr4 [MULT expr4]* (left-assoc)
-	private ParseNode parseExpression3() {
+	private ParseNode parseOperand(int level) {
 		if (!startsExpression5(nowReading)) {
-			return syntaxErrorNode("expression<3>");
+			return syntaxErrorNode(OPERAND_NAMES[level]);
 		}
-
-		ParseNode left = parseExpression4();
-		while (nowReading.isLextant(Punctuator.MULTIPLY, Punctuator.DIVIDE)) {
-			Token operatorToken = nowReading;
-			readToken();
-			ParseNode right = parseExpression4();
-
-			left = BinaryOperatorNode.withChildren(operatorToken, left, right);
+		if (level == CAST_LEVEL) {
+			return parseExpression4();
 		}
-
-		return left;
+		return parseBinaryExpression(level);
 	}
 
 	// cast expression
+	// nowReading starts an expression.
 	private ParseNode parseExpression4() {
-		if (!startsExpression5(nowReading)) {
-			return syntaxErrorNode("expression<case>");
-		}
-
 		ParseNode left = parseExpressionNot();
 
 		if (nowReading.isLextant(Punctuator.COLON)) {
@@ -718,24 +714,20 @@ public class JuncoParser {
 			String id = typeIdentifier.getToken().getLexeme().toLowerCase();
 
 			if (id.equals("i") || id.equals("int") || id.equals("integer")) {
-				left = UniaryOperatorNode
-						.withChildren(left, LextantToken.make(typeIdentifier.getToken()
-								.getLocation(), "i", Punctuator.CASTTOINT));
+				left = UniaryOperatorNode.withChildren(left,
+						lextantTokenAt(typeIdentifier.getToken(), "i", Punctuator.CASTTOINT));
 			}
 			else if (id.equals("b") || id.equals("bool") || id.equals("boolean")) {
-				left = UniaryOperatorNode.withChildren(left, LextantToken
-						.make(typeIdentifier.getToken().getLocation(), "b",
-								Punctuator.CASTTOBOOL));
+				left = UniaryOperatorNode.withChildren(left,
+						lextantTokenAt(typeIdentifier.getToken(), "b", Punctuator.CASTTOBOOL));
 			}
 			else if (id.equals("f") || id.equals("float") || id.equals("floating")) {
-				left = UniaryOperatorNode.withChildren(left, LextantToken.make(
-						typeIdentifier.getToken().getLocation(), "f",
-						Punctuator.CASTTOFLAOT));
+				left = UniaryOperatorNode.withChildren(left,
+						lextantTokenAt(typeIdentifier.getToken(), "f", Punctuator.CASTTOFLAOT));
 			}
 			else if (id.equals("c") || id.equals("char") || id.equals("character")) {
-				left = UniaryOperatorNode.withChildren(left, LextantToken
-						.make(typeIdentifier.getToken().getLocation(), "c",
-								Punctuator.CASTTOCHAR));
+				left = UniaryOperatorNode.withChildren(left,
+						lextantTokenAt(typeIdentifier.getToken(), "c", Punctuator.CASTTOCHAR));
 			}
 			else {
 				syntaxError(typeIdentifier.getToken(), "unknown type");
@@ -746,33 +738,40 @@ public class JuncoParser {
 		return left;
 	}
 
+	// a token made by the parser is located by the locator of the token it stands in for,
+	// so that it moves with that token when an IncrementalParse reuses the tree.
+	private static LextantToken lextantTokenAt(Token source, String lexeme, Lextant lextant) {
+		TokenImp at = (TokenImp) source;
+		return LextantToken.make(at.getLocator(), at.getOffset(), lexeme, lextant);
+	}
+
 	// parse boolean not expression
+	// nowReading starts an expression.
 	private ParseNode parseExpressionNot() {
-		if (!startsExpression5(nowReading)) {
-			return syntaxErrorNode("expression<Not>");
-		}
-
-		Token BoolenaNotToken = nowReading;
-		ParseNode left = null;
-
 		if (nowReading.isLextant(Punctuator.NOT)) {
+			Token BoolenaNotToken = nowReading;
 			readToken();
-			left = parseMemberAccess();
-			left = UniaryOperatorNode.withChildren(left, BoolenaNotToken);
+			ParseNode left = parseMemberAccess();
+			return UniaryOperatorNode.withChildren(left, BoolenaNotToken);
 		}
-		else
-			left = parseMemberAccess();
-
-		return left;
+		return parseMemberAccess();
 	}
 
-	// parse member access expression
+	// parse member access expression, whose first operand may be a box creation
 	private ParseNode parseMemberAccess() {
 		if (!startsExpression5(nowReading)) {
 			return syntaxErrorNode("expression<menber>");
 		}
 
-		ParseNode left = parseBoxCreation();
+		ParseNode left;
+		if (nowReading.isLextant(Punctuator.AT)) {
+			Token token = nowReading;
+			readToken();
+			left = UniaryOperatorNode.withChildren(parseExpression5(), token);
+		}
+		else {
+			left = parseExpression5();
+		}
 
 		while (nowReading.isLextant(Punctuator.DOT)) {
 			Token operatorToken = nowReading;
@@ -786,25 +785,6 @@ public class JuncoParser {
 		return left;
 	}
 
-	private ParseNode parseBoxCreation() {
-		if (!startsExpression5(nowReading)) {
-			return syntaxErrorNode("expression<box creation>");
-		}
-		Token token = nowReading;
-		ParseNode right = null;
-
-		if (nowReading.isLextant(Punctuator.AT)) {
-			readToken();
-			right = parseExpression5();
-			right = UniaryOperatorNode.withChildren(right, token);
-		}
-		else {
-			right = parseExpression5();
-		}
-
-		return right;
-	}
-
 	// expr4 -> literal
 	private ParseNode parseExpression5() {
 		if (!startsExpression5(nowReading)) {
@@ -886,14 +866,7 @@ public class JuncoParser {
 	}
 
 	private boolean startsLiteralOrBracket(Token token) {
-		return startsIntNumber(token)
-				|| startsFloatNumber(token)
-				|| startsIdentifier(token)
-				|| startsBooleanConstant(token)
-				|| startsCharacterConstant(token)
-				|| (token.isLextant(Punctuator.OPEN_BRACKET, Punctuator.NOT,
-						Punctuator.OPEN_SQUARE, Punctuator.BODY_OPEN, Punctuator.AT))
-				|| startsThisKeyword(token);
+		return FIRST_EXPRESSION.contains(token);
 	}
 
 	private ParseNode parseThisKeyWord() {
@@ -901,8 +874,9 @@ public class JuncoParser {
 			return syntaxErrorNode("this keyword");
 		}
 		readToken();
+		TokenImp thisToken = (TokenImp) previouslyRead;
 		return new IdentifierNode(IdentifierToken.make(
-				previouslyRead.getLocation(), Keyword.THIS.getLexeme()));
+				thisToken.getLocator(), thisToken.getOffset(), Keyword.THIS.getLexeme()));
 	}
 
 	// this keyword
@@ -972,7 +946,7 @@ public class JuncoParser {
 	}
 
 	private boolean startsBooleanConstant(Token token) {
-		return token.isLextant(Keyword.TRUE, Keyword.FALSE);
+		return FIRST_BOOLEAN_CONSTANT.contains(token);
 	}
 
 	private void readToken() {
@@ -980,29 +954,54 @@ public class JuncoParser {
 		nowReading = scanner.next();
 	}
 
-	// if the current token is one of the given lextants, read the next token.
-	// otherwise, give a syntax error and read next token (to avoid endless
-	// looping).
-	private void expect(Lextant... lextants) {
-		if (!nowReading.isLextant(lextants)) {
-			syntaxError(nowReading, "expecting " + Arrays.toString(lextants));
+	// if the current token is the given lextant, read the next token.
+	// otherwise, give a syntax error and leave the token for panic mode to skip.
+	private void expect(Lextant lextant) {
+		if (!nowReading.isLextant(lextant)) {
+			syntaxError(nowReading, "expecting [" + lextant + "]");
+			return;
 		}
 		readToken();
 	}
 
 	private ErrorNode syntaxErrorNode(String expectedSymbol) {
 		syntaxError(nowReading, "expecting " + expectedSymbol);
-		ErrorNode errorNode = new ErrorNode(nowReading);
-		readToken();
-		return errorNode;
+		return new ErrorNode(nowReading);
 	}
 
+	// the first error puts the parser in panic mode, and errors found while in it
+	// (which are almost always consequences of the first) are not reported.
 	private void syntaxError(Token token, String errorDescription) {
+		if (recovering) {
+			return;
+		}
+		recovering = true;
+		numSyntaxErrors++;
+		if (numSyntaxErrors > MAX_REPORTED_ERRORS) {
+			return;
+		}
 		String message = "" + token.getLocation() + " " + errorDescription;
 		error(message);
 	}
 
-	private void error(String message) {
+	// panic mode: skip tokens up to one of the given set (or the end of input).
+	// Recovery is complete at a terminator, which is read, or at the start of a
+	// statement or box.  At anything else, such as a closing brace, the parser stays in
+	// panic mode so that the constructs left open by the error can close quietly.
+	private void synchronize(TokenSet stoppers) {
+		while (!stoppers.contains(nowReading) && !(nowReading instanceof NullToken)) {
+			readToken();
+		}
+		if (nowReading.isLextant(Punctuator.TERMINATOR)) {
+			readToken();
+			recovering = false;
+		}
+		else if (startsStatement(nowReading) || startsBox(nowReading)) {
+			recovering = false;
+		}
+	}
+
+	protected void error(String message) {
 		JuncoLogger log = JuncoLogger.getLogger("compiler.JuncoParser");
 		log.severe("syntax error: " + message);
 	}
@@ -0,0 +1,123 @@
+package parser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+import lexicalAnalyzer.Keyword;
+import lexicalAnalyzer.Punctuator;
+import lexicalAnalyzer.TokenBuffer;
+import parseTree.ParseNode;
+
+/** Parses a program as a sequence of runs of boxes, each run by its own JuncoParser on
+ *  a fork-join pool, and attaches the boxes to one ProgramNode in source order.
+ *  <p>
+ *  The boxes are found by a pre-scan of the tokens: a box starts at each BOX keyword
+ *  outside all braces.  In a program without syntax errors, the tokens from there to
+ *  the next such keyword are exactly those of one box, so a parser given only those
+ *  tokens (as if the input ended after them) builds the same box as a sequential parse.
+ *  Where that might not hold &mdash; the pre-scan finds tokens outside every box, or
+ *  unbalanced braces, or any run has a syntax error &mdash; the program is parsed
+ *  again sequentially, which gives the sequential parser's errors and tree.
+ */
+class ParallelParse extends RecursiveTask<ParseNode> {
+	private static final long serialVersionUID = 1L;
+
+	private final TokenBuffer tokens;
+	private final int runLength;
+
+	ParallelParse(TokenBuffer tokens, int runLength) {
+		this.tokens = tokens;
+		this.runLength = runLength;
+	}
+
+	@Override
+	protected ParseNode compute() {
+		List<Integer> boxStarts = boxStarts(tokens, 0, tokens.size() - 1);
+		if(boxStarts == null || boxStarts.size() < 2) {
+			return JuncoParser.parse(tokens);
+		}
+		List<RunParse> runs = new ArrayList<RunParse>();
+		int start = 0;
+		for(int box: boxStarts) {
+			if(box - start >= runLength) {
+				runs.add(new RunParse(tokens, start, box));
+				start = box;
+			}
+		}
+		runs.add(new RunParse(tokens, start, tokens.size() - 1));
+		invokeAll(runs);
+		return join(runs);
+	}
+
+	// the index of the BOX token starting each box in tokens start..end-1, or null if
+	// those tokens are not a sequence of boxes with balanced braces.  (Also for IncrementalParse.)
+	static List<Integer> boxStarts(TokenBuffer tokens, int start, int end) {
+		List<Integer> result = new ArrayList<Integer>();
+		int depth = 0;
+		for(int i = start; i < end; i++) {
+			if(depth == 0 && tokens.isLextant(i, Keyword.BOX)) {
+				result.add(i);
+			}
+			else if(result.isEmpty()) {
+				return null;
+			}
+			if(tokens.isLextant(i, Punctuator.OPEN_BRACE)) {
+				depth++;
+			}
+			else if(tokens.isLextant(i, Punctuator.CLOSE_BRACE) && --depth < 0) {
+				return null;
+			}
+		}
+		return depth == 0 ? result : null;
+	}
+
+	private ParseNode join(List<RunParse> runs) {
+		ParseNode program = null;
+		for(RunParse run: runs) {
+			ParseNode runProgram = run.join();
+			if(run.hasErrors()) {
+				return JuncoParser.parse(tokens);
+			}
+			if(program == null) {
+				program = runProgram;
+				continue;
+			}
+			for(int i = 0; i < runProgram.nChildren(); i++) {
+				program.appendChild(runProgram.child(i));
+			}
+		}
+		return program;
+	}
+
+
+	// the parse of one run of boxes, tokens start..end-1, as a program.  Its syntax
+	// errors are not logged; any one of them sends the whole program to the sequential parser.
+	private static class RunParse extends RecursiveTask<ParseNode> {
+		private static final long serialVersionUID = 1L;
+
+		private final TokenBuffer tokens;
+		private final int start;
+		private final int end;
+		private boolean hasErrors = false;
+
+		RunParse(TokenBuffer tokens, int start, int end) {
+			this.tokens = tokens;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected ParseNode compute() {
+			return new JuncoParser(tokens.reader(start, end)) {
+				@Override
+				protected void error(String message) {
+					hasErrors = true;
+				}
+			}.parse();
+		}
+		boolean hasErrors() {
+			return hasErrors;
+		}
+	}
+}
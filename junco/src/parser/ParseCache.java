@@ -0,0 +1,122 @@
+package parser;
+
+import inputHandler.CharBufferInputHandler;
+import inputHandler.CharCursor;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import lexicalAnalyzer.JuncoScanner;
+import logging.JuncoLogger;
+import parseTree.ParseNode;
+import parseTree.ParseTreeSerializer;
+
+/** A directory of syntax trees, each filed under a hash of the text it was parsed from
+ *  and of the JuncoParser.GRAMMAR_VERSION it was parsed at.
+ *  <p>
+ *  <code>parse(source)</code> reads the tree for the source's text from its file if there
+ *  is one, and otherwise scans and parses the text and files the tree.  Reading a filed
+ *  tree costs a hash of the text and one read of the file; the text is not scanned.
+ *  A file that cannot be read as a tree for the text (one of another
+ *  ParseTreeSerializer.FORMAT_VERSION, say) is ignored, and replaced by the new parse.
+ *  The trees of an older grammar version are filed under other names, so they are
+ *  never read; they are not removed.
+ *  <p>
+ *  Only trees of error-free parses are filed, since reading a tree does not repeat the
+ *  errors the parse logged.  Failing to file a tree is not an error: the cache is
+ *  only an optimization.  Files are written under a temporary name and then renamed, so
+ *  that compilers sharing a directory never read a partly written file.
+ */
+public class ParseCache {
+	public static final String SUFFIX = ".jast";
+	private static final String HASH_ALGORITHM = "SHA-256";
+
+	private final File directory;
+
+	public ParseCache(File directory) {
+		this.directory = directory;
+	}
+
+	/** @return the syntax tree of the source's text. */
+	public ParseNode parse(CharBufferInputHandler source) {
+		byte[] key = keyOf(source);
+		File file = fileFor(key);
+		ParseNode tree = read(file, source, key);
+		if(tree != null) {
+			return tree;
+		}
+		int messagesBefore = JuncoLogger.numMessages();
+		tree = JuncoParser.parse(JuncoScanner.make(source));
+		if(JuncoLogger.numMessages() == messagesBefore) {
+			write(file, tree, source.fileName(), key);
+		}
+		return tree;
+	}
+	/** @return the file that the tree of the source's text is (or would be) filed in. */
+	public File fileFor(CharBufferInputHandler source) {
+		return fileFor(keyOf(source));
+	}
+
+	private File fileFor(byte[] key) {
+		StringBuilder name = new StringBuilder();
+		for(byte b: key) {
+			name.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+		}
+		return new File(directory, name.append(SUFFIX).toString());
+	}
+	private static byte[] keyOf(CharBufferInputHandler source) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance(HASH_ALGORITHM);
+			digest.update(ByteBuffer.allocate(4).putInt(0, JuncoParser.GRAMMAR_VERSION));
+			digest.update(StandardCharsets.UTF_8.encode(source.contents()));
+			return digest.digest();
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	// the filed tree, with tokens located in the source, or null if there is none that can be read.
+	private static ParseNode read(File file, CharBufferInputHandler source, byte[] key) {
+		if(!file.isFile()) {
+			return null;
+		}
+		try {
+			ByteBuffer contents = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+			return ParseTreeSerializer.read(contents,
+					source.fileName(), new CharCursor(source).locator(), key);
+		}
+		catch (IOException e) {
+			return null;
+		}
+	}
+	private void write(File file, ParseNode tree, String filename, byte[] key) {
+		File temporary = null;
+		try {
+			directory.mkdirs();
+			temporary = File.createTempFile("parse", ".tmp", directory);
+			OutputStream out = new FileOutputStream(temporary);
+			try {
+				ParseTreeSerializer.write(tree, filename, key, out);
+			}
+			finally {
+				out.close();
+			}
+			Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (IOException e) {
+			if(temporary != null) {
+				temporary.delete();
+			}
+		}
+	}
+}
@@ -0,0 +1,90 @@
+package parser;
+
+import lexicalAnalyzer.Keyword;
+import lexicalAnalyzer.Lextant;
+import lexicalAnalyzer.Punctuator;
+import tokens.CharacterToken;
+import tokens.FloatingToken;
+import tokens.IdentifierToken;
+import tokens.LextantToken;
+import tokens.NumberToken;
+import tokens.Token;
+
+/** An immutable set of kinds of token, for the FIRST sets of the parser.
+ *  <p>
+ *  Lextants are held as one bit per Keyword and per Punctuator ordinal, and the other
+ *  kinds of token (identifiers and literals) as a few more bits, so that asking whether
+ *  a token is in the set is a mask test and allocates nothing.
+ */
+public final class TokenSet {
+	private static final int IDENTIFIERS = 1;
+	private static final int INT_NUMBERS = 2;
+	private static final int FLOATING_NUMBERS = 4;
+	private static final int CHARACTERS = 8;
+	static {
+		assert Keyword.values().length <= Long.SIZE && Punctuator.values().length <= Long.SIZE;
+	}
+
+	private final long keywords;
+	private final long punctuators;
+	private final int others;
+
+	private TokenSet(long keywords, long punctuators, int others) {
+		this.keywords = keywords;
+		this.punctuators = punctuators;
+		this.others = others;
+	}
+
+	public static TokenSet of(Lextant... lextants) {
+		long keywords = 0;
+		long punctuators = 0;
+		for(Lextant lextant: lextants) {
+			if(lextant instanceof Keyword) {
+				keywords |= 1L << ((Keyword)lextant).ordinal();
+			}
+			else {
+				punctuators |= 1L << ((Punctuator)lextant).ordinal();
+			}
+		}
+		return new TokenSet(keywords, punctuators, 0);
+	}
+	/** @return this set plus all identifier tokens. */
+	public TokenSet withIdentifiers() {
+		return new TokenSet(keywords, punctuators, others | IDENTIFIERS);
+	}
+	/** @return this set plus all number and character constant tokens. */
+	public TokenSet withLiterals() {
+		return new TokenSet(keywords, punctuators, others | INT_NUMBERS | FLOATING_NUMBERS | CHARACTERS);
+	}
+	public TokenSet union(TokenSet other) {
+		return new TokenSet(keywords | other.keywords, punctuators | other.punctuators, others | other.others);
+	}
+
+	public boolean contains(Token token) {
+		if(token instanceof LextantToken) {
+			return contains(((LextantToken)token).getLextant());
+		}
+		return (others & otherBit(token)) != 0;
+	}
+	public boolean contains(Lextant lextant) {
+		if(lextant instanceof Keyword) {
+			return (keywords & (1L << ((Keyword)lextant).ordinal())) != 0;
+		}
+		return (punctuators & (1L << ((Punctuator)lextant).ordinal())) != 0;
+	}
+	private static int otherBit(Token token) {
+		if(token instanceof IdentifierToken) {
+			return IDENTIFIERS;
+		}
+		if(token instanceof NumberToken) {
+			return INT_NUMBERS;
+		}
+		if(token instanceof FloatingToken) {
+			return FLOATING_NUMBERS;
+		}
+		if(token instanceof CharacterToken) {
+			return CHARACTERS;
+		}
+		return 0;
+	}
+}
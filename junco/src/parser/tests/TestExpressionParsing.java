@@ -0,0 +1,45 @@
+package parser.tests;
+
+import inputHandler.InputHandler;
+import lexicalAnalyzer.JuncoScanner;
+import parseTree.ParseTreePrinter;
+import parser.JuncoParser;
+
+import junit.framework.TestCase;
+
+public class TestExpressionParsing extends TestCase {
+	public void testPrecedence() {
+		assertSameTree("a || b && c", "a || (b && c)");
+		assertSameTree("a && b || c && d", "(a && b) || (c && d)");
+		assertSameTree("a < b + c && d == e", "(a < (b + c)) && (d == e)");
+		assertSameTree("a + b * c - d / e", "(a + (b * c)) - (d / e)");
+		assertSameTree("a in b + c", "a in (b + c)");
+		assertFalse(treeOf("a + b * c").equals(treeOf("(a + b) * c")));
+	}
+	public void testLeftAssociativity() {
+		assertSameTree("a - b - c", "(a - b) - c");
+		assertSameTree("a / b * c", "(a / b) * c");
+		assertSameTree("a < b < c", "(a < b) < c");
+		assertSameTree("a || b || c", "(a || b) || c");
+	}
+	public void testUnaryAndPostfixOperators() {
+		assertSameTree("!a.b : i * c", "((!(a.b)) : i) * c");
+		assertSameTree("@a.b.c + d", "(((@a).b).c) + d");
+		assertSameTree("x(a + b, c) * d", "(x((a + b), c)) * d");
+	}
+	
+	private void assertSameTree(String expression, String parenthesized) {
+		ParseTreePrinter.Level level = ParseTreePrinter.getPrintLevel();
+		ParseTreePrinter.setPrintLevel(ParseTreePrinter.Level.NODE_CLASS_AND_TOKEN);
+		try {
+			assertEquals(expression, treeOf(parenthesized), treeOf(expression));
+		}
+		finally {
+			ParseTreePrinter.setPrintLevel(level);
+		}
+	}
+	private String treeOf(String expression) {
+		String program = "box main {\n print " + expression + ";\n}\n";
+		return ParseTreePrinter.print(JuncoParser.parse(JuncoScanner.make(InputHandler.fromCharSequence("text", program))));
+	}
+}
@@ -0,0 +1,164 @@
+package parser.tests;
+
+import inputHandler.CharBufferInputHandler;
+import lexicalAnalyzer.JuncoScanner;
+import lexicalAnalyzer.TokenBuffer;
+import inputHandler.InputHandler;
+import parseTree.ParseNode;
+import parser.IncrementalParse;
+import parser.JuncoParser;
+import tokens.Token;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static tests.TestSupport.located;
+import tests.TestSupport.LogCapture;
+
+import junit.framework.TestCase;
+
+public class TestIncrementalParse extends TestCase {
+	private static final String[] BOXES = {
+		"box main {\n const a <- 1 + 2 * 3;\n print a $;\n}\n",
+		"box point {\n init x <- 0;\n func move(dx : int) : int {[\n update x <- x + dx : f;\n return x;\n ]}\n}\n",
+		"box loops {\n init i <- 0;\n while (i < 10) {\n if (i == 5) { break; } else { update i <- i + 1; }\n }\n}\n",
+		"box empty {\n}\n",
+		"box maker {\n const p <- @point;\n call p.move(3);\n func self() : box : point {[ return this; ]}\n}\n",
+	};
+	private static final String[] PIECES = {
+		"box b {\n}\n", " print a;\n", "\n", " ", "{", "}", " const y <- 2;", "+ 4", "(", ")", ";", "box", " while (a) { }",
+	};
+	private LogCapture syntaxErrors;
+	
+	@Override
+	protected void setUp() {
+		syntaxErrors = new LogCapture("compiler.JuncoParser");
+	}
+	@Override
+	protected void tearDown() {
+		syntaxErrors.detach();
+	}
+
+	public void testEditWithinOneBox() {
+		IncrementalParse previous = parse(program());
+		List<ParseNode> previousBoxes = boxesOf(previous);
+		int offset = textOf(previous).indexOf("x + dx");
+		IncrementalParse parse = assertEditMatchesParse(previous, offset, 6, "x * dx - 1");
+		assertEquals(1, parse.newSubtrees().size());
+		assertSame(parse.newSubtrees().get(0), parse.tree().child(1));
+		assertNull(previousBoxes.get(1).getParent());
+		assertReused(previousBoxes, parse, 0, 0);
+		assertReused(previousBoxes, parse, 2, 2);
+		assertReused(previousBoxes, parse, 4, 4);
+	}
+	public void testBoxesAfterAnEditMove() {
+		IncrementalParse previous = parse(program());
+		List<ParseNode> previousBoxes = boxesOf(previous);
+		int offset = textOf(previous).indexOf(" print a $;");
+		IncrementalParse parse = assertEditMatchesParse(previous, offset, 0, " print a;\n\n const b <- a;\n");
+		assertEquals(1, parse.newSubtrees().size());
+		for(int i = 1; i < BOXES.length; i++) {
+			assertReused(previousBoxes, parse, i, i);
+		}
+	}
+	public void testAddAndRemoveBoxes() {
+		IncrementalParse previous = parse(program());
+		List<ParseNode> previousBoxes = boxesOf(previous);
+		int offset = BOXES[0].length() + BOXES[1].length();
+		IncrementalParse parse = assertEditMatchesParse(previous, offset, 0, BOXES[3] + BOXES[3]);
+		assertEquals(BOXES.length + 2, parse.tree().nChildren());
+		assertReused(previousBoxes, parse, 4, 6);
+
+		parse = assertEditMatchesParse(parse, 0, BOXES[0].length(), "");
+		assertEquals(BOXES.length + 1, parse.tree().nChildren());
+		parse = assertEditMatchesParse(parse, 0, textOf(parse).length(), "");
+	}
+	public void testSyntaxErrorThenFix() {
+		IncrementalParse previous = parse(program());
+		int offset = textOf(previous).indexOf("return x;");
+		IncrementalParse broken = assertEditMatchesParse(previous, offset, 0, "print ) ");
+		assertEquals(broken.tree().nChildren(), broken.newSubtrees().size());
+
+		IncrementalParse fixed = assertEditMatchesParse(broken, offset, 8, "");
+		assertEquals(BOXES.length, fixed.newSubtrees().size());
+		IncrementalParse edited = assertEditMatchesParse(fixed, offset, 0, "print x;");
+		assertEquals(1, edited.newSubtrees().size());
+	}
+	public void testKeptLocationsFollowMovedBoxes() {
+		IncrementalParse previous = parse(program());
+		Token token = previous.tree().child(4).getToken();
+		int line = token.getLocation().getLineNumber();
+
+		IncrementalParse parse = assertEditMatchesParse(previous, 0, 0, "\n\n");
+		assertSame(token, parse.tree().child(4).getToken());
+		assertEquals(line + 2, token.getLocation().getLineNumber());
+	}
+	public void testEditedParseIsSuperseded() {
+		IncrementalParse previous = parse(program());
+		IncrementalParse parse = assertEditMatchesParse(previous, 0, 0, "\n");
+		try {
+			previous.edit(0, 0, "\n");
+			fail("edited a superseded parse");
+		}
+		catch(IllegalStateException expected) {
+		}
+		try {
+			previous.tree();
+			fail("read a superseded parse");
+		}
+		catch(IllegalStateException expected) {
+		}
+		assertEditMatchesParse(parse, 0, 1, "");
+	}
+	public void testRandomEdits() {
+		Random random = new Random(17);
+		for(int trial = 0; trial < 30; trial++) {
+			IncrementalParse parse = parse(program());
+			for(int edit = 0; edit < 20; edit++) {
+				String text = textOf(parse);
+				int offset = random.nextInt(text.length() + 1);
+				int removedLength = random.nextInt(4) == 0 ? random.nextInt(Math.min(20, text.length() - offset) + 1) : 0;
+				String inserted = random.nextInt(3) == 0 ? "" : PIECES[random.nextInt(PIECES.length)];
+				parse = assertEditMatchesParse(parse, offset, removedLength, inserted);
+			}
+		}
+	}
+	
+	
+	private String program() {
+		StringBuilder program = new StringBuilder();
+		for(String box: BOXES) {
+			program.append(box);
+		}
+		return program.toString();
+	}
+	private IncrementalParse parse(String text) {
+		IncrementalParse result = IncrementalParse.parse(TokenBuffer.make(JuncoScanner.make(InputHandler.fromCharSequence("text", text))));
+		assertEquals(located(wholeParse(text)), located(result.tree()));
+		return result;
+	}
+	private IncrementalParse assertEditMatchesParse(IncrementalParse previous, int offset, int removedLength, String inserted) {
+		IncrementalParse result = previous.edit(offset, removedLength, inserted);
+		String text = textOf(result);
+		assertEquals(text, located(wholeParse(text)), located(result.tree()));
+		return result;
+	}
+	// the boxes of a parse, taken before an edit, which changes the tree in place.
+	private List<ParseNode> boxesOf(IncrementalParse parse) {
+		return new ArrayList<ParseNode>(parse.tree().getChildren());
+	}
+	private void assertReused(List<ParseNode> previousBoxes, IncrementalParse parse, int previousIndex, int index) {
+		ParseNode box = parse.tree().child(index);
+		assertSame(previousBoxes.get(previousIndex), box);
+		assertSame(parse.tree(), box.getParent());
+		assertFalse(parse.newSubtrees().contains(box));
+	}
+	private String textOf(IncrementalParse parse) {
+		return parse.tokens().input().text().toString();
+	}
+	private ParseNode wholeParse(String text) {
+		CharBufferInputHandler handler = InputHandler.fromCharSequence("text", text);
+		return JuncoParser.parse(TokenBuffer.make(JuncoScanner.make(handler)));
+	}
+}
@@ -0,0 +1,74 @@
+package parser.tests;
+
+import inputHandler.InputHandler;
+import lexicalAnalyzer.JuncoScanner;
+import lexicalAnalyzer.TokenBuffer;
+import parseTree.ParseNode;
+import parseTree.ParseTreePrinter;
+import parser.JuncoParser;
+
+import java.util.List;
+
+import tests.TestSupport.LogCapture;
+
+import junit.framework.TestCase;
+
+public class TestParallelParse extends TestCase {
+	private static final String[] BOXES = {
+		"box main {\n const a <- 1 + 2 * 3;\n print a $;\n}\n",
+		"box point {\n init x <- 0;\n func move(dx : int) : int {[\n update x <- x + dx;\n return x;\n ]}\n}\n",
+		"box loops {\n init i <- 0;\n while (i < 10) {\n if (i == 5) { break; } else { update i <- i + 1; }\n }\n}\n",
+		"box empty {\n}\n",
+		"box maker {\n const p <- @point;\n call p.move(3);\n func self() : box : point {[ return this; ]}\n}\n",
+	};
+
+	public void testManyBoxes() {
+		StringBuilder program = new StringBuilder();
+		for(int i = 0; i < 60; i++) {
+			program.append(BOXES[i % BOXES.length]);
+		}
+		for(int runLength : new int[] {1, 7, 50, 1000, 100000}) {
+			assertSameParse(program, runLength);
+		}
+	}
+	public void testSingleBox() {
+		assertSameParse(BOXES[0], 1);
+	}
+	public void testEmptyInput() {
+		assertSameParse("", 1);
+	}
+	public void testSyntaxErrorInOneBox() {
+		assertSameParse(BOXES[0] + BOXES[1] + "box broken {\n print a b;\n}\n" + BOXES[2], 1);
+	}
+	public void testUnbalancedBraces() {
+		assertSameParse(BOXES[0] + "box broken {\n while (a) {\n print a;\n}\n" + BOXES[2], 1);
+		assertSameParse(BOXES[0] + "box broken {\n print a;\n}\n}\n" + BOXES[2], 1);
+	}
+	public void testJunkBetweenBoxes() {
+		assertSameParse(BOXES[0] + "const b <- 1;\n" + BOXES[2], 1);
+		assertSameParse("print b;\n" + BOXES[0] + BOXES[2], 1);
+	}
+	
+	
+	// the same tree, and the same syntax errors, in the same order.
+	private void assertSameParse(CharSequence program, int runLength) {
+		TokenBuffer tokens = TokenBuffer.make(JuncoScanner.make(InputHandler.fromCharSequence("text", program)));
+		LogCapture errors = new LogCapture("compiler.JuncoParser");
+		try {
+			String sequential = parse(tokens, 0);
+			List<String> sequentialErrors = errors.take();
+			String parallel = parse(tokens, runLength);
+			List<String> parallelErrors = errors.take();
+			assertEquals(sequential, parallel);
+			assertEquals(sequentialErrors, parallelErrors);
+		}
+		finally {
+			errors.detach();
+		}
+	}
+	// runLength 0 means a sequential parse.
+	private String parse(TokenBuffer tokens, int runLength) {
+		ParseNode tree = runLength == 0 ? JuncoParser.parse(tokens) : JuncoParser.parseInParallel(tokens, runLength);
+		return ParseTreePrinter.print(tree);
+	}
+}
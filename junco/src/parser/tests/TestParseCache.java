@@ -0,0 +1,153 @@
+package parser.tests;
+
+import inputHandler.CharBufferInputHandler;
+import inputHandler.InputHandler;
+import lexicalAnalyzer.JuncoScanner;
+import parseTree.ParseNode;
+import parseTree.ParseTreePrinter;
+import parseTree.ParseTreeSerializer;
+import parser.JuncoParser;
+import parser.ParseCache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import junit.framework.TestCase;
+
+public class TestParseCache extends TestCase {
+	private static final String PROGRAM = "box main {\n const a <- 1 + 2 * 3;\n print a $;\n}\n";
+	private static final String OTHER_PROGRAM = "box other {\n print 'x;\n}\n";
+
+	// the hash of the written trees of SAMPLES, as the parser builds them at FINGERPRINTED_VERSION.
+	private static final String[] SAMPLES = {
+		PROGRAM,
+		OTHER_PROGRAM,
+		"box point {\n init x <- 0;\n func move(dx : int, r : range : int) : int {[\n update x <- x + dx : f;\n return x;\n ]}\n}\n",
+		"box maker {\n const p <- @point;\n call p.move(3, [1, 2]);\n func self() : box : point {[ return this; ]}\n" +
+		" while (!true && false) { if (a == 5) { break; } else { update a <- a + 1; } }\n prunt -7, 4.5 $;\n}\n",
+	};
+	private static final int FINGERPRINTED_VERSION = 1;
+	private static final String FINGERPRINT = "51c926063f1c9d628294c83f5e4714a5c308948572ae2205217e64d0d0571fd3";
+
+	private File directory;
+
+	@Override
+	protected void setUp() throws IOException {
+		directory = Files.createTempDirectory("parseCache").toFile();
+	}
+	@Override
+	protected void tearDown() {
+		for(File file: directory.listFiles()) {
+			file.delete();
+		}
+		directory.delete();
+	}
+
+	public void testFilesParse() {
+		ParseCache cache = new ParseCache(directory);
+		CharBufferInputHandler source = sourceOf(PROGRAM);
+		assertFalse(cache.fileFor(source).exists());
+		assertEquals(printed(parse(PROGRAM)), printed(cache.parse(source)));
+		assertTrue(cache.fileFor(source).exists());
+	}
+	public void testReadsFiledTree() throws IOException {
+		ParseCache cache = new ParseCache(directory);
+		CharBufferInputHandler source = sourceOf(PROGRAM);
+		File file = cache.fileFor(source);
+		// files the tree of OTHER_PROGRAM as that of PROGRAM, which the cache then gives for
+		// PROGRAM: it reads the file rather than parsing the text.
+		OutputStream out = new FileOutputStream(file);
+		try {
+			ParseTreeSerializer.write(parse(OTHER_PROGRAM), "text", keyOf(file), out);
+		}
+		finally {
+			out.close();
+		}
+		assertEquals(printed(parse(OTHER_PROGRAM)), printed(cache.parse(source)));
+	}
+	public void testIgnoresTreeOfOtherText() throws IOException {
+		ParseCache cache = new ParseCache(directory);
+		CharBufferInputHandler source = sourceOf(PROGRAM);
+		CharBufferInputHandler other = sourceOf(OTHER_PROGRAM);
+		cache.parse(other);
+		Files.copy(cache.fileFor(other).toPath(), cache.fileFor(source).toPath());
+		assertEquals(printed(parse(PROGRAM)), printed(cache.parse(source)));
+	}
+	public void testReplacesStaleFile() throws IOException {
+		ParseCache cache = new ParseCache(directory);
+		CharBufferInputHandler source = sourceOf(PROGRAM);
+		File file = cache.fileFor(source);
+		OutputStream out = new FileOutputStream(file);
+		try {
+			out.write(new byte[] {0x4A, 0x41, 0x53, 0x54, 0, 0, 0, (byte) (ParseTreeSerializer.FORMAT_VERSION + 1)});
+		}
+		finally {
+			out.close();
+		}
+		assertEquals(printed(parse(PROGRAM)), printed(cache.parse(source)));
+		assertTrue(file.length() > 8);
+	}
+	// trees filed by an older parser are read only while JuncoParser.GRAMMAR_VERSION is unchanged.
+	public void testTreesChangeOnlyWithGrammarVersion() throws IOException {
+		assertEquals("new JuncoParser.GRAMMAR_VERSION: record the fingerprint of its trees here",
+				FINGERPRINTED_VERSION, JuncoParser.GRAMMAR_VERSION);
+		assertEquals("the parser's trees have changed: JuncoParser.GRAMMAR_VERSION needs a new version",
+				FINGERPRINT, fingerprintOf(SAMPLES));
+	}
+	public void testEditedTextIsParsed() {
+		ParseCache cache = new ParseCache(directory);
+		cache.parse(sourceOf(PROGRAM));
+		String edited = PROGRAM.replace("3", "4");
+		assertEquals(printed(parse(edited)), printed(cache.parse(sourceOf(edited))));
+		assertEquals(2, directory.listFiles().length);
+	}
+
+
+	// the key a file is named for.
+	private byte[] keyOf(File file) {
+		String name = file.getName();
+		byte[] result = new byte[(name.length() - ParseCache.SUFFIX.length()) / 2];
+		for(int i = 0; i < result.length; i++) {
+			result[i] = (byte) Integer.parseInt(name.substring(2 * i, 2 * i + 2), 16);
+		}
+		return result;
+	}
+	private String fingerprintOf(String[] programs) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		for(String program: programs) {
+			ParseTreeSerializer.write(parse(program), "text", new byte[0], out);
+		}
+		try {
+			StringBuilder result = new StringBuilder();
+			for(byte b: MessageDigest.getInstance("SHA-256").digest(out.toByteArray())) {
+				result.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+			}
+			return result.toString();
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+	private CharBufferInputHandler sourceOf(String text) {
+		return InputHandler.fromCharSequence("text", text);
+	}
+	private ParseNode parse(String text) {
+		return JuncoParser.parse(JuncoScanner.make(sourceOf(text)));
+	}
+	private String printed(ParseNode node) {
+		ParseTreePrinter.Level level = ParseTreePrinter.getPrintLevel();
+		ParseTreePrinter.setPrintLevel(ParseTreePrinter.Level.FULL);
+		try {
+			return ParseTreePrinter.print(node);
+		}
+		finally {
+			ParseTreePrinter.setPrintLevel(level);
+		}
+	}
+}
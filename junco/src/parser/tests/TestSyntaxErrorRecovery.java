@@ -0,0 +1,93 @@
+package parser.tests;
+
+import inputHandler.InputHandler;
+import lexicalAnalyzer.JuncoScanner;
+import parseTree.ParseNode;
+import parser.JuncoParser;
+import semanticAnalyzer.JuncoSemanticAnalyzer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import tests.TestSupport.LogCapture;
+
+import junit.framework.TestCase;
+
+public class TestSyntaxErrorRecovery extends TestCase {
+	public void testMissingTerminator() {
+		List<String> errors = syntaxErrorsIn("box main {\n print a\n print b;\n const c <- 1;\n}\n");
+		assertEquals(1, errors.size());
+		assertTrue(errors.get(0), errors.get(0).endsWith("line 3, character 1) expecting [TERMINATOR]"));
+	}
+	public void testJunkInStatementIsSkippedToTerminator() {
+		List<String> errors = syntaxErrorsIn("box main {\n print a b c d e;\n print f;\n}\n");
+		assertEquals(1, errors.size());
+		assertTrue(errors.get(0), errors.get(0).endsWith("expecting [TERMINATOR]"));
+	}
+	public void testErrorsInSeparateStatementsAreEachReported() {
+		List<String> errors = syntaxErrorsIn("box main {\n const <- 1;\n print a;\n update b <- ;\n}\n");
+		assertEquals(2, errors.size());
+		assertTrue(errors.get(0), errors.get(0).endsWith("expecting identifier"));
+		assertTrue(errors.get(1), errors.get(1).endsWith("expecting expression"));
+	}
+	public void testRecoveryKeepsTheRestOfTheTree() {
+		ParseNode program = parse("box main {\n print (a + ;\n print b;\n}\nbox other {\n print c;\n}\n");
+		assertEquals(2, program.nChildren());
+		assertEquals(2, program.child(0).nChildren());
+		assertEquals(1, program.child(1).nChildren());
+	}
+	public void testJunkBetweenBoxes() {
+		List<String> errors = syntaxErrorsIn("box main {\n print a;\n}\nconst b <- 1; }\nbox other {\n print c;\n}\n");
+		assertEquals(1, errors.size());
+		assertTrue(errors.get(0), errors.get(0).endsWith("expecting end of program"));
+	}
+	public void testUnclosedBodyAtEndOfInput() {
+		assertEquals(1, syntaxErrorsIn("box main {\n while (a) {\n print a;\n").size());
+	}
+	public void testBrokenStatementsDoNotCascade() {
+		StringBuilder program = new StringBuilder("box main {\n");
+		for(int i=0; i<20000; i++) {
+			program.append(" print a + ) b;\n const c <- d;\n");
+		}
+		program.append("}\n");
+		List<String> errors = syntaxErrorsIn(program);
+		assertEquals(JuncoParser.MAX_REPORTED_ERRORS + 1, errors.size());
+		String summary = errors.get(JuncoParser.MAX_REPORTED_ERRORS);
+		assertTrue(summary, summary.endsWith((20000 - JuncoParser.MAX_REPORTED_ERRORS) + " more not reported"));
+	}
+	public void testTreesWithSyntaxErrorsAreNotAnalyzed() {
+		assertNotAnalyzed("box main {\n const -abc <- 10;\n print -abc $;\n}\n", 2);
+		assertNotAnalyzed("box main {\n const a <- 3\n print a * three;\n}\n", 1);
+	}
+	// the tree of a program with numErrors syntax errors is returned as it is by the analyzer.
+	private void assertNotAnalyzed(String text, int numErrors) {
+		List<String> errors = new ArrayList<String>();
+		ParseNode program = parse(text, errors);
+		assertEquals(numErrors, errors.size());
+		assertSame(program, JuncoSemanticAnalyzer.analyze(program));
+		assertNull(program.getScope());
+	}
+
+	
+	private ParseNode parse(CharSequence program) {
+		return JuncoParser.parse(JuncoScanner.make(InputHandler.fromCharSequence("text", program)));
+	}
+	// the messages of the syntax errors logged while parsing the program.
+	private List<String> syntaxErrorsIn(CharSequence program) {
+		List<String> errors = new ArrayList<String>();
+		parse(program, errors);
+		return errors;
+	}
+	// parses the program, adding the messages of the syntax errors logged to errors.
+	private ParseNode parse(CharSequence program, List<String> errors) {
+		LogCapture capture = new LogCapture("compiler.JuncoParser");
+		try {
+			ParseNode result = parse(program);
+			errors.addAll(capture.take());
+			return result;
+		}
+		finally {
+			capture.detach();
+		}
+	}
+}
@@ -1,6 +1,7 @@
 package semanticAnalyzer;
 
 public class AnyType implements Type {
+	private static final AnyType CANONICAL = new AnyType();
 
 	@Override
 	public int getSize() {
@@ -14,6 +15,11 @@ public class AnyType implements Type {
 		return "Any type";
 	}
 
+	@Override
+	public Type canonical() {
+		return CANONICAL;
+	}
+
 	@Override
 	public boolean isComparable() {
 		
@@ -1,15 +1,21 @@
 package semanticAnalyzer;
 
+import lexicalAnalyzer.SymbolPool;
+
 public class BoxType implements Type {
+	public static final int NO_IDENTIFIER = 0;	// of the type of references to a box, from Types.box
 
 	private int sizeInBytes = 4;
 	private int scopeSize;
 	private int boxIdentifier;	
 	private String boxName;
+	private int boxSymbol;
 	private int hasPrint = 0;
+	private BoxType canonical;		// found when first asked for
 	
 	public BoxType(String boxName, int identifier) {
 		this.boxName = boxName;
+		this.boxSymbol = SymbolPool.idOf(boxName);
 		boxIdentifier = identifier;
 	}
 
@@ -21,6 +27,13 @@ public class BoxType implements Type {
 		return "x:" + boxName;
 	}
 
+	public Type canonical() {
+		if (canonical == null) {
+			canonical = Types.box(boxName);
+		}
+		return canonical;
+	}
+
 	@Override
 	public boolean isComparable() {
 		return false;
@@ -41,6 +54,10 @@ public class BoxType implements Type {
 	public String getBoxName() {
 		return boxName;
 	}
+	/** @return the SymbolPool id of the box name. */
+	public int getBoxSymbol() {
+		return boxSymbol;
+	}
 	
 	public void setFlag(int size) {
 		hasPrint = size;
@@ -49,4 +66,4 @@ public class BoxType implements Type {
 	public int getFlag() {
 		return hasPrint;
 	}
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -1,154 +1,148 @@
 package semanticAnalyzer;
 
+import java.util.Arrays;
+
 import lexicalAnalyzer.Keyword;
 import lexicalAnalyzer.Lextant;
 import lexicalAnalyzer.Punctuator;
 
-class FunctionSignature {
-	// private static final boolean ALL_TYPES_ACCEPT_ERROR_TYPES = true;
-	private TypeVariable resultType;
-	private TypeVariable[] paramTypes;
-
-	// Object whichVariant;
-
-	public FunctionSignature(TypeVariable... types) {
-		assert (types.length >= 1);
-		storeParamTypes(types);
-		resultType = types[types.length - 1];
-		// this.whichVariant = whichVariant;
+/** The signatures of the binary operators, as a table made once and then only read.
+ * <p>
+ *  The table is indexed by the operator (a Punctuator's ordinal, or the number of
+ *  Punctuators plus a Keyword's ordinal) and by the kinds of the operands' canonical
+ *  types: each PrimitiveType is a kind of its own, and every range type, every box type
+ *  and every other type are one kind each.  An entry holds the operator's result type for
+ *  operands of those kinds, and the rule, if any, that the operands' types must also
+ *  follow: that they be the same type, say, for two ranges.  So finding the type of an
+ *  operation makes no objects.
+ */
+public class FunctionSignature {
+	private static final PrimitiveType[] PRIMITIVE_TYPES = PrimitiveType.values();
+	private static final int RANGE = PRIMITIVE_TYPES.length;
+	private static final int BOX = RANGE + 1;
+	private static final int OTHER = BOX + 1;
+	private static final int NUM_KINDS = OTHER + 1;
+	private static final int NUM_PUNCTUATORS = Punctuator.values().length;
+	private static final int NUM_OPERATORS = NUM_PUNCTUATORS + Keyword.values().length;
+
+	// what the operands of an entry must be, beyond their kinds.
+	private enum Rule {
+		NONE,						// the operator is not defined for operands of these kinds
+		ANY,						// nothing more
+		SAME_TYPE,					// the same type
+		SAME_NON_BOOLEAN_RANGE,		// the same range type, not (a range of ranges) of booleans
+		ELEMENT_OF_RANGE,			// the left, a comparable type, is the right's element type
 	}
 
-	private void storeParamTypes(TypeVariable[] types) {
-		paramTypes = new TypeVariable[types.length - 1];
-		for (int i = 0; i < types.length - 1; i++) {
-			paramTypes[i] = types[i];
-		}
+	private static final Rule[] rules = new Rule[NUM_OPERATORS * NUM_KINDS * NUM_KINDS];
+	private static final Type[] resultTypes = new Type[rules.length];	// null for the right operand's type
+	static {
+		fillTable();
 	}
 
-	public TypeVariable resultType() {
-		return resultType;
+	private FunctionSignature() {}
+
+	/** @return the type of the result of the operator on operands of the given types,
+	 *  or null if the operator is not defined for them.
+	 */
+	public static Type resultType(Lextant operator, Type left, Type right) {
+		Type leftType = left.canonical();
+		Type rightType = right.canonical();
+		int index = index(operator, kindOf(leftType), kindOf(rightType));
+		if (index < 0 || !follows(rules[index], leftType, rightType)) {
+			return null;
+		}
+		return resultTypes[index] == null ? right : resultTypes[index];
 	}
 
-	public boolean accepts(Lextant lextant, Type... types) {
-		if (types.length != paramTypes.length) {
+	private static boolean follows(Rule rule, Type leftType, Type rightType) {
+		switch (rule) {
+		case ANY:
+			return true;
+		case SAME_TYPE:
+			return leftType == rightType;
+		case SAME_NON_BOOLEAN_RANGE:
+			return leftType == rightType && elementType(rightType) != PrimitiveType.BOOLEAN;
+		case ELEMENT_OF_RANGE:
+			return ((RangeType) rightType).getChildType() == leftType && leftType.isComparable();
+		default:
 			return false;
 		}
-		
-		if (lextant == Keyword.IN) {
-			paramTypes[0].constrain(types[0]);
-			if (!(types[1] instanceof RangeType)) {
-				return false;
-			}
-			paramTypes[1].constrain(((RangeType)types[1]).getChildType());
-			
-			if (paramTypes[0].isComparable()) {
-				return true;
-			}
-			else {
-				return false;
-			}
+	}
+	// the type of the elements of a range, or of a range of ranges, and so on.
+	private static Type elementType(Type type) {
+		while (type instanceof RangeType) {
+			type = ((RangeType) type).getChildType();
 		}
-		
+		return type;
+	}
 
-		for (int i = 0; i < paramTypes.length; i++) {
-			paramTypes[i].constrain(types[i]);
+	private static int kindOf(Type canonicalType) {
+		if (canonicalType instanceof PrimitiveType) {
+			return ((PrimitiveType) canonicalType).ordinal();
 		}
-
-		if (paramTypes[0].getConstraintType() instanceof NoneType) {
-			return false;
+		if (canonicalType instanceof RangeType) {
+			return RANGE;
 		}
-
-		switch ((Punctuator) lextant) {
-		case ADD:
-		case MINUS:
-		case MULTIPLY:
-		case DIVIDE:
-			if (resultType.getConstraintType() != PrimitiveType.INTEGER
-					&& resultType.getConstraintType() != PrimitiveType.FLOATNUM) {
-				return false;
-			}
-		
-		else return true;
-		case EQUAL:
-		case UNEQUAL:
-		case GREATEREQ:
-		case GREATER:
-		case LESSEQ:
-		case LESS:
-			if (getPrimitiveType(paramTypes[0].getConstraintType()) == PrimitiveType.BOOLEAN) {
-				return false;
-			}
-			else return true;
-		case AND:
-		case OR:
-			return true;
-		case SPAN:
-		case INTERSECTION:
-				if (resultType.getConstraintType() instanceof RangeType) {
-				return true;
-			}
-			else return false;
-			
-		default:
-			return false;
+		if (canonicalType instanceof BoxType) {
+			return BOX;
 		}
-
+		return OTHER;
+	}
+	// the index of the entry, or -1 for a Lextant of neither enum.
+	private static int index(Lextant operator, int leftKind, int rightKind) {
+		int operatorIndex;
+		if (operator instanceof Punctuator) {
+			operatorIndex = ((Punctuator) operator).ordinal();
+		}
+		else if (operator instanceof Keyword) {
+			operatorIndex = NUM_PUNCTUATORS + ((Keyword) operator).ordinal();
+		}
+		else {
+			return -1;
+		}
+		return (operatorIndex * NUM_KINDS + leftKind) * NUM_KINDS + rightKind;
 	}
 
-	public static FunctionSignature signatureOf(Lextant lextant) {
-		//assert (lextant instanceof Punctuator);
-		//Punctuator punctuator = (Punctuator) lextant;
 
-		TypeVariable typeVariable = new TypeVariable();
-		TypeVariable resultType = new TypeVariable();
-		typeVariable.resetType();
-		resultType.resetType();
+	// /////////////////////////////////////////////////////////////////////////
+	// the table
 
-		if (lextant == Keyword.IN) {
-			
-			resultType.constrain(PrimitiveType.BOOLEAN);
-			return new FunctionSignature(typeVariable, typeVariable, resultType);
-		}
+	private static void fillTable() {
+		Arrays.fill(rules, Rule.NONE);
 
-		switch ((Punctuator) lextant) {
-		case ADD:
-		case MINUS:
-		case MULTIPLY:
-		case DIVIDE:
-		case SPAN:
-		case INTERSECTION:
-			return new FunctionSignature(typeVariable, typeVariable, typeVariable);
-		case GREATEREQ:
-		case GREATER:
-		case LESSEQ:
-		case LESS:
-		case EQUAL:
-		case UNEQUAL:
-			resultType.constrain(PrimitiveType.BOOLEAN);
-			return new FunctionSignature(typeVariable, typeVariable, resultType);
-		case AND:
-		case OR:
-			resultType.constrain(PrimitiveType.BOOLEAN);
-			typeVariable.constrain(PrimitiveType.BOOLEAN);
-			return new FunctionSignature(typeVariable, typeVariable, resultType);
-		default:
-			resultType.constrain(PrimitiveType.ERROR);
-			return new FunctionSignature(resultType);
+		for (Lextant operator : new Lextant[] { Punctuator.ADD, Punctuator.MINUS,
+				Punctuator.MULTIPLY, Punctuator.DIVIDE }) {
+			define(operator, PrimitiveType.INTEGER, PrimitiveType.INTEGER, Rule.ANY, PrimitiveType.INTEGER);
+			define(operator, PrimitiveType.FLOATNUM, PrimitiveType.FLOATNUM, Rule.ANY, PrimitiveType.FLOATNUM);
 		}
-
-	}
-
-	public Boolean RangeSignature(Type type1, Type type2) {
-		return true;
-	}
-	
-	private Type getPrimitiveType(Type type) {
-		if (type instanceof RangeType) {
-			return getPrimitiveType(((RangeType) type).getChildType());
+		for (Lextant operator : new Lextant[] { Punctuator.EQUAL, Punctuator.UNEQUAL,
+				Punctuator.GREATEREQ, Punctuator.GREATER, Punctuator.LESSEQ, Punctuator.LESS }) {
+			for (PrimitiveType type : PRIMITIVE_TYPES) {
+				if (type != PrimitiveType.BOOLEAN) {
+					define(operator, type, type, Rule.ANY, PrimitiveType.BOOLEAN);
+				}
+			}
+			define(operator, RANGE, RANGE, Rule.SAME_NON_BOOLEAN_RANGE, PrimitiveType.BOOLEAN);
+			define(operator, BOX, BOX, Rule.SAME_TYPE, PrimitiveType.BOOLEAN);
+			define(operator, OTHER, OTHER, Rule.SAME_TYPE, PrimitiveType.BOOLEAN);
 		}
-		else {
-			return type;
+		for (Lextant operator : new Lextant[] { Punctuator.AND, Punctuator.OR }) {
+			define(operator, PrimitiveType.BOOLEAN, PrimitiveType.BOOLEAN, Rule.ANY, PrimitiveType.BOOLEAN);
+		}
+		for (Lextant operator : new Lextant[] { Punctuator.SPAN, Punctuator.INTERSECTION }) {
+			define(operator, RANGE, RANGE, Rule.SAME_TYPE, null);
+		}
+		for (int kind = 0; kind < NUM_KINDS; kind++) {
+			define(Keyword.IN, kind, RANGE, Rule.ELEMENT_OF_RANGE, PrimitiveType.BOOLEAN);
 		}
 	}
-
-}
\ No newline at end of file
+	private static void define(Lextant operator, PrimitiveType left, PrimitiveType right, Rule rule, Type resultType) {
+		define(operator, left.ordinal(), right.ordinal(), rule, resultType);
+	}
+	private static void define(Lextant operator, int leftKind, int rightKind, Rule rule, Type resultType) {
+		int index = index(operator, leftKind, rightKind);
+		rules[index] = rule;
+		resultTypes[index] = resultType;
+	}
+}
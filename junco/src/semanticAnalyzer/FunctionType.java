@@ -1,15 +1,18 @@
 package semanticAnalyzer;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class FunctionType implements Type {
 
 //	private String name;
 	private List<Type> functionType;
+	private FunctionType canonical;
 	
-	public FunctionType() {
-		functionType = new ArrayList<Type>();
+	// made only by Types.function.  canonical is null for a canonical type.
+	FunctionType(List<Type> types, FunctionType canonical) {
+		functionType = Collections.unmodifiableList(types);
+		this.canonical = (canonical == null) ? this : canonical;
 	}
 	
 	@Override
@@ -23,15 +26,16 @@ public class FunctionType implements Type {
 		return "function signature";
 	}
 
+	@Override
+	public Type canonical() {
+		return canonical;
+	}
+
 	@Override
 	public boolean isComparable() {
 		return false;
 	}
 	
-	
-	public void appendType(Type type) {
-		functionType.add(type);
-	}
 
 	public List<Type> getList() {
 		return functionType;
@@ -57,6 +57,10 @@ public class JuncoSemanticAnalyzer {
 
 	public ParseNode analyze() {
 
+		if (hasSyntaxErrors(ASTree)) {
+			return ASTree;
+		}
+
 		ASTree.accept(new FunctionVistor());
 
 		ASTree.accept(new SemanticAnalysisVisitor());
@@ -86,6 +90,14 @@ public class JuncoSemanticAnalyzer {
 		return tree;
 	}
 
+	// the parser has reported the errors, and the rest of the tree may not have the shape
+	// the visitors expect: an ErrorNode where an identifier should be, say, or a
+	// statement cut short where a terminator was expected.
+	private static boolean hasSyntaxErrors(ParseNode tree) {
+		return tree instanceof ErrorNode ||
+			   (tree instanceof ProgramNode && ((ProgramNode) tree).hasSyntaxErrors());
+	}
+
 	private static void enterGlobleScope(ParseNode node) {
 		Scope scope = Scope.createGlobalScope();
 		node.setScope(scope);
@@ -136,7 +148,7 @@ public class JuncoSemanticAnalyzer {
 
 			IdentifierNode name = (IdentifierNode) node.child(0);
 			ParameterListNode parameterList = (ParameterListNode) node.child(1);
-			FunctionType funcType = new FunctionType();
+			List<Type> signature = new ArrayList<Type>();
 
 			if (name.getToken().getLexeme().equals("printx")) {
 				if (parameterList.nChildren() == 0) {
@@ -147,10 +159,11 @@ public class JuncoSemanticAnalyzer {
 			
 			
 			for (ParseNode child : parameterList.getChildren()) {
-				funcType.appendType(child.getType());
+				signature.add(child.getType());
 			}
 
-			funcType.appendType(node.getType());
+			signature.add(node.getType());
+			FunctionType funcType = Types.function(signature);
 
 			name.getToken().setLexeme(node.returnBoxName());
 			addBinding(name, funcType);
@@ -200,6 +213,7 @@ public class JuncoSemanticAnalyzer {
 	private class SemanticAnalysisVisitor extends ParseNodeVisitor.Default {
 
 		private Labeller labeller = new Labeller();
+		private Scopes scopes = new Scopes();
 
 		@Override
 		public void visitLeave(ParseNode node) {
@@ -226,7 +240,7 @@ public class JuncoSemanticAnalyzer {
 				Scope scope = node.getScope();
 				scope.createBinding(thisPtr, node.getType());
 			}
-
+			scopes.enter(node);
 		}
 
 		public void visitLeave(BoxBodyNode node) {
@@ -241,13 +255,18 @@ public class JuncoSemanticAnalyzer {
 			}
 			
 			ReferenceCounting.table.put(type.getBoxIdentifier(), list);
+			scopes.leave(node);
+		}
+
+		public void visitEnter(ProgramNode node) {
+			scopes.enter(node);
 		}
 
 		public void visitLeave(ProgramNode node) {
 			if (!node.getScope().getSymbolTable().containsKey("main")) {
 				logError("no main box detected");
 			}
-
+			scopes.leave(node);
 		}
 
 		public void visitEnter(BodyNode node) {
@@ -255,6 +274,15 @@ public class JuncoSemanticAnalyzer {
 			node.setReturnLabel(node.getParent().getReturnLabel());
 			node.setLoopLabel(node.getParent().returnLoopLabel());
 			enterSubscope(node);
+			scopes.enter(node);
+		}
+
+		public void visitLeave(BodyNode node) {
+			scopes.leave(node);
+		}
+
+		public void visitEnter(FunctionDeclNode node) {
+			scopes.enter(node);
 		}
 
 		public void visitLeave(FunctionDeclNode node) {
@@ -281,12 +309,12 @@ public class JuncoSemanticAnalyzer {
 			for (ParseNode child : parameterList.getChildren()) {
 				if (child.getType() instanceof BoxType) {
 					BoxType type = (BoxType) child.getType();
-					if (!(global.getSymbolTable().containsKey(type.getBoxName()))) {
+					if (!(global.getSymbolTable().containsKey(type.getBoxSymbol()))) {
 						logError("unknown box name at " + child.getToken().getLocation());
 					}
 				}
 			}
-			
+			scopes.leave(node);
 		}
 
 		public void visitEnter(CallStatementNode node) {
@@ -335,8 +363,8 @@ public class JuncoSemanticAnalyzer {
 				List<ParseNode> parameterList = node.child(1).getChildren();
 				if (parameterList.size() == typeList.size() - 1) {
 					for (int i = 0; i < parameterList.size(); i++) {
-						if (!parameterList.get(i).getType().infoString()
-								.equals(typeList.get(i).infoString())) {
+						if (parameterList.get(i).getType().canonical() != typeList.get(i)
+								.canonical()) {
 							logError("parameter doesn't match function declaration at "
 									+ node.getToken().getLocation());
 							node.setType(PrimitiveType.ERROR);
@@ -371,7 +399,7 @@ public class JuncoSemanticAnalyzer {
 			else {
 				enterSubscope(node);
 			}
-
+			scopes.enter(node);
 		}
 
 		public void visitLeave(ValueBodyNode node) {
@@ -400,7 +428,7 @@ public class JuncoSemanticAnalyzer {
 			}
 
 			node.setType(node.child(node.nChildren() - 1).getType());
-
+			scopes.leave(node);
 		}
 
 		private void checkReturn(TypeVariable type, ParseNode node) {
@@ -537,8 +565,8 @@ public class JuncoSemanticAnalyzer {
 			Lextant operator = operatorFor(node);
 
 			if (operator == Punctuator.OPEN_SQUARE) {
-				if (left.getType().infoString().equals(right.getType().infoString())) {
-					node.setType(new RangeType(left.getType()));
+				if (left.getType().canonical() == right.getType().canonical()) {
+					node.setType(Types.range(left.getType()));
 				}
 				else {
 					logError("the low end and the high end must have the same type, at "
@@ -548,10 +576,11 @@ public class JuncoSemanticAnalyzer {
 			}
 			else {
 
-				FunctionSignature signature = FunctionSignature.signatureOf(operator);
+				Type resultType = FunctionSignature.resultType(operator, left.getType(),
+						right.getType());
 
-				if (signature.accepts(operator, left.getType(), right.getType())) {
-					node.setType(signature.resultType().getConstraintType());
+				if (resultType != null) {
+					node.setType(resultType);
 				}
 				else {
 					typeCheckError(node, left.getType(), right.getType());
@@ -711,8 +740,8 @@ public class JuncoSemanticAnalyzer {
 			ParseNode target = node.child(0);
 			ParseNode updateValue = node.child(1);
 
-			if (!target.getType().infoString()
-					.equals(updateValue.getType().infoString())) {
+			if (target.getType().canonical() != updateValue.getType()
+					.canonical()) {
 				if (updateValue.getType() instanceof RangeType) {
 					logError("identifier " + node.child(0).getToken().getLexeme()
 							+ " cannot be assigned " + updateValue.getType().infoString()
@@ -759,7 +788,7 @@ public class JuncoSemanticAnalyzer {
 		public void visit(IdentifierNode node) {
 			if (!isBeingDeclared(node) && !isParameter(node) && !isBoxname(node)
 					&& !isMember(node)) {
-				Binding binding = node.findVariableBinding();
+				Binding binding = scopes.resolve(node);
 				node.setType(binding.getType());
 				node.setBinding(binding);
 			}
@@ -787,9 +816,7 @@ public class JuncoSemanticAnalyzer {
 		}
 
 		private void addBinding(IdentifierNode identifierNode, Type type) {
-			Scope scope = identifierNode.getLocalScope();
-			Binding binding = scope.createBinding(identifierNode, type);
-			identifierNode.setBinding(binding);
+			scopes.createBinding(identifierNode, type);
 		}
 
 		// /////////////////////////////////////////////////////////////////////////
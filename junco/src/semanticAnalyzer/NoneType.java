@@ -1,6 +1,7 @@
 package semanticAnalyzer;
 
 public class NoneType implements Type{
+	private static final NoneType CANONICAL = new NoneType();
 
 	@Override
 	public int getSize() {
@@ -14,6 +15,11 @@ public class NoneType implements Type{
 		return "None type";
 	}
 
+	@Override
+	public Type canonical() {
+		return CANONICAL;
+	}
+
 	@Override
 	public boolean isComparable() {
 	
@@ -25,6 +25,9 @@ public enum PrimitiveType implements Type {
 	public String infoString() {
 		return infoString;
 	}
+	public Type canonical() {
+		return this;
+	}
 	@Override
 	public boolean isComparable() {
 		if (equals(PrimitiveType.INTEGER) || equals(PrimitiveType.FLOATNUM) || equals(PrimitiveType.CHARACTER)) {
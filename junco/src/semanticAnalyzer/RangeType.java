@@ -4,9 +4,12 @@ public class RangeType implements Type {
 	
 	private int sizeInBytes = 4;
 	private Type childType;
+	private RangeType canonical;
 	
-	public RangeType(Type childType) {
+	// made only by Types.range.  canonical is null for a canonical type.
+	RangeType(Type childType, RangeType canonical) {
 		this.childType = childType;
+		this.canonical = (canonical == null) ? this : canonical;
 	}
 //	private RangeType(int size, String infoString) {
 //		this.sizeInBytes = size;
@@ -18,6 +21,9 @@ public class RangeType implements Type {
 	public String infoString() {
 		return "Range:"+ childType.infoString();
 	}
+	public Type canonical() {
+		return canonical;
+	}
 	public Type getChildType() {
 		return childType;
 	}
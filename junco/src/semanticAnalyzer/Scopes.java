@@ -1,26 +1,103 @@
 package semanticAnalyzer;
 
-import java.util.Stack;
-//import parseTree.ParseNode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import lexicalAnalyzer.SymbolPool;
+import parseTree.ParseNode;
+import parseTree.nodeTypes.IdentifierNode;
+import symbolTable.Binding;
 import symbolTable.Scope;
 
 // During the semanticAnalyzer traversal, this keeps a stack of currently open scopes.
+//
+// For each symbol it also keeps the chain of its bindings in the open scopes, innermost
+// first, indexed by SymbolPool id: so resolving an identifier is one array read, however
+// deeply scopes are nested.  The scopes open are those of the nodes the traversal is in,
+// so the innermost binding of a symbol is the one a walk up the tree would find.
 public class Scopes {
-	static Stack<Scope> scopes = new Stack<Scope>();
+	private static final int STARTING_CAPACITY = 64;
 
-	private Scopes() {}
+	private Declaration[] innermost;				// by symbol, or null if it is not bound
+	private List<Declaration> declarations;			// in the open scopes, in order of binding
+	private List<ParseNode> scopeNodes;				// the nodes of the open scopes, innermost last
+	private List<Integer> firstDeclarations;		// the index in declarations of each one's first
 
-//	public static void enterStaticScope(ParseNode node) {
-//		int level = scopes.size();
-//		Scope baseScope = (level == 0) ? null : scopes.peek().getBaseScope();
-//		Scope scope = Scope.createStaticScope(level, baseScope);
-//		scopes.push(scope);
-//		node.setScope(scope);
-//	}
-//
-//	public static Scope leaveScope() {
-//		Scope scope = scopes.pop();
-//		scope.leave();
-//		return scope;
-//	}
+	public Scopes() {
+		innermost = new Declaration[STARTING_CAPACITY];
+		declarations = new ArrayList<Declaration>();
+		scopeNodes = new ArrayList<ParseNode>();
+		firstDeclarations = new ArrayList<Integer>();
+	}
+
+	/** Opens the scope of the node, with the bindings it already has. */
+	public void enter(ParseNode node) {
+		scopeNodes.add(node);
+		firstDeclarations.add(declarations.size());
+		Scope scope = node.getScope();
+		for(String lexeme : scope.getSymbolTable().keySet()) {
+			int symbol = SymbolPool.idOf(lexeme);
+			declare(symbol, scope.getSymbolTable().lookup(symbol), scope, node);
+		}
+	}
+	/** Closes the scope of the node, which must be the innermost one open. */
+	public void leave(ParseNode node) {
+		int last = scopeNodes.size() - 1;
+		assert scopeNodes.get(last) == node;
+		int first = firstDeclarations.remove(last);
+		scopeNodes.remove(last);
+		for(int i = declarations.size() - 1; i >= first; i--) {
+			Declaration declaration = declarations.remove(i);
+			innermost[declaration.symbol] = declaration.shadowed;
+		}
+	}
+
+	/** Binds the identifier in the innermost open scope, and records the binding on it. */
+	public Binding createBinding(IdentifierNode identifier, Type type) {
+		ParseNode node = scopeNodes.isEmpty() ? null : scopeNodes.get(scopeNodes.size() - 1);
+		Scope scope = node == null ? Scope.nullInstance() : node.getScope();
+		Binding binding = scope.createBinding(identifier, type);
+		declare(identifier.getSymbol(), binding, scope, node);
+		identifier.setBinding(binding, scope, node);
+		return binding;
+	}
+	/** Finds the binding of the identifier in the open scopes, and records it on the
+	 *  identifier.  Logs an error if there is none.
+	 */
+	public Binding resolve(IdentifierNode identifier) {
+		int symbol = identifier.getSymbol();
+		Declaration declaration = symbol < innermost.length ? innermost[symbol] : null;
+		if(declaration == null) {
+			identifier.useBeforeDefineError();
+			return Binding.nullInstance();
+		}
+		identifier.setBinding(declaration.binding, declaration.scope, declaration.scopeNode);
+		return declaration.binding;
+	}
+
+	private void declare(int symbol, Binding binding, Scope scope, ParseNode scopeNode) {
+		if(symbol >= innermost.length) {
+			innermost = Arrays.copyOf(innermost, Math.max(2 * innermost.length, symbol + 1));
+		}
+		Declaration declaration = new Declaration(symbol, binding, scope, scopeNode, innermost[symbol]);
+		declarations.add(declaration);
+		innermost[symbol] = declaration;
+	}
+
+	private static class Declaration {
+		final int symbol;
+		final Binding binding;
+		final Scope scope;
+		final ParseNode scopeNode;
+		final Declaration shadowed;		// the binding of the symbol in an enclosing scope, or null
+
+		Declaration(int symbol, Binding binding, Scope scope, ParseNode scopeNode, Declaration shadowed) {
+			this.symbol = symbol;
+			this.binding = binding;
+			this.scope = scope;
+			this.scopeNode = scopeNode;
+			this.shadowed = shadowed;
+		}
+	}
 }
@@ -15,5 +15,12 @@ public interface Type {
 	 */
 	public String infoString();
 	
+	/** Yields the canonical type equal to this one: two types are equal exactly
+	 * when their canonical types are the same object.  See Types.
+	 * 
+	 * @return canonical type.
+	 */
+	public Type canonical();
+	
 	public boolean isComparable();
 }
@@ -32,7 +32,7 @@ public class TypeVariable implements Type {
 		else if (constraitType instanceof AnyType) {
 			return true;
 		}
-		else if (constraitType.infoString().equals(type.infoString())) {
+		else if (constraitType.canonical() == type.canonical()) {
 			return true;
 		}
 
@@ -53,6 +53,11 @@ public class TypeVariable implements Type {
 		return constraitType.infoString();
 	}
 
+	@Override
+	public Type canonical() {
+		return constraitType.canonical();
+	}
+
 	@Override
 	public boolean isComparable() {
 		
@@ -0,0 +1,79 @@
+package semanticAnalyzer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lexicalAnalyzer.SymbolPool;
+
+/** The compiler-wide factory of range, box and function types.
+ * <p>
+ *  Types made from canonical types (see Type.canonical) are interned: there is one range
+ *  type of each canonical element type, one box type of each box name, and one function
+ *  type of each list of canonical types.  So two canonical types are equal exactly when
+ *  they are the same object, and comparing types costs a reference compare rather than
+ *  building their infoStrings.
+ * <p>
+ *  A type made from a type that is not canonical (a range of a declared box's type, say)
+ *  is made new, with the interned type as its canonical type: so the pool holds only
+ *  types that depend on nothing but names, and, like the SymbolPool, it is kept for the
+ *  life of the compiler.  The factory is safe to use from several threads.
+ */
+public class Types {
+	private static final Map<Type, RangeType> ranges = new ConcurrentHashMap<Type, RangeType>();
+	private static final Map<Integer, BoxType> boxes = new ConcurrentHashMap<Integer, BoxType>();
+	private static final Map<List<Type>, FunctionType> functions = new ConcurrentHashMap<List<Type>, FunctionType>();
+
+	private Types() {}
+
+	/** @return the range type of the element type. */
+	public static RangeType range(Type childType) {
+		if(childType.canonical() != childType) {
+			return new RangeType(childType, range(childType.canonical()));
+		}
+		RangeType result = ranges.get(childType);
+		if(result == null) {
+			RangeType made = new RangeType(childType, null);
+			result = ranges.putIfAbsent(childType, made);
+			if(result == null) {
+				result = made;
+			}
+		}
+		return result;
+	}
+	/** @return the type of references to the box named boxName.  (Each box declaration
+	 *  makes a BoxType of its own, which holds its layout, and has this as its canonical type.)
+	 */
+	public static BoxType box(String boxName) {
+		int symbol = SymbolPool.idOf(boxName);
+		BoxType result = boxes.get(symbol);
+		if(result == null) {
+			BoxType made = new BoxType(boxName, BoxType.NO_IDENTIFIER);
+			result = boxes.putIfAbsent(symbol, made);
+			if(result == null) {
+				result = made;
+			}
+		}
+		return result;
+	}
+	/** @return the function type of the parameter types followed by the return type. */
+	public static FunctionType function(List<Type> types) {
+		List<Type> canonicalTypes = new ArrayList<Type>(types.size());
+		for(Type type : types) {
+			canonicalTypes.add(type.canonical());
+		}
+		if(!canonicalTypes.equals(types)) {
+			return new FunctionType(types, function(canonicalTypes));
+		}
+		FunctionType result = functions.get(canonicalTypes);
+		if(result == null) {
+			FunctionType made = new FunctionType(canonicalTypes, null);
+			result = functions.putIfAbsent(canonicalTypes, made);
+			if(result == null) {
+				result = made;
+			}
+		}
+		return result;
+	}
+}
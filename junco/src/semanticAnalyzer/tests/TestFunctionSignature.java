@@ -0,0 +1,62 @@
+package semanticAnalyzer.tests;
+
+import lexicalAnalyzer.Keyword;
+import lexicalAnalyzer.Punctuator;
+import semanticAnalyzer.BoxType;
+import semanticAnalyzer.FunctionSignature;
+import semanticAnalyzer.PrimitiveType;
+import semanticAnalyzer.RangeType;
+import semanticAnalyzer.Type;
+import semanticAnalyzer.Types;
+import junit.framework.TestCase;
+
+public class TestFunctionSignature extends TestCase {
+	public void testArithmetic() {
+		assertSame(PrimitiveType.INTEGER, FunctionSignature.resultType(Punctuator.ADD, PrimitiveType.INTEGER, PrimitiveType.INTEGER));
+		assertSame(PrimitiveType.FLOATNUM, FunctionSignature.resultType(Punctuator.DIVIDE, PrimitiveType.FLOATNUM, PrimitiveType.FLOATNUM));
+		assertNull(FunctionSignature.resultType(Punctuator.ADD, PrimitiveType.INTEGER, PrimitiveType.FLOATNUM));
+		assertNull(FunctionSignature.resultType(Punctuator.MULTIPLY, PrimitiveType.CHARACTER, PrimitiveType.CHARACTER));
+	}
+	public void testRangeComparisons() {
+		RangeType integers = Types.range(PrimitiveType.INTEGER);
+		assertSame(PrimitiveType.BOOLEAN, FunctionSignature.resultType(Punctuator.EQUAL, integers, Types.range(PrimitiveType.INTEGER)));
+		assertNull(FunctionSignature.resultType(Punctuator.EQUAL, integers, Types.range(PrimitiveType.FLOATNUM)));
+
+		RangeType booleans = Types.range(PrimitiveType.BOOLEAN);
+		assertNull(FunctionSignature.resultType(Punctuator.EQUAL, booleans, booleans));
+		assertNull(FunctionSignature.resultType(Punctuator.LESS, Types.range(booleans), Types.range(booleans)));
+		assertNull(FunctionSignature.resultType(Punctuator.UNEQUAL, PrimitiveType.BOOLEAN, PrimitiveType.BOOLEAN));
+	}
+	public void testIn() {
+		assertSame(PrimitiveType.BOOLEAN, FunctionSignature.resultType(Keyword.IN, PrimitiveType.INTEGER, Types.range(PrimitiveType.INTEGER)));
+		assertSame(PrimitiveType.BOOLEAN, FunctionSignature.resultType(Keyword.IN, PrimitiveType.CHARACTER, Types.range(PrimitiveType.CHARACTER)));
+		assertNull(FunctionSignature.resultType(Keyword.IN, PrimitiveType.INTEGER, Types.range(PrimitiveType.FLOATNUM)));
+		assertNull(FunctionSignature.resultType(Keyword.IN, Types.range(PrimitiveType.INTEGER), Types.range(PrimitiveType.INTEGER)));
+		assertNull(FunctionSignature.resultType(Keyword.IN, PrimitiveType.BOOLEAN, Types.range(PrimitiveType.BOOLEAN)));
+		assertNull(FunctionSignature.resultType(Keyword.IN, PrimitiveType.INTEGER, PrimitiveType.INTEGER));
+	}
+	public void testSpanAndIntersection() {
+		RangeType integers = Types.range(PrimitiveType.INTEGER);
+		assertSame(integers, FunctionSignature.resultType(Punctuator.SPAN, integers, integers));
+		assertSame(integers, FunctionSignature.resultType(Punctuator.INTERSECTION, integers, integers));
+		assertNull(FunctionSignature.resultType(Punctuator.SPAN, integers, Types.range(PrimitiveType.FLOATNUM)));
+		assertNull(FunctionSignature.resultType(Punctuator.INTERSECTION, PrimitiveType.INTEGER, PrimitiveType.INTEGER));
+	}
+	// the result is the right operand's type, as it was when the operands constrained a type variable in turn.
+	public void testSpanOfDeclaredBoxes() {
+		RangeType left = Types.range(new BoxType("testFunctionSignatureBox", 300));
+		RangeType right = Types.range(new BoxType("testFunctionSignatureBox", 301));
+		assertSame(right, FunctionSignature.resultType(Punctuator.SPAN, left, right));
+		assertSame(left, FunctionSignature.resultType(Punctuator.INTERSECTION, right, left));
+	}
+	public void testErrorOperands() {
+		Type error = PrimitiveType.ERROR;
+		assertNull(FunctionSignature.resultType(Punctuator.ADD, error, PrimitiveType.INTEGER));
+		assertNull(FunctionSignature.resultType(Punctuator.AND, PrimitiveType.BOOLEAN, error));
+		assertNull(FunctionSignature.resultType(Keyword.IN, error, Types.range(PrimitiveType.INTEGER)));
+
+		RangeType errors = Types.range(error);
+		assertSame(errors, FunctionSignature.resultType(Punctuator.SPAN, errors, errors));
+		assertSame(PrimitiveType.BOOLEAN, FunctionSignature.resultType(Punctuator.EQUAL, errors, errors));
+	}
+}
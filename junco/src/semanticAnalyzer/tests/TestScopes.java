@@ -0,0 +1,60 @@
+package semanticAnalyzer.tests;
+
+import inputHandler.TextLocation;
+import lexicalAnalyzer.Punctuator;
+import parseTree.ParseNode;
+import parseTree.nodeTypes.BodyNode;
+import parseTree.nodeTypes.IdentifierNode;
+import parseTree.nodeTypes.ProgramNode;
+import semanticAnalyzer.PrimitiveType;
+import semanticAnalyzer.Scopes;
+import symbolTable.Binding;
+import symbolTable.Scope;
+import tokens.IdentifierToken;
+import tokens.LextantToken;
+import junit.framework.TestCase;
+
+public class TestScopes extends TestCase {
+	public void testInnermostBindingWins() {
+		ParseNode program = new ProgramNode(token());
+		program.setScope(Scope.createGlobalScope());
+		ParseNode body = new BodyNode(token());
+		program.appendChild(body);
+		body.setScope(program.getScope().createSubscope());
+
+		Scopes scopes = new Scopes();
+		scopes.enter(program);
+		Binding outer = scopes.createBinding(identifier("x"), PrimitiveType.INTEGER);
+		scopes.enter(body);
+		Binding inner = scopes.createBinding(identifier("x"), PrimitiveType.FLOATNUM);
+
+		IdentifierNode use = identifier("x");
+		assertSame(inner, scopes.resolve(use));
+		assertSame(inner, use.getBinding());
+		assertSame(body.getScope(), use.getDeclarationScope());
+		assertSame(body, use.findScopeNode());
+
+		scopes.leave(body);
+		IdentifierNode later = identifier("x");
+		assertSame(outer, scopes.resolve(later));
+		assertSame(program.getScope(), later.getDeclarationScope());
+		assertSame(program, later.findScopeNode());
+	}
+	public void testBindingsAlreadyInScope() {
+		ParseNode program = new ProgramNode(token());
+		program.setScope(Scope.createGlobalScope());
+		Binding existing = program.getScope().createBinding(identifier("y"), PrimitiveType.BOOLEAN);
+
+		Scopes scopes = new Scopes();
+		scopes.enter(program);
+		assertSame(existing, scopes.resolve(identifier("y")));
+		scopes.leave(program);
+	}
+
+	private static IdentifierNode identifier(String lexeme) {
+		return new IdentifierNode(IdentifierToken.make(TextLocation.nullInstance(), lexeme));
+	}
+	private static LextantToken token() {
+		return LextantToken.make(TextLocation.nullInstance(), "", Punctuator.ADD);
+	}
+}
@@ -0,0 +1,66 @@
+package semanticAnalyzer.tests;
+
+import java.util.Arrays;
+import java.util.List;
+
+import semanticAnalyzer.BoxType;
+import semanticAnalyzer.FunctionType;
+import semanticAnalyzer.PrimitiveType;
+import semanticAnalyzer.RangeType;
+import semanticAnalyzer.Type;
+import semanticAnalyzer.TypeVariable;
+import semanticAnalyzer.Types;
+import junit.framework.TestCase;
+
+public class TestTypes extends TestCase {
+	public void testRangesAreInterned() {
+		RangeType ranges = Types.range(Types.range(PrimitiveType.INTEGER));
+		assertSame(ranges, Types.range(Types.range(PrimitiveType.INTEGER)));
+		assertSame(ranges.getChildType(), Types.range(PrimitiveType.INTEGER));
+		assertNotSame(Types.range(PrimitiveType.INTEGER), Types.range(PrimitiveType.FLOATNUM));
+		assertSame(ranges, ranges.canonical());
+	}
+	public void testDeepRanges() {
+		Type first = PrimitiveType.CHARACTER;
+		Type second = PrimitiveType.CHARACTER;
+		for(int i = 0; i < 10000; i++) {
+			first = Types.range(first);
+			second = Types.range(second);
+		}
+		assertSame(first, second);
+	}
+	public void testBoxesByName() {
+		BoxType point = Types.box("testTypesPoint");
+		assertSame(point, Types.box(new String("testTypesPoint")));
+		assertSame(point, point.canonical());
+
+		BoxType declared = new BoxType("testTypesPoint", 200);
+		assertNotSame(point, declared);
+		assertSame(point, declared.canonical());
+		assertNotSame(Types.box("testTypesOther").canonical(), declared.canonical());
+	}
+	public void testRangeOfDeclaredBox() {
+		BoxType declared = new BoxType("testTypesRangeBox", 201);
+		RangeType range = Types.range(declared);
+		assertSame(declared, range.getChildType());
+		assertSame(Types.range(Types.box("testTypesRangeBox")), range.canonical());
+	}
+	public void testFunctions() {
+		List<Type> signature = Arrays.<Type>asList(PrimitiveType.INTEGER, Types.range(PrimitiveType.BOOLEAN),
+				PrimitiveType.FLOATNUM);
+		FunctionType function = Types.function(signature);
+		assertSame(function, Types.function(Arrays.<Type>asList(PrimitiveType.INTEGER,
+				Types.range(PrimitiveType.BOOLEAN), PrimitiveType.FLOATNUM)));
+		assertSame(PrimitiveType.FLOATNUM, function.getReturnType());
+		assertNotSame(function, Types.function(Arrays.<Type>asList(PrimitiveType.INTEGER)));
+	}
+	public void testTypeVariableConstraint() {
+		TypeVariable variable = new TypeVariable();
+		variable.resetType();
+		variable.constrain(Types.range(PrimitiveType.INTEGER));
+		variable.constrain(Types.range(PrimitiveType.INTEGER));
+		assertSame(Types.range(PrimitiveType.INTEGER), variable.getConstraintType());
+		variable.constrain(new BoxType("testTypesVariable", 202));
+		assertEquals("None type", variable.infoString());
+	}
+}
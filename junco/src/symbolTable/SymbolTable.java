@@ -1,20 +1,32 @@
 package symbolTable;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.Map.Entry;
 
+import lexicalAnalyzer.SymbolPool;
 import logging.JuncoLogger;
 
 import tokens.Token;
 
 public class SymbolTable {
+	private static final int STARTING_CAPACITY = 8;		// a power of two
+	private static final int EMPTY = -1;
+	
 	private Map<String, Binding> table;
+	// the same bindings, keyed by SymbolPool id in an open-addressed table
+	private int[] symbols;
+	private Binding[] bindings;
+	private int numBindings;
 	
 	public SymbolTable() {
 		table = new HashMap<String, Binding>();
+		symbols = emptySymbols(STARTING_CAPACITY);
+		bindings = new Binding[STARTING_CAPACITY];
+		numBindings = 0;
 	}
 	
 	
@@ -23,6 +35,7 @@ public class SymbolTable {
 
 	public Binding install(String identifier, Binding binding) {
 		table.put(identifier, binding);
+		installSymbol(SymbolPool.idOf(identifier), binding);
 		return binding;
 	}
 	public Binding lookup(String identifier) {
@@ -32,6 +45,57 @@ public class SymbolTable {
 		}
 		return binding;
 	}
+	/** Lookup by SymbolPool id, which compares ints rather than hashing a string. */
+	public Binding lookup(int symbol) {
+		int slot = slotFor(symbol);
+		if(symbols[slot] == EMPTY) {
+			return Binding.nullInstance();
+		}
+		return bindings[slot];
+	}
+	public boolean containsKey(int symbol) {
+		return symbols[slotFor(symbol)] != EMPTY;
+	}
+	
+	private void installSymbol(int symbol, Binding binding) {
+		int slot = slotFor(symbol);
+		if(symbols[slot] == EMPTY) {
+			symbols[slot] = symbol;
+			numBindings++;
+		}
+		bindings[slot] = binding;
+		growIfCrowded();
+	}
+	private int slotFor(int symbol) {
+		int mask = symbols.length - 1;
+		int slot = symbol & mask;
+		while(symbols[slot] != EMPTY && symbols[slot] != symbol) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+	// keeps the table at most half full.
+	private void growIfCrowded() {
+		if(2 * numBindings <= symbols.length) {
+			return;
+		}
+		int[] oldSymbols = symbols;
+		Binding[] oldBindings = bindings;
+		symbols = emptySymbols(2 * oldSymbols.length);
+		bindings = new Binding[2 * oldSymbols.length];
+		for(int i = 0; i < oldSymbols.length; i++) {
+			if(oldSymbols[i] != EMPTY) {
+				int slot = slotFor(oldSymbols[i]);
+				symbols[slot] = oldSymbols[i];
+				bindings[slot] = oldBindings[i];
+			}
+		}
+	}
+	private static int[] emptySymbols(int capacity) {
+		int[] result = new int[capacity];
+		Arrays.fill(result, EMPTY);
+		return result;
+	}
 	
 	///////////////////////////////////////////////////////////////////////
 	// Map delegates	
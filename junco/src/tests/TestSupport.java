@@ -0,0 +1,79 @@
+package tests;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import parseTree.ParseNode;
+
+/** What the tests share besides file fixtures: the fixture program most of them scan,
+ *  a way to catch what the compiler logs, and a printing of trees detailed enough to
+ *  compare.
+ */
+public class TestSupport {
+	public static final String COIN_TEST_FILENAME = "src/applications/tests/fixtures/coinTest.junco";
+	
+	private TestSupport() {}
+	
+////////////////////////////////////////////////////////////////////////////////////
+//  logged messages
+	
+	/** Collects the messages logged to one logger, and while it does, keeps the logger
+	 *  from passing them on to its parents (and so to the console).
+	 */
+	public static class LogCapture extends Handler {
+		private Logger logger;
+		private boolean usedParentHandlers;
+		private List<String> messages = new ArrayList<String>();
+		
+		/** Starts capturing; the caller must detach() when done. */
+		public LogCapture(String loggerName) {
+			logger = Logger.getLogger(loggerName);
+			usedParentHandlers = logger.getUseParentHandlers();
+			logger.setUseParentHandlers(false);
+			logger.addHandler(this);
+		}
+		public void detach() {
+			logger.removeHandler(this);
+			logger.setUseParentHandlers(usedParentHandlers);
+		}
+		/** @return the messages logged since the last take(), in order. */
+		public List<String> take() {
+			List<String> result = messages;
+			messages = new ArrayList<String>();
+			return result;
+		}
+		
+		@Override
+		public synchronized void publish(LogRecord record) {
+			messages.add(record.getMessage());
+		}
+		@Override
+		public void flush() {
+		}
+		@Override
+		public void close() {
+		}
+	}
+	
+////////////////////////////////////////////////////////////////////////////////////
+//  printings to compare
+	
+	/** @return the tree, a node per line, indented by depth, each with the full detail
+	 *  (location included) of its token.
+	 */
+	public static String located(ParseNode node) {
+		StringBuilder result = new StringBuilder();
+		appendLocated(node, "", result);
+		return result.toString();
+	}
+	private static void appendLocated(ParseNode node, String indent, StringBuilder result) {
+		result.append(indent).append(node.getClass().getSimpleName()).append(' ')
+		      .append(node.getToken().fullString()).append('\n');
+		for(int i = 0; i < node.nChildren(); i++) {
+			appendLocated(node.child(i), indent + "  ", result);
+		}
+	}
+}
@@ -1,13 +1,14 @@
 package tokens;
 
 import inputHandler.TextLocation;
+import inputHandler.TextLocator;
 
 public class CharacterToken extends TokenImp {
 	
 	protected char value;
 	
-	protected CharacterToken(TextLocation location, String lexeme) {
-		super(location, lexeme);
+	protected CharacterToken(TextLocator locator, int offset, String lexeme) {
+		super(locator, offset, lexeme);
 	}
 	
 	protected void setValue(char value) {
@@ -18,7 +19,10 @@ public class CharacterToken extends TokenImp {
 	}
 	
 	public static CharacterToken make(TextLocation location, String lexeme) {
-		CharacterToken result = new CharacterToken(location, lexeme);
+		return make(location, 0, lexeme);
+	}
+	public static CharacterToken make(TextLocator locator, int offset, String lexeme) {
+		CharacterToken result = new CharacterToken(locator, offset, lexeme);
 		result.setValue(lexeme.charAt(0)); 
 		return result;
 	}
@@ -1,13 +1,14 @@
 package tokens;
 
 import inputHandler.TextLocation;
+import inputHandler.TextLocator;
 
 
 public class FloatingToken extends TokenImp {
 	protected double value;
 	
-	protected FloatingToken(TextLocation location, String lexeme) {
-		super(location, lexeme);
+	protected FloatingToken(TextLocator locator, int offset, String lexeme) {
+		super(locator, offset, lexeme);
 	}
 	protected void setValue(double value) {
 		this.value = value;
@@ -17,8 +18,15 @@ public class FloatingToken extends TokenImp {
 	}
 	
 	public static FloatingToken make(TextLocation location, String lexeme) {
-		FloatingToken result = new FloatingToken(location, lexeme);
-		result.setValue(Double.parseDouble(lexeme)); 
+		return make(location, 0, lexeme);
+	}
+	public static FloatingToken make(TextLocator locator, int offset, String lexeme) {
+		return make(locator, offset, lexeme, Double.parseDouble(lexeme));
+	}
+	/** For scanners that have already decoded the lexeme's value. */
+	public static FloatingToken make(TextLocator locator, int offset, String lexeme, double value) {
+		FloatingToken result = new FloatingToken(locator, offset, lexeme);
+		result.setValue(value);
 		return result;
 	}
 	
@@ -1,14 +1,36 @@
 package tokens;
 
+import lexicalAnalyzer.SymbolPool;
 import inputHandler.TextLocation;
+import inputHandler.TextLocator;
 
+/** An identifier, which carries the id of its lexeme in the SymbolPool. */
 public class IdentifierToken extends TokenImp {
-	protected IdentifierToken(TextLocation location, String lexeme) {
-		super(location, lexeme.intern());
+	private int symbol;
+	
+	protected IdentifierToken(TextLocator locator, int offset, int symbol) {
+		super(locator, offset, SymbolPool.lexemeOf(symbol));
+		this.symbol = symbol;
+	}
+	
+	public int getSymbol() {
+		return symbol;
+	}
+	// a changed lexeme is a different symbol.
+	@Override
+	public void setLexeme(String lexeme) {
+		super.setLexeme(lexeme);
+		symbol = SymbolPool.idOf(getLexeme());
 	}
 	
 	public static IdentifierToken make(TextLocation location, String lexeme) {
-		IdentifierToken result = new IdentifierToken(location, lexeme);
+		return make(location, 0, lexeme);
+	}
+	public static IdentifierToken make(TextLocator locator, int offset, String lexeme) {
+		return make(locator, offset, SymbolPool.idOf(lexeme));
+	}
+	public static IdentifierToken make(TextLocator locator, int offset, int symbol) {
+		IdentifierToken result = new IdentifierToken(locator, offset, symbol);
 		return result;
 	}
 
@@ -2,19 +2,24 @@ package tokens;
 
 import lexicalAnalyzer.Lextant;
 import inputHandler.TextLocation;
+import inputHandler.TextLocator;
 
 public final class LextantToken extends TokenImp {
 
 	private Lextant lextant;
 	
-	private LextantToken(TextLocation location, String lexeme, Lextant lextant) {
-		super(location, lexeme);
+	private LextantToken(TextLocator locator, int offset, String lexeme, Lextant lextant) {
+		super(locator, offset, lexeme);
 		this.lextant = lextant;
 	}
 	
 	public Lextant getLextant() {
 		return lextant;
 	}
+	// the common case, without a varargs array.
+	public boolean isLextant(Lextant lextant) {
+		return this.lextant == lextant;
+	}
 	public boolean isLextant(Lextant ...lextants) {
 		for(Lextant lextant: lextants) {
 			if(this.lextant == lextant)
@@ -28,6 +33,9 @@ public final class LextantToken extends TokenImp {
 	
 	
 	public static LextantToken make(TextLocation location, String lexeme, Lextant lextant) {
-		return new LextantToken(location, lexeme, lextant);
+		return make(location, 0, lexeme, lextant);
+	}
+	public static LextantToken make(TextLocator locator, int offset, String lexeme, Lextant lextant) {
+		return new LextantToken(locator, offset, lexeme, lextant);
 	}
 }
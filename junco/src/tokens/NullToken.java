@@ -1,11 +1,12 @@
 package tokens;
 
 import inputHandler.TextLocation;
+import inputHandler.TextLocator;
 
 public class NullToken extends TokenImp {
 
-	protected NullToken(TextLocation location, String lexeme) {
-		super(location, lexeme);
+	protected NullToken(TextLocator locator, int offset, String lexeme) {
+		super(locator, offset, lexeme);
 	}
 
 	@Override
@@ -14,7 +15,10 @@ public class NullToken extends TokenImp {
 	}
 	
 	public static NullToken make(TextLocation location) {
-		NullToken result = new NullToken(location, "");
+		return make(location, 0);
+	}
+	public static NullToken make(TextLocator locator, int offset) {
+		NullToken result = new NullToken(locator, offset, "");
 		return result;
 	}
 }
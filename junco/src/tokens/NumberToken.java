@@ -1,12 +1,13 @@
 package tokens;
 
 import inputHandler.TextLocation;
+import inputHandler.TextLocator;
 
 public class NumberToken extends TokenImp {
 	protected int value;
 	
-	protected NumberToken(TextLocation location, String lexeme) {
-		super(location, lexeme);
+	protected NumberToken(TextLocator locator, int offset, String lexeme) {
+		super(locator, offset, lexeme);
 	}
 	protected void setValue(int value) {
 		this.value = value;
@@ -16,8 +17,15 @@ public class NumberToken extends TokenImp {
 	}
 	
 	public static NumberToken make(TextLocation location, String lexeme) {
-		NumberToken result = new NumberToken(location, lexeme);
-		result.setValue(Integer.parseInt(lexeme));
+		return make(location, 0, lexeme);
+	}
+	public static NumberToken make(TextLocator locator, int offset, String lexeme) {
+		return make(locator, offset, lexeme, Integer.parseInt(lexeme));
+	}
+	/** For scanners that have already decoded the lexeme's value. */
+	public static NumberToken make(TextLocator locator, int offset, String lexeme, int value) {
+		NumberToken result = new NumberToken(locator, offset, lexeme);
+		result.setValue(value);
 		return result;
 	}
 	
@@ -7,6 +7,7 @@ public interface Token {
 	public String getLexeme();
 	public TextLocation getLocation();
 	public String fullString();
+	public boolean isLextant(Lextant lextant);
 	public boolean isLextant(Lextant ...lextants);
 	public void setLexeme(String lexeme);
 }
@@ -2,16 +2,23 @@ package tokens;
 
 import lexicalAnalyzer.Lextant;
 import inputHandler.TextLocation;
+import inputHandler.TextLocator;
 
 public abstract class TokenImp implements Token {
-	private TextLocation location;
+	// the location is made from locator and offset only when asked for.
+	private TextLocator locator;
+	private int offset;
 	private String lexeme;
 
-	protected TokenImp(TextLocation location, String lexeme) {
+	protected TokenImp(TextLocator locator, int offset, String lexeme) {
 		super();
-		this.location = location;
+		this.locator = locator;
+		this.offset = offset;
 		this.lexeme = lexeme;
 	}
+	protected TokenImp(TextLocation location, String lexeme) {
+		this(location, 0, lexeme);
+	}
 
 	@Override
 	public String getLexeme() {
@@ -19,7 +26,15 @@ public abstract class TokenImp implements Token {
 	}
 	@Override
 	public TextLocation getLocation() {
-		return location;
+		return locator == null ? null : locator.locate(offset);
+	}
+	/** @return the offset of the token in its source text (0 for a token made from a TextLocation). */
+	public int getOffset() {
+		return offset;
+	}
+	/** @return what makes the token's location from its offset. */
+	public TextLocator getLocator() {
+		return locator;
 	}
 	
 	/** A string (not surrounded by parentheses) representing the subclass information.
@@ -35,6 +50,7 @@ public abstract class TokenImp implements Token {
 	 * @return string with all token info.
 	 */
 	public String fullString() {
+		TextLocation location = getLocation();
 		String locationString = location == null ? "(no text location)" : location.toString();
 		return "(" + rawString() + 
 			   ", " + locationString +
@@ -42,6 +58,10 @@ public abstract class TokenImp implements Token {
 			   ")";
 	}
 	
+	@Override
+	public boolean isLextant(Lextant lextant) {
+		return false;
+	}
 	@Override
 	public boolean isLextant(Lextant ...lextants) {
 		return false;